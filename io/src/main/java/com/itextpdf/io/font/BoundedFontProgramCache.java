@@ -0,0 +1,204 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * An {@link IFontProgramCache} which limits the estimated memory footprint of the cached font programs.
+ * When the limit is exceeded, the least recently used font programs are evicted.
+ * Optionally the font programs may be held by soft references, so that the garbage collector is able
+ * to reclaim them before the limit is reached.
+ */
+public class BoundedFontProgramCache implements IFontProgramCache {
+
+    /**
+     * The estimated size of a glyph map entry, i.e. the map node, the boxed key and a share of the glyph itself.
+     */
+    private static final int GLYPH_ENTRY_SIZE = 96;
+
+    private final long maxBytes;
+    private final boolean softReferences;
+
+    // access-ordered, so the iteration starts with the least recently used font program
+    private final LinkedHashMap<FontCacheKey, CachedFontProgram> fonts = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReferenceQueue<FontProgram> collectedFonts = new ReferenceQueue<>();
+
+    private long estimatedBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache which holds the font programs by strong references.
+     * @param maxBytes the maximum estimated size of the cached font programs in bytes
+     */
+    public BoundedFontProgramCache(long maxBytes) {
+        this(maxBytes, false);
+    }
+
+    /**
+     * Creates a cache.
+     * @param maxBytes the maximum estimated size of the cached font programs in bytes
+     * @param softReferences whether the font programs shall be held by soft references
+     */
+    public BoundedFontProgramCache(long maxBytes, boolean softReferences) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes");
+        }
+        this.maxBytes = maxBytes;
+        this.softReferences = softReferences;
+    }
+
+    @Override
+    public synchronized FontProgram get(FontCacheKey key) {
+        removeCollectedFonts();
+        CachedFontProgram cached = fonts.get(key);
+        FontProgram fontProgram = cached != null ? cached.getFontProgram() : null;
+        if (fontProgram != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return fontProgram;
+    }
+
+    @Override
+    public synchronized FontProgram put(FontCacheKey key, FontProgram fontProgram) {
+        removeCollectedFonts();
+        CachedFontProgram cached = fonts.get(key);
+        if (cached != null) {
+            FontProgram fontFound = cached.getFontProgram();
+            if (fontFound != null) {
+                return fontFound;
+            }
+            remove(key);
+        }
+        long size = estimateSize(fontProgram);
+        if (size > maxBytes) {
+            // caching would evict everything else including this very font program
+            return fontProgram;
+        }
+        fonts.put(key, new CachedFontProgram(key, fontProgram, size, softReferences ? collectedFonts : null));
+        estimatedBytes += size;
+        Iterator<CachedFontProgram> iterator = fonts.values().iterator();
+        while (estimatedBytes > maxBytes) {
+            estimatedBytes -= iterator.next().size;
+            iterator.remove();
+            evictionCount++;
+        }
+        return fontProgram;
+    }
+
+    @Override
+    public synchronized void clear() {
+        fonts.clear();
+        estimatedBytes = 0;
+        while (collectedFonts.poll() != null) {
+            // the cleared references are not in the cache anymore
+        }
+    }
+
+    @Override
+    public synchronized FontCacheStatistics getStatistics() {
+        removeCollectedFonts();
+        return new FontCacheStatistics(hitCount, missCount, evictionCount, fonts.size(), estimatedBytes);
+    }
+
+    /**
+     * Gets the maximum estimated size of the cached font programs.
+     * @return the maximum size in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Estimates the memory footprint of the font program. The estimation accounts for the glyphs,
+     * the font data which is kept in memory and the font stream, which is read into memory once the font
+     * is embedded, so that the estimation doesn't change while the font program is cached.
+     * The parsed OpenType layout tables are not taken into account.
+     * @param fontProgram the font program
+     * @return the estimated size of the font program in bytes
+     */
+    protected long estimateSize(FontProgram fontProgram) {
+        return (long) GLYPH_ENTRY_SIZE * (fontProgram.codeToGlyph.size() + fontProgram.unicodeToGlyph.size())
+                + fontProgram.getBufferedDataLength();
+    }
+
+    private void removeCollectedFonts() {
+        CachedFontProgram collected;
+        while ((collected = (CachedFontProgram) collectedFonts.poll()) != null) {
+            if (fonts.get(collected.key) == collected) {
+                remove(collected.key);
+                evictionCount++;
+            }
+        }
+    }
+
+    private void remove(FontCacheKey key) {
+        estimatedBytes -= fonts.remove(key).size;
+    }
+
+    private static class CachedFontProgram extends SoftReference<FontProgram> {
+        private final FontCacheKey key;
+        // the strong reference which is set unless the font program is held softly
+        private final FontProgram fontProgram;
+        private final long size;
+
+        CachedFontProgram(FontCacheKey key, FontProgram fontProgram, long size, ReferenceQueue<FontProgram> queue) {
+            super(fontProgram, queue);
+            this.key = key;
+            this.fontProgram = queue == null ? fontProgram : null;
+            this.size = size;
+        }
+
+        FontProgram getFontProgram() {
+            return fontProgram != null ? fontProgram : get();
+        }
+    }
+}
@@ -81,7 +81,22 @@ public class FontCache {
     private static final String W_PROP = "W";
     private static final String W2_PROP = "W2";
 
-    private static Map<FontCacheKey, FontProgram> fontCache = new ConcurrentHashMap<>();
+    // CMap resources are immutable once parsed, so they are cached for the life of the JVM
+    private static final ConcurrentHashMap<String, CMapCidUni> cid2UniCmaps = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, CMapUniCid> uni2CidCmaps = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, CMapByteCid> byte2CidCmaps = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, CMapCidByte> cid2ByteCmaps = new ConcurrentHashMap<>();
+
+    private static volatile IFontProgramCache fontCache = new UnboundedFontProgramCache();
+
+    // font programs with the keys falling into the same stripe are loaded one at a time
+    private static final Object[] loadingLocks = new Object[64];
+
+    static {
+        for (int i = 0; i < loadingLocks.length; i++) {
+            loadingLocks[i] = new Object();
+        }
+    }
 
     static {
         try {
@@ -142,24 +157,48 @@ public class FontCache {
         return registryNames;
     }
 
+    /**
+     * Gets the CMap which maps CIDs to Unicode. The CMap resource is parsed once,
+     * the returned instance is shared and shall not be modified.
+     * @param uniMap the name of the CMap resource
+     * @return the parsed CMap
+     */
     public static CMapCidUni getCid2UniCmap(String uniMap) {
-        CMapCidUni cidUni = new CMapCidUni();
-        return parseCmap(uniMap, cidUni);
+        CMapCidUni cidUni = cid2UniCmaps.get(uniMap);
+        return cidUni != null ? cidUni : cacheCmap(cid2UniCmaps, uniMap, new CMapCidUni());
     }
 
+    /**
+     * Gets the CMap which maps Unicode to CIDs. The CMap resource is parsed once,
+     * the returned instance is shared and shall not be modified.
+     * @param uniMap the name of the CMap resource
+     * @return the parsed CMap
+     */
     public static CMapUniCid getUni2CidCmap(String uniMap) {
-        CMapUniCid uniCid = new CMapUniCid();
-        return parseCmap(uniMap, uniCid);
+        CMapUniCid uniCid = uni2CidCmaps.get(uniMap);
+        return uniCid != null ? uniCid : cacheCmap(uni2CidCmaps, uniMap, new CMapUniCid());
     }
 
+    /**
+     * Gets the CMap which maps byte codes to CIDs. The CMap resource is parsed once,
+     * the returned instance is shared and shall not be modified.
+     * @param cmap the name of the CMap resource
+     * @return the parsed CMap
+     */
     public static CMapByteCid getByte2CidCmap(String cmap) {
-        CMapByteCid uniCid = new CMapByteCid();
-        return parseCmap(cmap, uniCid);
+        CMapByteCid byteCid = byte2CidCmaps.get(cmap);
+        return byteCid != null ? byteCid : cacheCmap(byte2CidCmaps, cmap, new CMapByteCid());
     }
 
+    /**
+     * Gets the CMap which maps CIDs to byte codes. The CMap resource is parsed once,
+     * the returned instance is shared and shall not be modified.
+     * @param cmap the name of the CMap resource
+     * @return the parsed CMap
+     */
     public static CMapCidByte getCid2Byte(String cmap) {
-        CMapCidByte cidByte = new CMapCidByte();
-        return parseCmap(cmap, cidByte);
+        CMapCidByte cidByte = cid2ByteCmaps.get(cmap);
+        return cidByte != null ? cidByte : cacheCmap(cid2ByteCmaps, cmap, new CMapCidByte());
     }
 
     public static FontProgram getFont(String fontName) {
@@ -175,12 +214,48 @@ public class FontCache {
     }
 
     static FontProgram saveFont(FontProgram font, FontCacheKey key) {
-        FontProgram fontFound = fontCache.get(key);
-        if (fontFound != null) {
-            return fontFound;
+        return fontCache.put(key, font);
+    }
+
+    /**
+     * Gets the cache which stores the font programs created with {@code cached} flag.
+     * @return the font program cache in use
+     */
+    public static IFontProgramCache getFontProgramCache() {
+        return fontCache;
+    }
+
+    /**
+     * Replaces the cache which stores the font programs created with {@code cached} flag, e.g. with
+     * a {@link BoundedFontProgramCache} in order to limit the memory occupied by the cached font programs.
+     * The font programs cached so far are not carried over to the new cache.
+     * @param cache the font program cache to be used
+     */
+    public static void setFontProgramCache(IFontProgramCache cache) {
+        if (cache == null) {
+            throw new IllegalArgumentException("cache");
+        }
+        fontCache = cache;
+    }
+
+    /**
+     * Gets the cached font program or loads it and puts it into the cache. The lock which is held while
+     * the font program is being loaded makes concurrent requests for the same font program not parse it twice.
+     * @param key the key of the font program
+     * @param loader the loader which creates the font program if it is not cached
+     * @return the cached or the newly loaded font program
+     */
+    static FontProgram getOrLoadFont(FontCacheKey key, FontProgramLoader loader) throws java.io.IOException {
+        FontProgram fontFound = getFont(key);
+        if (fontFound == null) {
+            synchronized (loadingLocks[(key.hashCode() & 0x7fffffff) % loadingLocks.length]) {
+                fontFound = getFont(key);
+                if (fontFound == null) {
+                    fontFound = saveFont(loader.load(), key);
+                }
+            }
         }
-        fontCache.put(key, font);
-        return font;
+        return fontFound;
     }
 
     private static void loadRegistry() throws java.io.IOException {
@@ -243,12 +318,29 @@ public class FontCache {
         return h;
     }
 
-    private static <T extends AbstractCMap> T parseCmap(String name, T cmap) {
+    /**
+     * Creates the font program which is put into the cache by {@link #getOrLoadFont(FontCacheKey, FontProgramLoader)}.
+     */
+    interface FontProgramLoader {
+        FontProgram load() throws java.io.IOException;
+    }
+
+    private static <T extends AbstractCMap> T cacheCmap(ConcurrentHashMap<String, T> cmaps, String name, T cmap) {
+        parseCmap(name, cmap);
+        if (!cmap.hasMappings()) {
+            // the parser logs and swallows the failures, a broken or missing resource is not cached
+            return cmap;
+        }
+        // concurrent callers may parse the same CMap, only the first one gets cached
+        T cmapFound = cmaps.putIfAbsent(name, cmap);
+        return cmapFound != null ? cmapFound : cmap;
+    }
+
+    private static void parseCmap(String name, AbstractCMap cmap) {
         try {
             CMapParser.parseCid(name, cmap, new CMapLocationResource());
         } catch (java.io.IOException e) {
             throw new IOException(IOException.IoException, e);
         }
-        return cmap;
     }
 }
@@ -285,6 +285,16 @@ public abstract class FontProgram implements Serializable {
         }
     }
 
+    /**
+     * Gets the length of the font data which is kept in memory by this font program, e.g. the font file bytes.
+     * The font stream, which is read into memory when the font is embedded, is counted even if it is not read yet,
+     * so that the estimation doesn't grow after the font program is cached.
+     * Used to estimate the memory footprint of the cached font programs.
+     */
+    long getBufferedDataLength() {
+        return 0;
+    }
+
     protected void fixSpaceIssue() {
         Glyph space = unicodeToGlyph.get(32);
         if (space != null) {
@@ -163,21 +163,20 @@ public final class FontProgramFactory {
      * @deprecated Use {@link #createFont(byte[], boolean)} or {@link #createFont(String, boolean)}
      */
     @Deprecated
-    public static FontProgram createFont(String name, byte[] fontProgram, boolean cached) throws java.io.IOException {
+    public static FontProgram createFont(final String name, final byte[] fontProgram, boolean cached) throws java.io.IOException {
         String baseName = FontProgram.getBaseName(name);
 
         //yes, we trying to find built-in standard font with original name, not baseName.
         boolean isBuiltinFonts14 = FontConstants.BUILTIN_FONTS_14.contains(name);
         boolean isCidFont = !isBuiltinFonts14 && FontCache.isPredefinedCidFont(baseName);
 
-        FontProgram fontFound;
-        FontCacheKey fontKey = null;
         if (cached) {
-            fontKey = createFontCacheKey(name, fontProgram);
-            fontFound = FontCache.getFont(fontKey);
-            if (fontFound != null) {
-                return fontFound;
-            }
+            return FontCache.getOrLoadFont(createFontCacheKey(name, fontProgram), new FontCache.FontProgramLoader() {
+                @Override
+                public FontProgram load() throws java.io.IOException {
+                    return createFont(name, fontProgram, false);
+                }
+            });
         }
 
         FontProgram fontBuilt = null;
@@ -225,7 +224,7 @@ public final class FontProgramFactory {
                 throw new IOException(IOException.TypeOfFontIsNotRecognized);
             }
         }
-        return cached ? FontCache.saveFont(fontBuilt, fontKey) : fontBuilt;
+        return fontBuilt;
     }
 
     /**
@@ -233,18 +232,16 @@ public final class FontProgramFactory {
      * @deprecated Use {@link #createType1Font(byte[], byte[])} or {@link #createType1Font(String, String)} instead
      */
     @Deprecated
-    public static FontProgram createType1Font(String name, byte[] afm, byte[] pfb, boolean cached) throws java.io.IOException {
-        FontProgram fontProgram;
-        FontCacheKey fontKey = null;
+    public static FontProgram createType1Font(final String name, final byte[] afm, final byte[] pfb, boolean cached) throws java.io.IOException {
         if (cached) {
-            fontKey = createFontCacheKey(name, afm);
-            fontProgram = FontCache.getFont(fontKey);
-            if (fontProgram != null) {
-                return fontProgram;
-            }
+            return FontCache.getOrLoadFont(createFontCacheKey(name, afm), new FontCache.FontProgramLoader() {
+                @Override
+                public FontProgram load() throws java.io.IOException {
+                    return new Type1Font(name, null, afm, pfb);
+                }
+            });
         }
-        fontProgram = new Type1Font(name, null, afm, pfb);
-        return cached ? FontCache.saveFont(fontProgram, fontKey) : fontProgram;
+        return new Type1Font(name, null, afm, pfb);
     }
 
     /**
@@ -299,16 +296,16 @@ public final class FontProgramFactory {
      * @return returns a new {@link FontProgram} instance. This font may come from the cache but only if cached
      * is true, otherwise it will always be created new
      */
-    public static FontProgram createFont(String ttc, int ttcIndex, boolean cached) throws java.io.IOException {
-        FontCacheKey fontCacheKey = FontCacheKey.create(ttc, ttcIndex);
+    public static FontProgram createFont(final String ttc, final int ttcIndex, boolean cached) throws java.io.IOException {
         if (cached) {
-            FontProgram fontFound = FontCache.getFont(fontCacheKey);
-            if (fontFound != null) {
-                return fontFound;
-            }
+            return FontCache.getOrLoadFont(FontCacheKey.create(ttc, ttcIndex), new FontCache.FontProgramLoader() {
+                @Override
+                public FontProgram load() throws java.io.IOException {
+                    return new TrueTypeFont(ttc, ttcIndex);
+                }
+            });
         }
-        FontProgram fontBuilt = new TrueTypeFont(ttc, ttcIndex);
-        return cached ? FontCache.saveFont(fontBuilt, fontCacheKey) : fontBuilt;
+        return new TrueTypeFont(ttc, ttcIndex);
     }
 
     /**
@@ -321,16 +318,16 @@ public final class FontProgramFactory {
      * @return returns a new {@link FontProgram} instance. This font may come from the cache but only if cached
      * is true, otherwise it will always be created new
      */
-    public static FontProgram createFont(byte[] ttc, int ttcIndex, boolean cached) throws java.io.IOException {
-        FontCacheKey fontKey = FontCacheKey.create(ttc, ttcIndex);
+    public static FontProgram createFont(final byte[] ttc, final int ttcIndex, boolean cached) throws java.io.IOException {
         if (cached) {
-            FontProgram fontFound = FontCache.getFont(fontKey);
-            if (fontFound != null) {
-                return fontFound;
-            }
+            return FontCache.getOrLoadFont(FontCacheKey.create(ttc, ttcIndex), new FontCache.FontProgramLoader() {
+                @Override
+                public FontProgram load() throws java.io.IOException {
+                    return new TrueTypeFont(ttc, ttcIndex);
+                }
+            });
         }
-        FontProgram fontBuilt = new TrueTypeFont(ttc, ttcIndex);
-        return cached ? FontCache.saveFont(fontBuilt, fontKey) : fontBuilt;
+        return new TrueTypeFont(ttc, ttcIndex);
     }
 
     /**
@@ -450,19 +447,16 @@ public final class FontProgramFactory {
         return fontRegisterProvider.isRegisteredFont(fontName);
     }
 
-    private static FontProgram createType1Font(String metricsPath, String binaryPath, byte[] afm, byte[] pfb, boolean cached) throws java.io.IOException {
-        FontProgram fontProgram;
-        FontCacheKey fontKey = null;
+    private static FontProgram createType1Font(final String metricsPath, final String binaryPath, final byte[] afm, final byte[] pfb, boolean cached) throws java.io.IOException {
         if (cached) {
-            fontKey = createFontCacheKey(metricsPath, afm);
-            fontProgram = FontCache.getFont(fontKey);
-            if (fontProgram != null) {
-                return fontProgram;
-            }
+            return FontCache.getOrLoadFont(createFontCacheKey(metricsPath, afm), new FontCache.FontProgramLoader() {
+                @Override
+                public FontProgram load() throws java.io.IOException {
+                    return new Type1Font(metricsPath, binaryPath, afm, pfb);
+                }
+            });
         }
-
-        fontProgram = new Type1Font(metricsPath, binaryPath, afm, pfb);
-        return cached ? FontCache.saveFont(fontProgram, fontKey) : fontProgram;
+        return new Type1Font(metricsPath, binaryPath, afm, pfb);
     }
 
     private static FontCacheKey createFontCacheKey(String name, byte[] fontProgram) {
@@ -0,0 +1,78 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+/**
+ * A storage of parsed {@link FontProgram} instances used by {@link FontCache}.
+ * Implementations must be safe for use by several threads at once.
+ * The cache in use may be replaced with {@link FontCache#setFontProgramCache(IFontProgramCache)}.
+ */
+public interface IFontProgramCache {
+
+    /**
+     * Gets the font program cached for the given key.
+     * @param key the key of the font program
+     * @return the cached font program, or {@code null} if there is no font program for the key
+     */
+    FontProgram get(FontCacheKey key);
+
+    /**
+     * Caches the font program for the given key unless another font program has already been cached for it.
+     * @param key the key of the font program
+     * @param fontProgram the font program to be cached
+     * @return the font program which is cached for the key, which is either the given or the previously cached one
+     */
+    FontProgram put(FontCacheKey key, FontProgram fontProgram);
+
+    /**
+     * Removes all the font programs from the cache.
+     */
+    void clear();
+
+    /**
+     * Gets the current usage statistics of the cache.
+     * @return the snapshot of the cache statistics
+     */
+    FontCacheStatistics getStatistics();
+}
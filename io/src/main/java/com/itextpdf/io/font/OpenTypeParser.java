@@ -205,6 +205,11 @@ class OpenTypeParser implements Serializable, Closeable {
 
     private int[] glyphWidthsByIndex;
 
+    /**
+     * The length of the font data passed as a byte array, 0 if the font is read from a file.
+     */
+    private int bufferedDataLength;
+
     protected HeaderTable head;
     protected HorizontalHeader hhea;
     protected WindowsMetrics os_2;
@@ -221,12 +226,14 @@ class OpenTypeParser implements Serializable, Closeable {
 
     public OpenTypeParser(byte[] ttf) throws java.io.IOException {
         raf = new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(ttf));
+        bufferedDataLength = ttf.length;
         initializeSfntTables();
     }
 
     public OpenTypeParser(byte[] ttc, int ttcIndex) throws java.io.IOException {
         this.ttcIndex = ttcIndex;
         raf = new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(ttc));
+        bufferedDataLength = ttc.length;
         initializeSfntTables();
     }
 
@@ -377,6 +384,28 @@ class OpenTypeParser implements Serializable, Closeable {
         return sb.process();
     }
 
+    int getBufferedDataLength() {
+        return bufferedDataLength;
+    }
+
+    /**
+     * Gets the length of the font stream, i.e. of the CFF table or of the whole font file,
+     * which is read by {@link #readCffFont()} or {@link #getFullFont()}.
+     */
+    long getFontStreamLength() {
+        if (isCff()) {
+            return cffLength;
+        }
+        if (raf == null) {
+            return 0;
+        }
+        try {
+            return raf.length();
+        } catch (java.io.IOException e) {
+            throw new IOException(IOException.IoException, e);
+        }
+    }
+
     @Override
     public void close() throws java.io.IOException {
         if (raf != null) {
@@ -354,6 +354,15 @@ public class TrueTypeFont extends FontProgram {
         return ret;
     }
 
+    @Override
+    long getBufferedDataLength() {
+        if (fontParser == null) {
+            return fontStreamBytes != null ? fontStreamBytes.length : 0;
+        }
+        long length = fontStreamBytes != null ? fontStreamBytes.length : fontParser.getFontStreamLength();
+        return length + fontParser.getBufferedDataLength();
+    }
+
     public void close() throws java.io.IOException {
         if (fontParser != null) {
             fontParser.close();
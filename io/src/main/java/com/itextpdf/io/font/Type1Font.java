@@ -234,6 +234,15 @@ public class Type1Font extends FontProgram {
         }
     }
 
+    @Override
+    long getBufferedDataLength() {
+        if (fontParser == null) {
+            return fontStreamBytes != null ? fontStreamBytes.length : 0;
+        }
+        // the font stream is read from the parser, the segment headers of pfb files make the length an upper bound
+        return fontParser.getPostscriptBinaryLength() + fontParser.getBufferedDataLength();
+    }
+
     public int[] getFontStreamLengths() {
         return fontStreamLengths;
     }
@@ -50,6 +50,7 @@ import com.itextpdf.io.source.RandomAccessSourceFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
+import java.io.File;
 import java.io.InputStream;
 import java.io.Serializable;
 
@@ -151,6 +152,26 @@ class Type1Parser implements Serializable {
         }
     }
 
+    /**
+     * Gets the length of the Type 1 font program, which is read into memory when the font is embedded.
+     */
+    long getPostscriptBinaryLength() {
+        if (isBuiltInFont) {
+            return 0;
+        } else if (pfbData != null) {
+            return pfbData.length;
+        } else if (pfbPath != null && pfbPath.toLowerCase().endsWith(".pfb")) {
+            return new File(pfbPath).length();
+        } else if (afmPath != null) {
+            return new File(afmPath.substring(0, afmPath.length() - 3) + "pfb").length();
+        }
+        return 0;
+    }
+
+    int getBufferedDataLength() {
+        return (afmData != null ? afmData.length : 0) + (pfbData != null ? pfbData.length : 0);
+    }
+
     public boolean isBuiltInFont() {
         return isBuiltInFont;
     }
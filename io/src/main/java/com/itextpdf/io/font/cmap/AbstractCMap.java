@@ -60,6 +60,7 @@ public abstract class AbstractCMap implements Serializable {
     private String registry;
     private String ordering;
     private int supplement;
+    private boolean mapped;
     
     public String getName() {
         return cmapName;
@@ -93,6 +94,19 @@ public abstract class AbstractCMap implements Serializable {
         this.supplement = supplement;
     }
 
+    /**
+     * Checks whether any mappings were parsed into this CMap. A CMap which resource is missing or
+     * can't be parsed has no mappings, since {@link CMapParser} doesn't propagate parsing failures.
+     * @return {@code true} if at least one mapping was parsed
+     */
+    public boolean hasMappings() {
+        return mapped;
+    }
+
+    void setMapped() {
+        this.mapped = true;
+    }
+
     abstract void addChar(String mark, CMapObject code);
     
     void addRange(String from, String to, CMapObject code) {
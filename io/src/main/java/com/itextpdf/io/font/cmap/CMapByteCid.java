@@ -75,7 +75,7 @@ public class CMapByteCid extends AbstractCMap {
     @Override
     void addChar(String mark, CMapObject code) {
         if (code.isNumber()) {
-            encodeSequence(decodeStringToByte(mark), (char)code.getValue());
+            encodeSequence(decodeStringToByte(mark), (char) (int) code.getValue());
         }
     }
 
@@ -110,6 +110,7 @@ public class CMapParser {
                     for (int k = 0; k < lMax; k += 2) {
                         if (list.get(k).isString()) {
                             cmap.addChar(list.get(k).toString(), list.get(k + 1));
+                            cmap.setMapped();
                         }
                     }
                 } else if ((last.equals(endcidrange) || last.equals(endbfrange)) && list.size() >= 4) {
@@ -117,6 +118,7 @@ public class CMapParser {
                     for (int k = 0; k < lMax; k += 3) {
                         if (list.get(k).isString() && list.get(k + 1).isString()) {
                             cmap.addRange(list.get(k).toString(), list.get(k + 1).toString(), list.get(k + 2));
+                            cmap.setMapped();
                         }
                     }
                 } else if (last.equals(usecmap) && list.size() == 2 && list.get(0).isName()) {
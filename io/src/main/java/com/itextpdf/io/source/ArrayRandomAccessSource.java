@@ -85,4 +85,13 @@ class ArrayRandomAccessSource implements IRandomAccessSource, Serializable {
     public void close() throws java.io.IOException {
         array = null;
     }
+
+    /**
+     * Gets the underlying byte array. The array is not copied, so it shall not be modified.
+     *
+     * @return the underlying byte array, or null if the source has been closed.
+     */
+    byte[] getArray() {
+        return array;
+    }
 }
@@ -117,6 +117,10 @@ public class PdfTokenizer implements Closeable, Serializable {
     protected ByteBuffer outBuf;
 
     private final RandomAccessFileOrArray file;
+    /**
+     * Bytes of the {@link #file}, if they are available without copying. Allows to scan tokens in bulk.
+     */
+    private final byte[] array;
     /**
      * Streams are closed automatically.
      */
@@ -131,6 +135,7 @@ public class PdfTokenizer implements Closeable, Serializable {
      */
     public PdfTokenizer(RandomAccessFileOrArray file) {
         this.file = file;
+        this.array = file.getBackingArray();
         this.outBuf = new ByteBuffer();
     }
 
@@ -320,6 +325,9 @@ public class PdfTokenizer implements Closeable, Serializable {
     }
 
     public boolean nextToken() throws java.io.IOException {
+        if (array != null && nextTokenFromArray()) {
+            return type != TokenType.EndOfFile;
+        }
         int ch;
         outBuf.reset();
         do {
@@ -468,6 +476,99 @@ public class PdfTokenizer implements Closeable, Serializable {
         return true;
     }
 
+    /**
+     * Scans the most common tokens (names, numbers, keywords and array brackets) directly in the backing array
+     * and appends their content to {@link #outBuf} at once, without reading the source byte by byte.
+     *
+     * @return true if the token was read, false if it shall be read by the generic byte by byte implementation.
+     * In the latter case the position points to the first byte of the token.
+     */
+    private boolean nextTokenFromArray() throws java.io.IOException {
+        byte[] bytes = array;
+        int end = bytes.length;
+        int p = (int) file.getPosition();
+        while (p < end && isWhitespace(bytes[p] & 0xff)) {
+            p++;
+        }
+        outBuf.reset();
+        if (p >= end) {
+            file.seek(end);
+            type = TokenType.EndOfFile;
+            return true;
+        }
+        int ch = bytes[p] & 0xff;
+        switch (ch) {
+            case '[':
+                type = TokenType.StartArray;
+                p++;
+                break;
+            case ']':
+                type = TokenType.EndArray;
+                p++;
+                break;
+            case '/': {
+                type = TokenType.Name;
+                int start = ++p;
+                while (p < end && !delims[(bytes[p] & 0xff) + 1]) {
+                    p++;
+                }
+                outBuf.append(bytes, start, p - start);
+                break;
+            }
+            case '<':
+            case '>':
+            case '(':
+            case '%':
+                file.seek(p);
+                return false;
+            default: {
+                if (ch == '-' || ch == '+' || ch == '.' || (ch >= '0' && ch <= '9')) {
+                    type = TokenType.Number;
+                    boolean isReal = false;
+                    int numberOfMinuses = 0;
+                    int start;
+                    if (ch == '-') {
+                        // Take care of number like "--234". If Acrobat can read them so must we.
+                        do {
+                            ++numberOfMinuses;
+                            ++p;
+                        } while (p < end && bytes[p] == '-');
+                        outBuf.append('-');
+                        start = p;
+                    } else {
+                        start = p++;
+                    }
+                    while (p < end) {
+                        ch = bytes[p];
+                        if (ch == '.') {
+                            isReal = true;
+                        } else if (ch < '0' || ch > '9') {
+                            break;
+                        }
+                        p++;
+                    }
+                    outBuf.append(bytes, start, p - start);
+                    if (numberOfMinuses > 1 && !isReal) {
+                        // Numbers of integer type and with more than one minus before them
+                        // are interpreted by Acrobat as zero.
+                        outBuf.reset();
+                        outBuf.append('0');
+                    }
+                } else {
+                    type = TokenType.Other;
+                    int start = p++;
+                    while (p < end && !delims[(bytes[p] & 0xff) + 1]) {
+                        p++;
+                    }
+                    outBuf.append(bytes, start, p - start);
+                }
+                break;
+            }
+        }
+        file.seek(p);
+        return true;
+    }
+
     public long getLongValue() {
         return Long.parseLong(getStringValue());
     }
@@ -75,7 +75,9 @@ public class RASInputStream extends InputStream {
     @Override
     public int read(byte[] b, int off, int len) throws java.io.IOException {
         int count = source.get(position, b, off, len);
-        position += count;
+        if (count > 0) {
+            position += count;
+        }
         return count;
     }
 
@@ -84,6 +86,10 @@ public class RASInputStream extends InputStream {
      */
     @Override
     public int read() throws java.io.IOException {
-        return source.get(position++);
+        int b = source.get(position);
+        if (b >= 0) {
+            position++;
+        }
+        return b;
     }
 }
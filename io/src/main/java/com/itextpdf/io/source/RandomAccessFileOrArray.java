@@ -603,6 +603,18 @@ public class RandomAccessFileOrArray implements DataInput, Serializable {
         return new String(buf, encoding);
     }
 
+    /**
+     * Gets the byte array this object reads from, if its bytes could be accessed directly without any copying.
+     *
+     * @return the backing byte array, or null if the byte source is not based on a byte array.
+     */
+    byte[] getBackingArray() {
+        if (byteSource instanceof ArrayRandomAccessSource) {
+            return ((ArrayRandomAccessSource) byteSource).getArray();
+        }
+        return null;
+    }
+
     private void ensureByteSourceIsThreadSafe() {
         if (!(byteSource instanceof ThreadSafeRandomAccessSource)) {
             byteSource = new ThreadSafeRandomAccessSource(byteSource);
@@ -0,0 +1,144 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Category(UnitTest.class)
+public class BoundedFontProgramCacheTest {
+
+    @Test
+    public void evictionTest() throws IOException {
+        FontProgram helvetica = FontProgramFactory.createFont(FontConstants.HELVETICA, false);
+        FontProgram courier = FontProgramFactory.createFont(FontConstants.COURIER, false);
+        FontProgram times = FontProgramFactory.createFont(FontConstants.TIMES_ROMAN, false);
+        BoundedFontProgramCache cache = new BoundedFontProgramCache(0);
+        long maxBytes = cache.estimateSize(helvetica) + cache.estimateSize(courier) + cache.estimateSize(times) - 1;
+        cache = new BoundedFontProgramCache(maxBytes);
+
+        FontCacheKey helveticaKey = FontCacheKey.create(FontConstants.HELVETICA);
+        FontCacheKey courierKey = FontCacheKey.create(FontConstants.COURIER);
+        FontCacheKey timesKey = FontCacheKey.create(FontConstants.TIMES_ROMAN);
+        Assert.assertSame(helvetica, cache.put(helveticaKey, helvetica));
+        Assert.assertSame(courier, cache.put(courierKey, courier));
+        Assert.assertSame(helvetica, cache.put(helveticaKey, FontProgramFactory.createFont(FontConstants.HELVETICA, false)));
+        // courier is the least recently used one
+        Assert.assertSame(times, cache.put(timesKey, times));
+
+        Assert.assertSame(helvetica, cache.get(helveticaKey));
+        Assert.assertSame(times, cache.get(timesKey));
+        Assert.assertNull(cache.get(courierKey));
+
+        FontCacheStatistics statistics = cache.getStatistics();
+        Assert.assertEquals(2, statistics.getHitCount());
+        Assert.assertEquals(1, statistics.getMissCount());
+        Assert.assertEquals(1, statistics.getEvictionCount());
+        Assert.assertEquals(2, statistics.getSize());
+        Assert.assertEquals(cache.estimateSize(helvetica) + cache.estimateSize(times), statistics.getEstimatedBytes());
+        Assert.assertTrue(statistics.getEstimatedBytes() <= cache.getMaxBytes());
+
+        cache.clear();
+        Assert.assertNull(cache.get(helveticaKey));
+        Assert.assertEquals(0, cache.getStatistics().getEstimatedBytes());
+    }
+
+    @Test
+    public void fontTooLargeTest() throws IOException {
+        BoundedFontProgramCache cache = new BoundedFontProgramCache(100, true);
+        FontCacheKey key = FontCacheKey.create(FontConstants.HELVETICA);
+        FontProgram helvetica = FontProgramFactory.createFont(FontConstants.HELVETICA, false);
+        Assert.assertSame(helvetica, cache.put(key, helvetica));
+        Assert.assertNull(cache.get(key));
+        Assert.assertEquals(0, cache.getStatistics().getSize());
+    }
+
+    @Test
+    public void softReferencesTest() throws IOException {
+        BoundedFontProgramCache cache = new BoundedFontProgramCache(Long.MAX_VALUE, true);
+        FontCacheKey key = FontCacheKey.create(FontConstants.HELVETICA);
+        FontProgram helvetica = FontProgramFactory.createFont(FontConstants.HELVETICA, false);
+        cache.put(key, helvetica);
+        Assert.assertSame(helvetica, cache.get(key));
+        Assert.assertTrue(cache.getStatistics().getEstimatedBytes() > 0);
+    }
+
+    @Test
+    public void fontProgramFactoryTest() throws IOException, InterruptedException, ExecutionException {
+        IFontProgramCache defaultCache = FontCache.getFontProgramCache();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BoundedFontProgramCache cache = new BoundedFontProgramCache(1 << 24);
+            FontCache.setFontProgramCache(cache);
+            List<Future<FontProgram>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(new Callable<FontProgram>() {
+                    @Override
+                    public FontProgram call() throws Exception {
+                        return FontProgramFactory.createFont(FontConstants.TIMES_BOLD, true);
+                    }
+                }));
+            }
+            FontProgram font = FontProgramFactory.createFont(FontConstants.TIMES_BOLD, true);
+            for (Future<FontProgram> result : results) {
+                Assert.assertSame(font, result.get());
+            }
+            Assert.assertEquals(1, cache.getStatistics().getSize());
+            Assert.assertNotSame(font, FontProgramFactory.createFont(FontConstants.TIMES_BOLD, false));
+        } finally {
+            executor.shutdown();
+            FontCache.setFontProgramCache(defaultCache);
+        }
+    }
+}
@@ -92,11 +92,14 @@ public class PdfException extends RuntimeException {
     public static final String CannotFindImageDataOrEI = "Cannot find image data or EI.";
     public static final String CannotFlushDocumentRootTagBeforeDocumentIsClosed = "Cannot flush document root tag before document is closed.";
     public static final String CannotFlushObject = "Cannot flush object.";
+    public static final String CannotLinearizeDocumentInAppendMode = "Cannot linearize document in append mode.";
+    public static final String CannotLinearizeEncryptedDocument = "Cannot linearize encrypted document.";
     public static final String CannotMoveToFlushedKid = "Cannot move to flushed kid.";
     public static final String CannotMoveToMarkedContentReference = "Cannot move to marked content reference.";
     public static final String CannotMoveToParentCurrentElementIsRoot = "Cannot move to parent current element is root.";
     public static final String CannotOpenDocument = "Cannot open document.";
     public static final String CannotParseContentStream = "Cannot parse content stream.";
+    public static final String CannotProcessContentOfPage1 = "Cannot process content of page {0}.";
     public static final String CannotReadAStreamInOrderToAppendNewBytes = "Cannot read a stream in order to append new bytes.";
     public static final String CannotReadPdfObject = "Cannot read PdfObject.";
     public static final String CannotRemoveDocumentRootTag = "Cannot remove document root tag.";
@@ -211,6 +214,7 @@ public class PdfException extends RuntimeException {
     public static final String IsNotAnAcceptableValueForTheField = "{0} is not an acceptable value for the field {1}.";
     @Deprecated
     public static final String IsNotWmfImage = "Not a WMF image.";
+    public static final String LinearizedDocumentLayoutMismatch = "Linearized document layout mismatch: the main cross-reference section is expected at offset {0}, but it is at offset {1}.";
     public static final String LzwDecoderException = "LZW decoder exception.";
     public static final String LzwFlavourNotSupported = "LZW flavour not supported.";
     public static final String MacroSegmentIdMustBeGtOrEqZero = "macroSegmentId must be >= 0";
@@ -236,6 +240,7 @@ public class PdfException extends RuntimeException {
     public static final String OnlyBmpCanBeWrappedInWmf = "Only BMP can be wrapped in WMF.";
     public static final String OperatorEINotFoundAfterEndOfImageData = "Operator EI not found after the end of image data.";
     public static final String Page1CannotBeAddedToDocument2BecauseItBelongsToDocument3 = "Page {0} cannot be added to document {1}, because it belongs to document {2}.";
+    public static final String PageContentProcessingWasInterrupted = "Page content processing was interrupted.";
     public static final String PageIsNotSetForThePdfTagStructure = "Page is not set for the pdf tag structure.";
     @Deprecated
     public static final String PageWasAlreadyFlushed = "The page has been already flushed.";
@@ -50,52 +50,191 @@ import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
 import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.crypto.params.ParametersWithIV;
 
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
 /**
  * Creates an AES Cipher with CBC and padding PKCS5/7.
+ * <p>
+ * The cipher of the JCE provider is used if it's available, as it's usually backed by the AES instructions
+ * of the processor. Otherwise the cipher of Bouncy Castle is used.
  * @author Paulo Soares
  */
 public class AESCipher {
 
+    static final int BLOCK_SIZE = 16;
+
+    private static final String JCE_TRANSFORMATION = "AES/CBC/NoPadding";
+    private static final boolean jceCipherAvailable = isJceCipherAvailable();
+
     private PaddedBufferedBlockCipher bp;
-    
+
+    /**
+     * The JCE cipher without padding. The padding is added and removed by this class in order to behave
+     * in the same way as the Bouncy Castle cipher does with corrupted data.
+     */
+    private Cipher cipher;
+    private boolean forEncryption;
+    private int processedLength;
+    /**
+     * The last bytes of the encrypted data, which are not decrypted until {@link #doFinal()},
+     * as they contain the padding.
+     */
+    private byte[] lastBlock;
+    private int lastBlockLength;
+
     /** Creates a new instance of AESCipher */
     public AESCipher(boolean forEncryption, byte[] key, byte[] iv) {
-        BlockCipher aes = new AESFastEngine();
-        BlockCipher cbc = new CBCBlockCipher(aes);
-        bp = new PaddedBufferedBlockCipher(cbc);
-        KeyParameter kp = new KeyParameter(key);
-        ParametersWithIV piv = new ParametersWithIV(kp, iv);
-        bp.init(forEncryption, piv);
+        this(forEncryption, key, iv, jceCipherAvailable);
     }
-    
+
+    AESCipher(boolean forEncryption, byte[] key, byte[] iv, boolean useJceCipher) {
+        this.forEncryption = forEncryption;
+        if (useJceCipher) {
+            cipher = createJceCipher(forEncryption, key, iv);
+        }
+        if (cipher == null) {
+            BlockCipher aes = new AESFastEngine();
+            BlockCipher cbc = new CBCBlockCipher(aes);
+            bp = new PaddedBufferedBlockCipher(cbc);
+            KeyParameter kp = new KeyParameter(key);
+            ParametersWithIV piv = new ParametersWithIV(kp, iv);
+            bp.init(forEncryption, piv);
+        } else if (!forEncryption) {
+            lastBlock = new byte[BLOCK_SIZE];
+        }
+    }
+
     public byte[] update(byte[] inp, int inpOff, int inpLen) {
-        int neededLen = bp.getUpdateOutputSize(inpLen);
+        int neededLen = getUpdateOutputSize(inpLen);
         byte[] outp;
         if (neededLen > 0) {
             outp = new byte[neededLen];
         } else {
             outp = new byte[0];
         }
-        bp.processBytes(inp, inpOff, inpLen, outp, 0);
-        return outp;
+        int n = update(inp, inpOff, inpLen, outp, 0);
+        return n == outp.length ? outp : Arrays.copyOf(outp, n);
+    }
+
+    /**
+     * Processes the data into the passed buffer.
+     *
+     * @param inp    the input data
+     * @param inpOff the offset of the data
+     * @param inpLen the length of the data
+     * @param outp   the buffer for the processed data, with at least {@code inpLen + 16} bytes available
+     * @param outOff the offset in the buffer
+     * @return the number of bytes written to the buffer
+     */
+    public int update(byte[] inp, int inpOff, int inpLen, byte[] outp, int outOff) {
+        if (cipher == null) {
+            return bp.processBytes(inp, inpOff, inpLen, outp, outOff);
+        }
+        try {
+            if (forEncryption) {
+                processedLength += inpLen;
+                return cipher.update(inp, inpOff, inpLen, outp, outOff);
+            }
+            // the last block, or the incomplete tail of the data, is kept until doFinal
+            int totalLen = lastBlockLength + inpLen;
+            if (totalLen <= BLOCK_SIZE) {
+                System.arraycopy(inp, inpOff, lastBlock, lastBlockLength, inpLen);
+                lastBlockLength = totalLen;
+                return 0;
+            }
+            int keptLen = totalLen % BLOCK_SIZE == 0 ? BLOCK_SIZE : totalLen % BLOCK_SIZE;
+            int n = cipher.update(lastBlock, 0, lastBlockLength, outp, outOff);
+            n += cipher.update(inp, inpOff, inpLen - keptLen, outp, outOff + n);
+            System.arraycopy(inp, inpOff + inpLen - keptLen, lastBlock, 0, keptLen);
+            lastBlockLength = keptLen;
+            processedLength += totalLen - keptLen;
+            return n;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
     }
-    
+
     public byte[] doFinal() {
-        int neededLen = bp.getOutputSize(0);
-        byte[] outp = new byte[neededLen];
-        int n;
+        byte[] outp = new byte[2 * BLOCK_SIZE];
+        int n = doFinal(outp, 0);
+        return n == outp.length ? outp : Arrays.copyOf(outp, n);
+    }
+
+    /**
+     * Finishes the processing, writing the rest of the data into the passed buffer.
+     * In case of corrupted encrypted data a block of zeros is written.
+     *
+     * @param outp   the buffer for the processed data, with at least 32 bytes available
+     * @param outOff the offset in the buffer
+     * @return the number of bytes written to the buffer
+     */
+    public int doFinal(byte[] outp, int outOff) {
+        if (cipher == null) {
+            int neededLen = bp.getOutputSize(0);
+            try {
+                return bp.doFinal(outp, outOff);
+            } catch (Exception ex) {
+                Arrays.fill(outp, outOff, outOff + neededLen, (byte) 0);
+                return neededLen;
+            }
+        }
         try {
-            n = bp.doFinal(outp, 0);
-        } catch (Exception ex) {
-            return outp;
+            if (forEncryption) {
+                byte padding = (byte) (BLOCK_SIZE - processedLength % BLOCK_SIZE);
+                byte[] paddingBytes = new byte[padding];
+                Arrays.fill(paddingBytes, padding);
+                return cipher.doFinal(paddingBytes, 0, padding, outp, outOff);
+            }
+            if (lastBlockLength == 0) {
+                return 0;
+            }
+            if (lastBlockLength == BLOCK_SIZE) {
+                int n = cipher.doFinal(lastBlock, 0, BLOCK_SIZE, outp, outOff);
+                int padding = outp[outOff + n - 1] & 0xff;
+                if (padding > 0 && padding <= BLOCK_SIZE && isPaddingValid(outp, outOff + n - padding, padding)) {
+                    return n - padding;
+                }
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        // corrupted data
+        Arrays.fill(outp, outOff, outOff + BLOCK_SIZE, (byte) 0);
+        return BLOCK_SIZE;
+    }
+
+    private int getUpdateOutputSize(int inpLen) {
+        if (cipher == null) {
+            return bp.getUpdateOutputSize(inpLen);
         }
-        if (n != outp.length) {
-            byte[] outp2 = new byte[n];
-            System.arraycopy(outp, 0, outp2, 0, n);
-            return outp2;
+        return inpLen + BLOCK_SIZE;
+    }
+
+    private static boolean isPaddingValid(byte[] b, int off, int padding) {
+        for (int i = off; i < off + padding; i++) {
+            if ((b[i] & 0xff) != padding) {
+                return false;
+            }
         }
-        else
-            return outp;
+        return true;
     }
 
+    static Cipher createJceCipher(boolean forEncryption, byte[] key, byte[] iv) {
+        try {
+            Cipher cipher = Cipher.getInstance(JCE_TRANSFORMATION);
+            cipher.init(forEncryption ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"), new IvParameterSpec(iv));
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            // e.g. the key length is not permitted by the JCE policy, Bouncy Castle is used then
+            return null;
+        }
+    }
+
+    static boolean isJceCipherAvailable() {
+        return createJceCipher(true, new byte[BLOCK_SIZE], new byte[BLOCK_SIZE]) != null;
+    }
 }
@@ -48,29 +48,46 @@ import org.bouncycastle.crypto.engines.AESFastEngine;
 import org.bouncycastle.crypto.modes.CBCBlockCipher;
 import org.bouncycastle.crypto.params.KeyParameter;
 
+import java.security.GeneralSecurityException;
+import javax.crypto.Cipher;
+
 /**
  * Creates an AES Cipher with CBC and no padding.
+ * <p>
+ * The cipher of the JCE provider is used if it's available, otherwise the cipher of Bouncy Castle is used.
  *
  * @author Paulo Soares
  */
 public class AESCipherCBCnoPad {
 
     private BlockCipher cbc;
+    private Cipher cipher;
 
     /**
      * Creates a new instance of AESCipher
      */
     public AESCipherCBCnoPad(boolean forEncryption, byte[] key) {
-        BlockCipher aes = new AESFastEngine();
-        cbc = new CBCBlockCipher(aes);
-        KeyParameter kp = new KeyParameter(key);
-        cbc.init(forEncryption, kp);
+        cipher = AESCipher.createJceCipher(forEncryption, key, new byte[AESCipher.BLOCK_SIZE]);
+        if (cipher == null) {
+            BlockCipher aes = new AESFastEngine();
+            cbc = new CBCBlockCipher(aes);
+            KeyParameter kp = new KeyParameter(key);
+            cbc.init(forEncryption, kp);
+        }
     }
 
     public byte[] processBlock(byte[] inp, int inpOff, int inpLen) {
-        if ((inpLen % cbc.getBlockSize()) != 0)
+        if ((inpLen % AESCipher.BLOCK_SIZE) != 0)
             throw new IllegalArgumentException("Not multiple of block: " + inpLen);
         byte[] outp = new byte[inpLen];
+        if (cipher != null) {
+            try {
+                cipher.update(inp, inpOff, inpLen, outp, 0);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+            return outp;
+        }
         int baseOffset = 0;
         while (inpLen > 0) {
             cbc.processBlock(inp, inpOff, outp, baseOffset);
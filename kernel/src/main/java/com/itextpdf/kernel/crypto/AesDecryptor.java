@@ -62,19 +62,32 @@ public class AesDecryptor implements IDecryptor {
         if (initiated) {
             return cipher.update(b, off, len);
         } else {
-            int left = Math.min(iv.length - ivptr, len);
-            System.arraycopy(b, off, iv, ivptr, left);
+            int left = initCipher(b, off, len);
+            if (initiated && len > left)
+                return cipher.update(b, off + left, len - left);
+            return null;
+        }
+    }
+
+    /**
+     * Decrypts the data into the passed buffer.
+     *
+     * @param b      the encrypted data, the first 16 bytes of the encrypted object are the initialization vector
+     * @param off    the offset of the data
+     * @param len    the length of the data
+     * @param out    the buffer for the decrypted data, with at least {@code len + 16} bytes available
+     * @param outOff the offset in the buffer
+     * @return the number of bytes written to the buffer
+     */
+    public int update(byte[] b, int off, int len, byte[] out, int outOff) {
+        if (!initiated) {
+            int left = initCipher(b, off, len);
             off += left;
             len -= left;
-            ivptr += left;
-            if (ivptr == iv.length) {
-                cipher = new AESCipher(false, key, iv);
-                initiated = true;
-                if (len > 0)
-                    return cipher.update(b, off, len);
-            }
-            return null;
+            if (!initiated || len == 0)
+                return 0;
         }
+        return cipher.update(b, off, len, out, outOff);
     }
 
     public byte[] finish() {
@@ -84,4 +97,30 @@ public class AesDecryptor implements IDecryptor {
             return null;
         }
     }
+
+    /**
+     * Finishes the decryption, writing the rest of the decrypted data into the passed buffer.
+     *
+     * @param out    the buffer for the decrypted data, with at least 32 bytes available
+     * @param outOff the offset in the buffer
+     * @return the number of bytes written to the buffer
+     */
+    public int finish(byte[] out, int outOff) {
+        if (cipher != null) {
+            return cipher.doFinal(out, outOff);
+        } else {
+            return 0;
+        }
+    }
+
+    private int initCipher(byte[] b, int off, int len) {
+        int left = Math.min(iv.length - ivptr, len);
+        System.arraycopy(b, off, iv, ivptr, left);
+        ivptr += left;
+        if (ivptr == iv.length) {
+            cipher = new AESCipher(false, key, iv);
+            initiated = true;
+        }
+        return left;
+    }
 }
@@ -46,4 +46,25 @@ package com.itextpdf.kernel.crypto;
 public interface IDecryptor {
     byte[] update(byte[] b, int off, int len);
     byte[] finish();
+
+    /**
+     * Decrypts the data into the passed buffer.
+     *
+     * @param b      the encrypted data
+     * @param off    the offset of the data
+     * @param len    the length of the data
+     * @param out    the buffer for the decrypted data, with at least {@code len + 16} bytes available
+     * @param outOff the offset in the buffer
+     * @return the number of bytes written to the buffer
+     */
+    int update(byte[] b, int off, int len, byte[] out, int outOff);
+
+    /**
+     * Finishes the decryption, writing the rest of the decrypted data into the passed buffer.
+     *
+     * @param out    the buffer for the decrypted data, with at least 32 bytes available
+     * @param outOff the offset in the buffer
+     * @return the number of bytes written to the buffer
+     */
+    int finish(byte[] out, int outOff);
 }
@@ -0,0 +1,109 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.crypto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decrypts the content of the wrapped stream on the fly, while it is being read.
+ */
+public class InputStreamDecryption extends InputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    protected InputStream in;
+    private IDecryptor decryptor;
+    private byte[] readBuffer = new byte[BUFFER_SIZE];
+    private byte[] decrypted = new byte[BUFFER_SIZE + 32];
+    private int decryptedLength;
+    private int position;
+    private boolean finished;
+    private byte[] sb = new byte[1];
+
+    /**
+     * Creates a new instance of InputStreamDecryption.
+     *
+     * @param in        the stream with the encrypted content.
+     * @param decryptor the decryptor initialized with the key of the object, which content is read.
+     */
+    public InputStreamDecryption(InputStream in, IDecryptor decryptor) {
+        this.in = in;
+        this.decryptor = decryptor;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(sb, 0, 1) == -1 ? -1 : sb[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (position == decryptedLength) {
+            if (finished) {
+                return -1;
+            }
+            int n = in.read(readBuffer);
+            if (n < 0) {
+                decryptedLength = decryptor.finish(decrypted, 0);
+                finished = true;
+            } else {
+                decryptedLength = decryptor.update(readBuffer, 0, n, decrypted, 0);
+            }
+            position = 0;
+        }
+        int count = Math.min(len, decryptedLength - position);
+        System.arraycopy(decrypted, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -47,8 +47,11 @@ import com.itextpdf.kernel.PdfException;
 import java.io.IOException;
 
 public class OutputStreamAesEncryption extends OutputStreamEncryption {
+    private static final int PORTION_SIZE = 8192;
+
     protected AESCipher cipher;
     private boolean finished;
+    private byte[] buffer;
 
     /**
      * Creates a new instance of OutputStreamCounter
@@ -99,19 +102,30 @@ public class OutputStreamAesEncryption extends OutputStreamEncryption {
      *                     stream is closed.
      */
     public void write(byte[] b, int off, int len) throws IOException {
-        byte[] b2 = cipher.update(b, off, len);
-        if (b2 == null || b2.length == 0)
-            return;
-        out.write(b2, 0, b2.length);
+        int bufferSize = Math.min(len, PORTION_SIZE) + 2 * AESCipher.BLOCK_SIZE;
+        if (buffer == null || buffer.length < bufferSize) {
+            buffer = new byte[bufferSize];
+        }
+        while (len > 0) {
+            int portion = Math.min(len, buffer.length - AESCipher.BLOCK_SIZE);
+            int n = cipher.update(b, off, portion, buffer, 0);
+            if (n > 0)
+                out.write(buffer, 0, n);
+            off += portion;
+            len -= portion;
+        }
     }
 
     public void finish() {
         if (!finished) {
             finished = true;
 
-            byte[] b = cipher.doFinal();
+            if (buffer == null || buffer.length < 2 * AESCipher.BLOCK_SIZE) {
+                buffer = new byte[2 * AESCipher.BLOCK_SIZE];
+            }
+            int n = cipher.doFinal(buffer, 0);
             try {
-                out.write(b, 0, b.length);
+                out.write(buffer, 0, n);
             } catch (IOException e) {
                 throw new PdfException(PdfException.PdfEncryption, e);
             }
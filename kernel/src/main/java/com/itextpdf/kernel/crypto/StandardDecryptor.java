@@ -64,4 +64,13 @@ public class StandardDecryptor implements IDecryptor {
     public byte[] finish() {
         return null;
     }
+
+    public int update(byte[] b, int off, int len, byte[] out, int outOff) {
+        arcfour.encryptARCFOUR(b, off, len, out, outOff);
+        return len;
+    }
+
+    public int finish(byte[] out, int outOff) {
+        return 0;
+    }
 }
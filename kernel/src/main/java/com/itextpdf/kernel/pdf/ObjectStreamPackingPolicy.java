@@ -0,0 +1,143 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.io.Serializable;
+
+/**
+ * Defines how objects are packed into object streams, when a document is written in full compression mode.
+ * <p/>
+ * By default at most 200 objects are packed into an object stream
+ * in the order they are flushed. The size of object streams can be limited by the number of objects and
+ * by the length of their uncompressed content. Object streams can also be grouped by pages: the object stream
+ * is closed after each page is flushed, so that the page dictionary and the objects flushed since the previous
+ * page, e.g. its annotations, are not mixed with the objects of the other pages. If they fit into the object stream
+ * limits, such page can be read by decompressing a single object stream.
+ * <p/>
+ * Override {@link #isFull(int, long)} to define a custom limit.
+ */
+public class ObjectStreamPackingPolicy implements Serializable {
+
+    private static final long serialVersionUID = -1543286392387452706L;
+
+    private int maxObjects = PdfObjectStream.MAX_OBJ_STREAM_SIZE;
+    private long maxContentLength = -1;
+    private boolean groupByPage;
+
+    /**
+     * Sets the max number of objects in an object stream.
+     *
+     * @param maxObjects the max number of objects, shall be positive.
+     * @return this {@link ObjectStreamPackingPolicy} instance.
+     */
+    public ObjectStreamPackingPolicy setMaxObjects(int maxObjects) {
+        if (maxObjects < 1) {
+            throw new IllegalArgumentException("maxObjects");
+        }
+        this.maxObjects = maxObjects;
+        return this;
+    }
+
+    /**
+     * Gets the max number of objects in an object stream.
+     *
+     * @return the max number of objects.
+     */
+    public int getMaxObjects() {
+        return maxObjects;
+    }
+
+    /**
+     * Sets the max length of the uncompressed content of an object stream, including its index part.
+     * An object stream is closed, as soon as its content reaches this length, so the single object which
+     * is bigger than the limit is still packed into an object stream.
+     *
+     * @param maxContentLength the max length in bytes, non-positive values mean no limit.
+     * @return this {@link ObjectStreamPackingPolicy} instance.
+     */
+    public ObjectStreamPackingPolicy setMaxContentLength(long maxContentLength) {
+        this.maxContentLength = maxContentLength;
+        return this;
+    }
+
+    /**
+     * Gets the max length of the uncompressed content of an object stream.
+     *
+     * @return the max length in bytes, non-positive value means no limit.
+     */
+    public long getMaxContentLength() {
+        return maxContentLength;
+    }
+
+    /**
+     * Defines if the object stream shall be closed after each flushed page.
+     *
+     * @param groupByPage true to group object streams by pages.
+     * @return this {@link ObjectStreamPackingPolicy} instance.
+     */
+    public ObjectStreamPackingPolicy setGroupByPage(boolean groupByPage) {
+        this.groupByPage = groupByPage;
+        return this;
+    }
+
+    /**
+     * Checks if the object stream is closed after each flushed page.
+     *
+     * @return true if object streams are grouped by pages.
+     */
+    public boolean isGroupByPage() {
+        return groupByPage;
+    }
+
+    /**
+     * Checks if the object stream is full, i.e. the next object shall be packed into a new object stream.
+     *
+     * @param objectCount   the number of objects in the object stream.
+     * @param contentLength the length of the uncompressed content of the object stream, including its index part.
+     * @return true if no more objects shall be added to the object stream.
+     */
+    public boolean isFull(int objectCount, long contentLength) {
+        return objectCount >= maxObjects || (maxContentLength > 0 && contentLength >= maxContentLength);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.DeflaterOutputStream;
+import com.itextpdf.kernel.PdfException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Deflates the content of flushed {@link PdfStream}s on a bounded pool of worker threads.
+ * <p/>
+ * Streams are handed back for writing strictly in the order they were submitted and the number of
+ * streams waiting to be written is limited, so the resultant document doesn't depend on the order
+ * in which the workers complete their tasks.
+ */
+class ParallelStreamCompressor {
+
+    private final ExecutorService executor;
+    private final int maxPendingStreams;
+    private final LinkedList<PendingStream> pendingStreams = new LinkedList<>();
+
+    /**
+     * Creates a new compressor.
+     *
+     * @param parallelism the number of worker threads.
+     */
+    ParallelStreamCompressor(int parallelism) {
+        this.executor = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "iText stream compressor");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.maxPendingStreams = 2 * parallelism;
+    }
+
+    /**
+     * Schedules deflating of the stream content. The compression level and filters of the stream
+     * shall be already set and the stream content shall not be changed until it is written.
+     *
+     * @param stream the stream to compress.
+     */
+    void submit(final PdfStream stream) {
+        final int compressionLevel = stream.getCompressionLevel();
+        Future<byte[]> compressedContent = executor.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws IOException {
+                ByteArrayOutputStream byteArrayStream = new ByteArrayOutputStream();
+                DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, compressionLevel);
+                PdfOutputStream.writeStreamContentTo(stream, zip);
+                zip.finish();
+                return byteArrayStream.toByteArray();
+            }
+        });
+        pendingStreams.addLast(new PendingStream(stream, compressedContent));
+    }
+
+    /**
+     * Checks if the limit of streams waiting to be written is reached.
+     *
+     * @return true if the next stream shall be written before submitting new ones.
+     */
+    boolean isFull() {
+        return pendingStreams.size() >= maxPendingStreams;
+    }
+
+    boolean hasPendingStreams() {
+        return !pendingStreams.isEmpty();
+    }
+
+    /**
+     * Gets the first submitted stream that has not been taken yet.
+     *
+     * @return the stream which is to be written next.
+     */
+    PdfStream getNextStream() {
+        return pendingStreams.getFirst().stream;
+    }
+
+    /**
+     * Waits until the content of the next stream is compressed and removes the stream from the queue.
+     *
+     * @return the deflated content of the stream returned by {@link #getNextStream()}.
+     * @throws IOException if compression failed.
+     */
+    byte[] takeNextCompressedContent() throws IOException {
+        PendingStream next = pendingStreams.removeFirst();
+        try {
+            return next.compressedContent.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new PdfException(PdfException.CannotWriteToPdfStream, e.getCause(), next.stream);
+        }
+    }
+
+    /**
+     * Stops the worker threads. Streams which have not been taken yet are discarded.
+     */
+    void shutdown() {
+        pendingStreams.clear();
+        executor.shutdownNow();
+    }
+
+    private static class PendingStream {
+        final PdfStream stream;
+        final Future<byte[]> compressedContent;
+
+        PendingStream(PdfStream stream, Future<byte[]> compressedContent) {
+            this.stream = stream;
+            this.compressedContent = compressedContent;
+        }
+    }
+}
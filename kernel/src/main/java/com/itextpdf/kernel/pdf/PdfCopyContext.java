@@ -0,0 +1,309 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the references of the objects copied to a document, so that every object is copied only once,
+ * no matter how many pages or documents refer to it.
+ * <p/>
+ * By default every {@link PdfWriter} has its own context. The same context may be set to several writers
+ * (see {@link PdfWriter#setCopyContext(PdfCopyContext)}) in order to reuse its memory when documents are
+ * assembled one after another from the same templates. The copies are kept separately for every destination
+ * document, so the writers sharing the context may be open at the same time. The copies made to a document
+ * are forgotten when its writer is closed.
+ * <p/>
+ * The context refers to the destination documents until their writers are closed, so a document, which writer
+ * is never closed, stays reachable as long as the context does (see {@link #removeDestinationDocument(PdfDocument)}).
+ * The source documents are identified by their ids, so the context doesn't keep them reachable, though the copies
+ * made from them are kept until {@link #removeSourceDocument(PdfDocument, boolean)} is called.
+ * The context is not thread safe.
+ */
+public class PdfCopyContext implements Serializable {
+
+    private static final long serialVersionUID = -2436517983459130845L;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<PdfDocument, CopyTable> tables = new IdentityHashMap<>();
+    /**
+     * The destination document the objects were copied to last time and its table, to avoid the map lookup
+     * for every copied object.
+     */
+    private PdfDocument lastDestination;
+    private CopyTable lastTable;
+    /**
+     * The table of a closed destination document, which is reused for the next one.
+     */
+    private CopyTable spareTable;
+
+    /**
+     * Creates an empty context.
+     */
+    public PdfCopyContext() {
+    }
+
+    /**
+     * Gets the number of the copied objects in the context.
+     *
+     * @return the number of the copied objects.
+     */
+    public int size() {
+        int size = 0;
+        for (CopyTable table : tables.values()) {
+            size += table.size;
+        }
+        return size;
+    }
+
+    /**
+     * Forgets all the copied objects.
+     */
+    public void clear() {
+        tables.clear();
+        lastDestination = null;
+        lastTable = null;
+    }
+
+    /**
+     * Forgets the objects copied from the source document. This allows to keep the size of the context bounded,
+     * when source documents are closed after copying, as their objects can't be copied anymore.
+     *
+     * @param sourceDocument the document the objects were copied from.
+     * @param flushCopies    true if the copies shall be flushed. Use it only if the copies aren't going to be
+     *                       modified anymore.
+     */
+    public void removeSourceDocument(PdfDocument sourceDocument, boolean flushCopies) {
+        long documentId = sourceDocument.getDocumentId();
+        for (CopyTable table : tables.values()) {
+            table.removeSourceDocument(documentId, flushCopies);
+        }
+    }
+
+    /**
+     * Forgets the objects copied to the destination document. It's called when the writer of the document is closed,
+     * as no more objects can be copied to it.
+     *
+     * @param destinationDocument the document the objects were copied to.
+     */
+    public void removeDestinationDocument(PdfDocument destinationDocument) {
+        CopyTable table = tables.remove(destinationDocument);
+        if (table != null) {
+            table.clear();
+            if (spareTable == null || spareTable.objNumbers.length < table.objNumbers.length) {
+                spareTable = table;
+            }
+        }
+        if (destinationDocument == lastDestination) {
+            lastDestination = null;
+            lastTable = null;
+        }
+    }
+
+    /**
+     * Gets the copy of the object in the destination document.
+     *
+     * @param source      the reference of the copied object in the source document.
+     * @param destination the document the object is copied to.
+     * @return the reference of the copy, or null if the object wasn't copied to the document yet.
+     */
+    PdfIndirectReference get(PdfIndirectReference source, PdfDocument destination) {
+        CopyTable table = getTable(destination, false);
+        return table != null ? table.get(source) : null;
+    }
+
+    /**
+     * Saves the copy of the object in the destination document.
+     *
+     * @param source      the reference of the copied object in the source document.
+     * @param destination the document the object is copied to.
+     * @param copy        the reference of the copy.
+     */
+    void put(PdfIndirectReference source, PdfDocument destination, PdfIndirectReference copy) {
+        getTable(destination, true).put(source, copy);
+    }
+
+    private CopyTable getTable(PdfDocument destination, boolean create) {
+        if (destination == lastDestination) {
+            return lastTable;
+        }
+        CopyTable table = tables.get(destination);
+        if (table == null) {
+            if (!create) {
+                return null;
+            }
+            if (spareTable != null) {
+                table = spareTable;
+                spareTable = null;
+            } else {
+                table = new CopyTable();
+            }
+            tables.put(destination, table);
+        }
+        lastDestination = destination;
+        lastTable = table;
+        return table;
+    }
+
+    private static int hash(long documentId, int objNr, int generation) {
+        long h = (documentId * 31 + objNr) * 31 + generation;
+        h *= 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Open addressing table of the objects copied to one destination document. An object is identified
+     * by the id of its source document, its object number and its generation number.
+     */
+    private static final class CopyTable implements Serializable {
+
+        private static final long serialVersionUID = 5207496251187164367L;
+
+        private long[] documentIds = new long[INITIAL_CAPACITY];
+        /**
+         * Object numbers of the copied objects. Object numbers are positive, so zero means an empty slot.
+         */
+        private int[] objNumbers = new int[INITIAL_CAPACITY];
+        private int[] generations = new int[INITIAL_CAPACITY];
+        private PdfIndirectReference[] copies = new PdfIndirectReference[INITIAL_CAPACITY];
+        private int size;
+
+        PdfIndirectReference get(PdfIndirectReference source) {
+            if (size == 0) {
+                return null;
+            }
+            long documentId = source.getDocument().getDocumentId();
+            int objNr = source.getObjNumber();
+            int generation = source.getGenNumber();
+            int mask = objNumbers.length - 1;
+            for (int i = hash(documentId, objNr, generation) & mask; objNumbers[i] != 0; i = (i + 1) & mask) {
+                if (objNumbers[i] == objNr && documentIds[i] == documentId && generations[i] == generation) {
+                    return copies[i];
+                }
+            }
+            return null;
+        }
+
+        void put(PdfIndirectReference source, PdfIndirectReference copy) {
+            if ((size + 1) * 2 > objNumbers.length) {
+                rehash(objNumbers.length * 2);
+            }
+            if (insert(source.getDocument().getDocumentId(), source.getObjNumber(), source.getGenNumber(), copy)) {
+                size++;
+            }
+        }
+
+        void clear() {
+            if (size > 0) {
+                Arrays.fill(objNumbers, 0);
+                Arrays.fill(copies, null);
+                size = 0;
+            }
+        }
+
+        void removeSourceDocument(long documentId, boolean flushCopies) {
+            long[] oldDocumentIds = documentIds;
+            int[] oldObjNumbers = objNumbers;
+            int[] oldGenerations = generations;
+            PdfIndirectReference[] oldCopies = copies;
+            allocate(oldObjNumbers.length);
+            size = 0;
+            for (int i = 0; i < oldObjNumbers.length; i++) {
+                if (oldObjNumbers[i] == 0) {
+                    continue;
+                }
+                if (oldDocumentIds[i] != documentId) {
+                    insert(oldDocumentIds[i], oldObjNumbers[i], oldGenerations[i], oldCopies[i]);
+                    size++;
+                } else if (flushCopies && !oldCopies[i].checkState(PdfObject.FLUSHED)) {
+                    PdfObject copy = oldCopies[i].getRefersTo(false);
+                    if (copy != null) {
+                        copy.flush();
+                    }
+                }
+            }
+        }
+
+        private void rehash(int capacity) {
+            long[] oldDocumentIds = documentIds;
+            int[] oldObjNumbers = objNumbers;
+            int[] oldGenerations = generations;
+            PdfIndirectReference[] oldCopies = copies;
+            allocate(capacity);
+            for (int i = 0; i < oldObjNumbers.length; i++) {
+                if (oldObjNumbers[i] != 0) {
+                    insert(oldDocumentIds[i], oldObjNumbers[i], oldGenerations[i], oldCopies[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            documentIds = new long[capacity];
+            objNumbers = new int[capacity];
+            generations = new int[capacity];
+            copies = new PdfIndirectReference[capacity];
+        }
+
+        private boolean insert(long documentId, int objNr, int generation, PdfIndirectReference copy) {
+            int mask = objNumbers.length - 1;
+            int i = hash(documentId, objNr, generation) & mask;
+            while (objNumbers[i] != 0) {
+                if (objNumbers[i] == objNr && documentIds[i] == documentId && generations[i] == generation) {
+                    copies[i] = copy;
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            documentIds[i] = documentId;
+            objNumbers[i] = objNr;
+            generations[i] = generation;
+            copies[i] = copy;
+            return true;
+        }
+    }
+}
@@ -56,8 +56,8 @@ import java.util.*;
  */
 public class PdfDictionary extends PdfObject {
 
-    private static final long serialVersionUID = -1122075818690871644L;
-    private Map<PdfName, PdfObject> map = new TreeMap<>();
+    private static final long serialVersionUID = 6209436468372561813L;
+    private PdfDictionaryMap map = new PdfDictionaryMap();
 
     /**
      * Creates a new PdfDictionary instance.
@@ -337,6 +337,9 @@ public class PdfDictionary extends PdfObject {
 
     /**
      * Returns all the keys of this PdfDictionary as a Set.
+     * <br/>
+     * <b>NOTE:</b> since 7.0.3 the keys are iterated in the order they were put into the dictionary
+     * rather than in their natural order. Dictionaries are still written with the keys sorted.
      *
      * @return Set of keys
      */
@@ -365,6 +368,7 @@ public class PdfDictionary extends PdfObject {
      * <b>NOTE:</b> since 7.0.1 it returns collection of direct objects.
      * If you want to get {@link PdfIndirectReference} instances for the indirect objects value,
      * you shall use {@link #values(boolean)} method.
+     * Since 7.0.3 the values are iterated in the order they were put into the dictionary.
      *
      * @return a Collection holding all the values
      */
@@ -399,6 +403,7 @@ public class PdfDictionary extends PdfObject {
      * <b>NOTE:</b> since 7.0.1 it returns collection of direct objects.
      * If you want to get {@link PdfIndirectReference} instances for the indirect objects value,
      * you shall use {@link #get(PdfName, boolean)} method.
+     * Since 7.0.3 the entries are iterated in the order they were put into the dictionary.
      *
      * @return a Set of Map.Entry objects
      */
@@ -577,11 +582,21 @@ public class PdfDictionary extends PdfObject {
     protected void copyContent(PdfObject from, PdfDocument document) {
         super.copyContent(from, document);
         PdfDictionary dictionary = (PdfDictionary) from;
-        for (Map.Entry<PdfName, PdfObject> entry : dictionary.map.entrySet()) {
-            map.put(entry.getKey(), entry.getValue().processCopying(document, false));
+        // copy entries in the order of their keys, so that numbers of the copied indirect objects
+        // don't depend on the order the entries were put into the source dictionary
+        for (PdfName key : dictionary.map.getSortedKeys()) {
+            map.put(key, dictionary.map.get(key).processCopying(document, false));
         }
     }
 
+    /**
+     * Gets the keys of this dictionary in their natural order, the order they are written in.
+     * The array shall not be modified.
+     */
+    PdfName[] getSortedKeys() {
+        return map.getSortedKeys();
+    }
+
     /**
      * Release content of PdfDictionary.
      */
@@ -0,0 +1,467 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Storage of the {@link PdfDictionary} entries. Entries are kept in insertion order in plain arrays
+ * along with the hash codes of their keys. Small dictionaries, which are the most common ones, are searched
+ * linearly, while an open-addressing index of the entries is built for the bigger ones.
+ */
+final class PdfDictionaryMap extends AbstractMap<PdfName, PdfObject> implements Serializable {
+
+    private static final long serialVersionUID = -4527546834458424826L;
+
+    /**
+     * The maximum number of entries searched linearly, without the index.
+     */
+    private static final int MAX_LINEAR_SEARCH_SIZE = 8;
+
+    private PdfName[] keys;
+    private PdfObject[] values;
+    private int[] hashes;
+    private int size;
+    /**
+     * Open-addressing table of entries positions incremented by one, zero marks an empty slot.
+     * Null if the map is small enough to be searched linearly.
+     */
+    private int[] index;
+    /**
+     * The keys in their natural order, which is the order the entries are written in.
+     * Null if the set of keys was changed since they were sorted last time.
+     */
+    private transient PdfName[] sortedKeys;
+    private transient int modCount;
+    private transient Set<Map.Entry<PdfName, PdfObject>> entrySet;
+    private transient Set<PdfName> keySet;
+    private transient Collection<PdfObject> valuesCollection;
+
+    PdfDictionaryMap() {
+        this(4);
+    }
+
+    PdfDictionaryMap(int initialCapacity) {
+        initialCapacity = Math.max(initialCapacity, 1);
+        keys = new PdfName[initialCapacity];
+        values = new PdfObject[initialCapacity];
+        hashes = new int[initialCapacity];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof PdfName && indexOf((PdfName) key) >= 0;
+    }
+
+    @Override
+    public PdfObject get(Object key) {
+        if (!(key instanceof PdfName)) {
+            return null;
+        }
+        int i = indexOf((PdfName) key);
+        return i >= 0 ? values[i] : null;
+    }
+
+    @Override
+    public PdfObject put(PdfName key, PdfObject value) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+        int hash = key.hashCode();
+        int i = indexOf(key, hash);
+        if (i >= 0) {
+            PdfObject oldValue = values[i];
+            values[i] = value;
+            return oldValue;
+        }
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+        keys[size] = key;
+        values[size] = value;
+        hashes[size] = hash;
+        size++;
+        modCount++;
+        sortedKeys = null;
+        if (index != null && size * 2 <= index.length) {
+            addToIndex(size - 1);
+        } else if (size > MAX_LINEAR_SEARCH_SIZE) {
+            rebuildIndex();
+        }
+        return null;
+    }
+
+    @Override
+    public PdfObject remove(Object key) {
+        if (!(key instanceof PdfName)) {
+            return null;
+        }
+        int i = indexOf((PdfName) key);
+        if (i < 0) {
+            return null;
+        }
+        PdfObject oldValue = values[i];
+        removeAt(i);
+        return oldValue;
+    }
+
+    @Override
+    public void putAll(Map<? extends PdfName, ? extends PdfObject> m) {
+        for (Map.Entry<? extends PdfName, ? extends PdfObject> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        index = null;
+        modCount++;
+        sortedKeys = null;
+    }
+
+    @Override
+    public Set<Map.Entry<PdfName, PdfObject>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    @Override
+    public Set<PdfName> keySet() {
+        if (keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<PdfObject> values() {
+        if (valuesCollection == null) {
+            valuesCollection = new Values();
+        }
+        return valuesCollection;
+    }
+
+    /**
+     * Gets the keys sorted in their natural order. The array is cached until the set of keys changes,
+     * so it shall not be modified.
+     */
+    PdfName[] getSortedKeys() {
+        if (sortedKeys == null) {
+            PdfName[] sorted = Arrays.copyOf(keys, size);
+            Arrays.sort(sorted);
+            sortedKeys = sorted;
+        }
+        return sortedKeys;
+    }
+
+    private int indexOf(PdfName key) {
+        return indexOf(key, key.hashCode());
+    }
+
+    private int indexOf(PdfName key, int hash) {
+        if (index == null) {
+            for (int i = 0; i < size; i++) {
+                if (hashes[i] == hash && (keys[i] == key || keys[i].equals(key))) {
+                    return i;
+                }
+            }
+        } else {
+            int mask = index.length - 1;
+            for (int slot = hash & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+                int i = index[slot] - 1;
+                if (hashes[i] == hash && (keys[i] == key || keys[i].equals(key))) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int i) {
+        int moved = size - i - 1;
+        if (moved > 0) {
+            // keep insertion order of the remaining entries
+            System.arraycopy(keys, i + 1, keys, i, moved);
+            System.arraycopy(values, i + 1, values, i, moved);
+            System.arraycopy(hashes, i + 1, hashes, i, moved);
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+        sortedKeys = null;
+        if (size > MAX_LINEAR_SEARCH_SIZE) {
+            rebuildIndex();
+        } else {
+            index = null;
+        }
+    }
+
+    private void rebuildIndex() {
+        int capacity = Integer.highestOneBit(size * 4 - 1);
+        if (index == null || index.length != capacity) {
+            index = new int[capacity];
+        } else {
+            Arrays.fill(index, 0);
+        }
+        for (int i = 0; i < size; i++) {
+            addToIndex(i);
+        }
+    }
+
+    private void addToIndex(int i) {
+        int mask = index.length - 1;
+        int slot = hashes[i] & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = i + 1;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<PdfName, PdfObject>> {
+        @Override
+        public Iterator<Map.Entry<PdfName, PdfObject>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            PdfDictionaryMap.this.clear();
+        }
+    }
+
+    private final class KeySet extends AbstractSet<PdfName> {
+        @Override
+        public Iterator<PdfName> iterator() {
+            return new PositionIterator<PdfName>() {
+                @Override
+                public PdfName next() {
+                    return keys[nextPosition()];
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            int oldSize = size;
+            PdfDictionaryMap.this.remove(o);
+            return size != oldSize;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            PdfDictionaryMap.this.clear();
+        }
+    }
+
+    private final class Values extends AbstractCollection<PdfObject> {
+        @Override
+        public Iterator<PdfObject> iterator() {
+            return new PositionIterator<PdfObject>() {
+                @Override
+                public PdfObject next() {
+                    return values[nextPosition()];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            PdfDictionaryMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator extends PositionIterator<Map.Entry<PdfName, PdfObject>> {
+        @Override
+        public Map.Entry<PdfName, PdfObject> next() {
+            return new Entry(nextPosition());
+        }
+    }
+
+    private abstract class PositionIterator<T> implements Iterator<T> {
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        int nextPosition() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class Entry implements Map.Entry<PdfName, PdfObject> {
+        private final PdfName key;
+        private int position;
+
+        Entry(int position) {
+            this.key = keys[position];
+            this.position = position;
+        }
+
+        @Override
+        public PdfName getKey() {
+            return key;
+        }
+
+        @Override
+        public PdfObject getValue() {
+            return values[actualPosition()];
+        }
+
+        @Override
+        public PdfObject setValue(PdfObject value) {
+            int i = actualPosition();
+            PdfObject oldValue = values[i];
+            values[i] = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry e = (Map.Entry) o;
+            PdfObject value = getValue();
+            return key.equals(e.getKey()) && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            PdfObject value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+
+        /**
+         * The entry could be moved by the removal of the preceding entries.
+         */
+        private int actualPosition() {
+            if (position >= size || keys[position] != key) {
+                position = indexOf(key);
+                if (position < 0) {
+                    throw new IllegalStateException();
+                }
+            }
+            return position;
+        }
+    }
+}
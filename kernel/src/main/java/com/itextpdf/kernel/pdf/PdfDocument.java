@@ -205,6 +205,12 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
 
     private long documentId;
 
+    /**
+     * Is incremented whenever an object of the document is marked as modified. The content hashes, which are
+     * memoized in smart mode, may depend on the modified object, so they are valid only as long as it's unchanged.
+     */
+    private transient int modificationStamp;
+
     /**
      * Yet not copied link annotations from the other documents.
      * Key - page from the source document, which contains this annotation.
@@ -808,6 +814,7 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
 
                 }
                 
+                writer.flushPendingStreams();
                 PdfObject fileId = getFileId(crypto, writer.properties);
 
                 if (crypto == null && writer.crypto != null) {
@@ -827,6 +834,7 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
 
                 xref.writeXrefTableAndTrailer(this, fileId, crypto);
                 writer.flush();
+                writer.writeLinearized();
                 Counter counter = getCounter();
                 if (counter != null) {
                     counter.onDocumentWritten(writer.getCurrentPos());
@@ -1501,10 +1509,18 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      */
     public PdfFont getFont(PdfDictionary dictionary) {
         assert dictionary.getIndirectReference() != null;
-        if (documentFonts.containsKey(dictionary.getIndirectReference())) {
-            return documentFonts.get(dictionary.getIndirectReference());
-        } else {
-            return addFont(PdfFontFactory.createFont(dictionary));
+        PdfIndirectReference reference = dictionary.getIndirectReference();
+        synchronized (documentFonts) {
+            PdfFont font = documentFonts.get(reference);
+            if (font != null) {
+                return font;
+            }
+        }
+        // the font is created outside the lock, the first one created for the dictionary is kept
+        PdfFont font = PdfFontFactory.createFont(dictionary);
+        synchronized (documentFonts) {
+            PdfFont existingFont = documentFonts.get(reference);
+            return existingFont != null ? existingFont : addFont(font);
         }
     }
 
@@ -1542,7 +1558,9 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      * @return the same PdfFont instance.
      */
     PdfFont addFont(PdfFont font) {
-        documentFonts.put(font.getPdfObject().getIndirectReference(), font);
+        synchronized (documentFonts) {
+            documentFonts.put(font.getPdfObject().getIndirectReference(), font);
+        }
         return font;
     }
 
@@ -1659,6 +1677,15 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                 if (reader != null && properties.preserveEncryption) {
                     writer.crypto = reader.decrypt;
                 }
+                if (writer.properties.linearization) {
+                    if (properties.appendMode) {
+                        throw new PdfException(PdfException.CannotLinearizeDocumentInAppendMode);
+                    }
+                    if (writer.crypto != null) {
+                        throw new PdfException(PdfException.CannotLinearizeEncryptedDocument);
+                    }
+                    writer.startLinearization();
+                }
                 writer.document = this;
                 String producer = null;
                 if (reader == null) {
@@ -2070,10 +2097,18 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         }
     }
 
-    private long getDocumentId() {
+    long getDocumentId() {
         return documentId;
     }
 
+    int getModificationStamp() {
+        return modificationStamp;
+    }
+
+    void incrementModificationStamp() {
+        modificationStamp++;
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         if (tagStructureContext != null) {
             LoggerFactory.getLogger(getClass()).warn(LogMessageConstant.TAG_STRUCTURE_CONTEXT_WILL_BE_REINITIALIZED_ON_SERIALIZATION);
@@ -2081,42 +2116,6 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         out.defaultWriteObject();
     }
 
-    /**
-     * A structure storing documentId, object number and generation number. This structure is using to calculate
-     * an unique object key during the copy process.
-     */
-    static class IndirectRefDescription {
-        private long docId;
-        private int objNr;
-        private int genNr;
-
-        IndirectRefDescription(PdfIndirectReference reference) {
-            this.docId = reference.getDocument().getDocumentId();
-            this.objNr = reference.getObjNumber();
-            this.genNr = reference.getGenNumber();
-        }
-
-        @Override
-        public int hashCode() {
-            int result = (int) docId;
-            result *= 31;
-            result += objNr;
-            result *= 31;
-            result += genNr;
-            return result;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-
-            IndirectRefDescription that = (IndirectRefDescription) o;
-
-            return docId == that.docId && objNr == that.objNr && genNr == that.genNr;
-        }
-    }
-
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
         eventDispatcher = new EventDispatcher();
@@ -46,6 +46,7 @@ package com.itextpdf.kernel.pdf;
 import com.itextpdf.io.util.SystemUtil;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.crypto.IDecryptor;
+import com.itextpdf.kernel.crypto.InputStreamDecryption;
 import com.itextpdf.kernel.crypto.OutputStreamEncryption;
 import com.itextpdf.kernel.crypto.securityhandler.PubKeySecurityHandler;
 import com.itextpdf.kernel.crypto.securityhandler.PubSecHandlerUsingAes128;
@@ -61,11 +62,13 @@ import com.itextpdf.kernel.crypto.securityhandler.StandardSecurityHandler;
 import com.itextpdf.kernel.security.IExternalDecryptionProcess;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.security.MessageDigest;
 import java.security.cert.Certificate;
+import java.util.Arrays;
 
 /**
  * @author Paulo Soares
@@ -343,6 +346,17 @@ public class PdfEncryption extends PdfObjectWrapper<PdfDictionary> {
         return securityHandler.getEncryptionStream(os);
     }
 
+    /**
+     * Creates a stream, which decrypts the wrapped stream content with the key
+     * set by the last {@link #setHashKeyForNextObject(int, int)} call.
+     *
+     * @param is the stream with the encrypted content.
+     * @return the decrypting stream.
+     */
+    public InputStreamDecryption getDecryptionStream(InputStream is) {
+        return new InputStreamDecryption(is, securityHandler.getDecryptor());
+    }
+
     public byte[] encryptByteArray(byte[] b) {
         ByteArrayOutputStream ba = new ByteArrayOutputStream();
         OutputStreamEncryption ose = getEncryptionStream(ba);
@@ -356,19 +370,11 @@ public class PdfEncryption extends PdfObjectWrapper<PdfDictionary> {
     }
 
     public byte[] decryptByteArray(byte[] b) {
-        try {
-            ByteArrayOutputStream ba = new ByteArrayOutputStream();
-            IDecryptor dec = securityHandler.getDecryptor();
-            byte[] b2 = dec.update(b, 0, b.length);
-            if (b2 != null)
-                ba.write(b2);
-            b2 = dec.finish();
-            if (b2 != null)
-                ba.write(b2);
-            return ba.toByteArray();
-        } catch (IOException e) {
-            throw new PdfException(PdfException.PdfEncryption, e);
-        }
+        IDecryptor dec = securityHandler.getDecryptor();
+        byte[] decrypted = new byte[b.length + 32];
+        int n = dec.update(b, 0, b.length, decrypted, 0);
+        n += dec.finish(decrypted, n);
+        return Arrays.copyOf(decrypted, n);
     }
 
     public boolean isOpenedWithFullPermission() {
@@ -63,7 +63,7 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
     /**
      * PdfObject that current PdfIndirectReference instance refers to.
      */
-    protected PdfObject refersTo = null;
+    protected volatile PdfObject refersTo = null;
 
     /**
      * Indirect reference number of object stream containing refersTo object.
@@ -82,6 +82,17 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
      */
     protected PdfDocument pdfDocument = null;
 
+    /**
+     * The hash of the referred object content, which is calculated when the object is copied in smart mode.
+     * See {@link SmartModeObjectIndex}.
+     */
+    private transient byte[] contentHash;
+    /**
+     * The modification stamp of the document at the time the content hash was calculated.
+     * The hash is discarded once an object of the document is marked as modified.
+     */
+    private transient int contentHashStamp;
+
     protected PdfIndirectReference(PdfDocument doc, int objNr) {
         this(doc, objNr, 0);
     }
@@ -124,7 +135,17 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
     public PdfObject getRefersTo(boolean recursively) {
         if (!recursively) {
             if (refersTo == null && !checkState(FLUSHED) && !checkState(MODIFIED) && getReader() != null) {
-                refersTo = getReader().readObject(this);
+                PdfReader reader = getReader();
+                if (reader.isConcurrentReading()) {
+                    // reader shares its tokenizer and xref table, so objects are resolved one at a time
+                    synchronized (reader) {
+                        if (refersTo == null) {
+                            refersTo = reader.readObject(this);
+                        }
+                    }
+                } else {
+                    refersTo = reader.readObject(this);
+                }
             }
             return refersTo;
         } else {
@@ -243,6 +264,18 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
         return MessageFormat.format("{0} {1} R{2}", Integer.toString(getObjNumber()), Integer.toString(getGenNumber()), states.substring(0, states.length() - 1));
     }
 
+    byte[] getContentHash() {
+        if (contentHash != null && contentHashStamp != getModificationStamp()) {
+            contentHash = null;
+        }
+        return contentHash;
+    }
+
+    void setContentHash(byte[] contentHash) {
+        this.contentHash = contentHash;
+        this.contentHashStamp = getModificationStamp();
+    }
+
     /**
      * Gets a PdfWriter associated with the document object belongs to.
      *
@@ -308,4 +341,8 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
             this.offsetOrIndex = offset;
         }
     }
+
+    private int getModificationStamp() {
+        return pdfDocument != null ? pdfDocument.getModificationStamp() : 0;
+    }
 }
@@ -0,0 +1,765 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.io.source.DeflaterOutputStream;
+import com.itextpdf.io.util.IdelOutputStream;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.log.Counter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Rewrites a complete document into a linearized one (see ISO 32000-1, Annex F), so that a viewer is able to
+ * display the first page before the whole file is downloaded.
+ * <p/>
+ * The objects are reordered into the first page section, the sections of the other pages, the section of
+ * the objects shared by several pages and the section of the rest of the objects. The objects are renumbered
+ * so that the first page section is covered by the cross-reference table at the beginning of the file.
+ * The content of the streams is copied as is. Object streams and cross-reference streams are not used.
+ */
+class PdfLinearizer {
+
+    private static final int SHARED = -1;
+    private static final int OFFSET_WIDTH = 10;
+    private static final byte[] obj = ByteUtils.getIsoBytes(" 0 obj\n");
+    private static final byte[] endobj = ByteUtils.getIsoBytes("\nendobj\n");
+    private static final byte[] endIndirect = ByteUtils.getIsoBytes(" 0 R");
+    private static final byte[] stream = ByteUtils.getIsoBytes("stream\n");
+    private static final byte[] endstream = ByteUtils.getIsoBytes("\nendstream");
+    private static final byte[] inUseXrefEntry = ByteUtils.getIsoBytes(" 00000 n \n");
+    private static final PdfName[] inheritableKeys = {PdfName.Resources, PdfName.MediaBox, PdfName.CropBox, PdfName.Rotate};
+
+    private final PdfDocument document;
+    private final PdfReader reader;
+    private final PdfIndirectReference catalog;
+    private final int numberOfPages;
+
+    /**
+     * The numbers of the objects in the linearized document by their numbers in the source document.
+     */
+    private int[] newNumbers;
+    /**
+     * The objects of the first page section, the page object is the first one.
+     */
+    private final List<PdfIndirectReference> firstPageObjects = new ArrayList<>();
+    /**
+     * The objects of the other pages sections, every section starts with the page object.
+     */
+    private final List<PdfIndirectReference> otherPagesObjects = new ArrayList<>();
+    /**
+     * The start indexes of the other pages sections in {@link #otherPagesObjects}.
+     */
+    private int[] pageStarts;
+    /**
+     * The shared objects which are not used by the first page.
+     */
+    private final List<PdfIndirectReference> sharedObjects = new ArrayList<>();
+    private final List<PdfIndirectReference> otherObjects = new ArrayList<>();
+    /**
+     * The identifiers of the shared objects referenced from each page, except the first one.
+     */
+    private int[][] pageSharedReferences;
+
+    private final PdfOutputStream measuringStream = new PdfOutputStream(new IdelOutputStream());
+
+    /**
+     * Creates the linearizer for the document read by the given reader.
+     *
+     * @param reader the reader of the complete unencrypted document.
+     */
+    PdfLinearizer(PdfReader reader) {
+        this.reader = reader;
+        this.document = new InternalDocument(reader);
+        this.catalog = document.getCatalog().getPdfObject().getIndirectReference();
+        this.numberOfPages = document.getNumberOfPages();
+    }
+
+    /**
+     * Writes the linearized document.
+     *
+     * @param os the stream to write the document to.
+     * @return the length of the linearized document.
+     * @throws IOException if an I/O error occurs.
+     */
+    long write(OutputStream os) throws IOException {
+        distributeObjects();
+
+        // The main section is numbered first: the other pages, the shared objects and the rest of the objects.
+        newNumbers = new int[document.getNumberOfPdfObjects() + 1];
+        int mainSectionSize = 0;
+        for (PdfIndirectReference reference : otherPagesObjects) {
+            newNumbers[reference.getObjNumber()] = ++mainSectionSize;
+        }
+        for (PdfIndirectReference reference : sharedObjects) {
+            newNumbers[reference.getObjNumber()] = ++mainSectionSize;
+        }
+        for (PdfIndirectReference reference : otherObjects) {
+            newNumbers[reference.getObjNumber()] = ++mainSectionSize;
+        }
+        // The first page section: the linearization dictionary, the catalog, the hint stream and the first page objects.
+        int linearizationDictionaryNumber = mainSectionSize + 1;
+        newNumbers[catalog.getObjNumber()] = mainSectionSize + 2;
+        int hintStreamNumber = mainSectionSize + 3;
+        int size = hintStreamNumber;
+        for (PdfIndirectReference reference : firstPageObjects) {
+            newNumbers[reference.getObjNumber()] = ++size;
+        }
+
+        // Lay the document out as if there were no hint stream, hint tables are based on such offsets.
+        long[] offsets = new long[size + 1];
+        long position = writeHeader(measuringStream);
+        long linearizationDictionaryLength = writeLinearizationDictionary(measuringStream, linearizationDictionaryNumber,
+                0, 0, 0, 0, 0, 0);
+        offsets[linearizationDictionaryNumber] = position;
+        position += linearizationDictionaryLength;
+        long firstXrefOffset = position;
+        position += writeFirstPageXref(measuringStream, mainSectionSize + 1, offsets, size, 0);
+        offsets[newNumbers[catalog.getObjNumber()]] = position;
+        position += writeObject(measuringStream, catalog, false);
+        long hintStreamOffset = position;
+        long[] firstPageObjectLengths = new long[firstPageObjects.size()];
+        position = layOut(firstPageObjects, firstPageObjectLengths, offsets, position);
+        long endOfFirstPage = position;
+        long[] otherPagesObjectLengths = new long[otherPagesObjects.size()];
+        position = layOut(otherPagesObjects, otherPagesObjectLengths, offsets, position);
+        long[] sharedObjectLengths = new long[sharedObjects.size()];
+        position = layOut(sharedObjects, sharedObjectLengths, offsets, position);
+        position = layOut(otherObjects, new long[otherObjects.size()], offsets, position);
+        long mainXrefOffset = position;
+
+        PdfStream hintStream = createHintStream(offsets, firstPageObjectLengths, otherPagesObjectLengths, sharedObjectLengths);
+        byte[] hintStreamData = hintStream.getBytes(false);
+        long hintStreamLength = writeObject(measuringStream, hintStreamNumber, hintStream, hintStreamData);
+
+        for (int i = 1; i <= size; i++) {
+            if (offsets[i] >= hintStreamOffset) {
+                offsets[i] += hintStreamLength;
+            }
+        }
+        offsets[hintStreamNumber] = hintStreamOffset;
+        endOfFirstPage += hintStreamLength;
+        mainXrefOffset += hintStreamLength;
+        long mainXrefFirstEntry = mainXrefOffset + ByteUtils.getIsoBytes("xref\n0 " + (mainSectionSize + 1)).length;
+        long fileLength = mainXrefOffset + writeMainXref(measuringStream, mainSectionSize, offsets, firstXrefOffset);
+
+        PdfOutputStream out = new PdfOutputStream(os);
+        out.setCloseStream(false);
+        writeHeader(out);
+        writeLinearizationDictionary(out, linearizationDictionaryNumber, fileLength, hintStreamOffset, hintStreamLength,
+                endOfFirstPage, mainXrefFirstEntry, newNumbers[firstPageObjects.get(0).getObjNumber()]);
+        writeFirstPageXref(out, mainSectionSize + 1, offsets, size, mainXrefOffset);
+        writeObject(out, catalog, true);
+        writeObject(out, hintStreamNumber, hintStream, hintStreamData);
+        writeObjects(out, firstPageObjects);
+        writeObjects(out, otherPagesObjects);
+        writeObjects(out, sharedObjects);
+        writeObjects(out, otherObjects);
+        if (out.getCurrentPos() != mainXrefOffset) {
+            // the offsets written to the first page section and the hint stream would be wrong
+            throw new PdfException(PdfException.LinearizedDocumentLayoutMismatch).setMessageParams(String.valueOf(mainXrefOffset), String.valueOf(out.getCurrentPos()));
+        }
+        writeMainXref(out, mainSectionSize, offsets, firstXrefOffset);
+        out.flush();
+        return out.getCurrentPos();
+    }
+
+    /**
+     * Distributes the objects of the document between the sections of the linearized document.
+     */
+    private void distributeObjects() {
+        int[] owners = new int[document.getNumberOfPdfObjects() + 1];
+        owners[catalog.getObjNumber()] = SHARED;
+        List<List<PdfIndirectReference>> pagesObjects = new ArrayList<>(numberOfPages);
+        for (int i = 1; i <= numberOfPages; i++) {
+            PdfDictionary page = document.getPage(i).getPdfObject();
+            List<PdfIndirectReference> pageObjects = collectPageObjects(page);
+            for (PdfIndirectReference reference : pageObjects) {
+                int objNr = reference.getObjNumber();
+                if (owners[objNr] == 0) {
+                    owners[objNr] = i;
+                } else if (owners[objNr] != i) {
+                    owners[objNr] = SHARED;
+                }
+            }
+            pagesObjects.add(pageObjects);
+        }
+
+        BitSet distributed = new BitSet();
+        distributed.set(catalog.getObjNumber());
+        firstPageObjects.addAll(pagesObjects.get(0));
+        for (PdfIndirectReference reference : firstPageObjects) {
+            distributed.set(reference.getObjNumber());
+        }
+        pageStarts = new int[numberOfPages];
+        for (int i = 2; i <= numberOfPages; i++) {
+            pageStarts[i - 1] = otherPagesObjects.size();
+            for (PdfIndirectReference reference : pagesObjects.get(i - 1)) {
+                if (owners[reference.getObjNumber()] == i) {
+                    otherPagesObjects.add(reference);
+                    distributed.set(reference.getObjNumber());
+                }
+            }
+        }
+        for (int i = 2; i <= numberOfPages; i++) {
+            for (PdfIndirectReference reference : pagesObjects.get(i - 1)) {
+                if (!distributed.get(reference.getObjNumber())) {
+                    sharedObjects.add(reference);
+                    distributed.set(reference.getObjNumber());
+                }
+            }
+        }
+
+        // The identifiers of the shared objects: the objects of the first page section go first.
+        int[] sharedIdentifiers = new int[owners.length];
+        for (int i = 0; i < firstPageObjects.size(); i++) {
+            sharedIdentifiers[firstPageObjects.get(i).getObjNumber()] = i;
+        }
+        for (int i = 0; i < sharedObjects.size(); i++) {
+            sharedIdentifiers[sharedObjects.get(i).getObjNumber()] = firstPageObjects.size() + i;
+        }
+        pageSharedReferences = new int[numberOfPages][];
+        pageSharedReferences[0] = new int[0];
+        for (int i = 2; i <= numberOfPages; i++) {
+            List<PdfIndirectReference> pageObjects = pagesObjects.get(i - 1);
+            int[] references = new int[pageObjects.size()];
+            int count = 0;
+            for (PdfIndirectReference reference : pageObjects) {
+                if (owners[reference.getObjNumber()] == SHARED) {
+                    references[count++] = sharedIdentifiers[reference.getObjNumber()];
+                }
+            }
+            pageSharedReferences[i - 1] = Arrays.copyOf(references, count);
+        }
+
+        collectObjects(catalog.getRefersTo(), distributed, otherObjects, null);
+        PdfObject info = document.getTrailer().get(PdfName.Info, false);
+        if (info != null) {
+            collectReference(info, distributed, otherObjects, null, null);
+        }
+    }
+
+    /**
+     * Collects the indirect objects which are necessary to display the page, the page object goes first.
+     */
+    private List<PdfIndirectReference> collectPageObjects(PdfDictionary page) {
+        List<PdfIndirectReference> pageObjects = new ArrayList<>();
+        BitSet collected = new BitSet();
+        collected.set(catalog.getObjNumber());
+        collected.set(page.getIndirectReference().getObjNumber());
+        pageObjects.add(page.getIndirectReference());
+        // the attributes inherited from the page tree nodes are needed to display the page as well
+        PdfDictionary parent = page.getAsDictionary(PdfName.Parent);
+        for (PdfName key : inheritableKeys) {
+            if (!page.containsKey(key)) {
+                for (PdfDictionary node = parent; node != null; node = node.getAsDictionary(PdfName.Parent)) {
+                    PdfObject value = node.get(key, false);
+                    if (value != null) {
+                        collectReference(value, collected, pageObjects, page, null);
+                        break;
+                    }
+                }
+            }
+        }
+        collectObjects(page, collected, pageObjects, page);
+        return pageObjects;
+    }
+
+    /**
+     * Collects the indirect objects reachable from the given container in breadth-first order.
+     * The page tree is not traversed, the pages other than the given one are not traversed as well.
+     */
+    private void collectObjects(PdfObject root, BitSet collected, List<PdfIndirectReference> result, PdfDictionary page) {
+        Deque<PdfObject> containers = new ArrayDeque<>();
+        containers.add(root);
+        while (!containers.isEmpty()) {
+            PdfObject container = containers.poll();
+            if (container.isArray()) {
+                PdfArray array = (PdfArray) container;
+                for (int i = 0; i < array.size(); i++) {
+                    collectReference(array.get(i, false), collected, result, page, containers);
+                }
+            } else {
+                PdfDictionary dictionary = (PdfDictionary) container;
+                for (PdfName key : dictionary.keySet()) {
+                    // stream lengths are written as direct objects
+                    if (dictionary.isStream() && PdfName.Length.equals(key)) {
+                        continue;
+                    }
+                    collectReference(dictionary.get(key, false), collected, result, page, containers);
+                }
+            }
+        }
+    }
+
+    private void collectReference(PdfObject value, BitSet collected, List<PdfIndirectReference> result,
+                                  PdfDictionary page, Deque<PdfObject> containers) {
+        PdfIndirectReference reference = getReference(value);
+        if (reference != null) {
+            if (collected.get(reference.getObjNumber())) {
+                return;
+            }
+            value = reference.getRefersTo();
+            if (value == null || page != null && value != page && isPageTreeNode(value)) {
+                return;
+            }
+            collected.set(reference.getObjNumber());
+            result.add(reference);
+        }
+        if (value.isArray() || value.isDictionary() || value.isStream()) {
+            if (containers != null) {
+                containers.add(value);
+            } else {
+                collectObjects(value, collected, result, page);
+            }
+        }
+    }
+
+    private long layOut(List<PdfIndirectReference> objects, long[] lengths, long[] offsets, long position) throws IOException {
+        for (int i = 0; i < objects.size(); i++) {
+            PdfIndirectReference reference = objects.get(i);
+            offsets[newNumbers[reference.getObjNumber()]] = position;
+            lengths[i] = writeObject(measuringStream, reference, false);
+            position += lengths[i];
+        }
+        return position;
+    }
+
+    /**
+     * Creates the primary hint stream, which consists of the page offset hint table and the shared object hint table.
+     * All the offsets are as if there were no hint stream in the file.
+     */
+    private PdfStream createHintStream(long[] offsets, long[] firstPageObjectLengths, long[] otherPagesObjectLengths,
+                                    long[] sharedObjectLengths) {
+        int[] pageObjectCounts = new int[numberOfPages];
+        long[] pageLengths = new long[numberOfPages];
+        pageObjectCounts[0] = firstPageObjects.size();
+        pageLengths[0] = sum(firstPageObjectLengths, 0, firstPageObjectLengths.length);
+        for (int i = 1; i < numberOfPages; i++) {
+            int end = i + 1 < numberOfPages ? pageStarts[i + 1] : otherPagesObjects.size();
+            pageObjectCounts[i] = end - pageStarts[i];
+            pageLengths[i] = sum(otherPagesObjectLengths, pageStarts[i], end);
+        }
+        int leastObjectCount = min(pageObjectCounts);
+        long leastPageLength = min(pageLengths);
+        int objectCountBits = 0;
+        int pageLengthBits = 0;
+        int sharedReferenceCountBits = 0;
+        int sharedIdentifierBits = 0;
+        for (int i = 0; i < numberOfPages; i++) {
+            objectCountBits = Math.max(objectCountBits, bitsNeeded(pageObjectCounts[i] - leastObjectCount));
+            pageLengthBits = Math.max(pageLengthBits, bitsNeeded(pageLengths[i] - leastPageLength));
+            sharedReferenceCountBits = Math.max(sharedReferenceCountBits, bitsNeeded(pageSharedReferences[i].length));
+            for (int identifier : pageSharedReferences[i]) {
+                sharedIdentifierBits = Math.max(sharedIdentifierBits, bitsNeeded(identifier));
+            }
+        }
+
+        BitWriter bits = new BitWriter();
+        // page offset hint table header
+        bits.write(leastObjectCount, 32);
+        bits.write(offsets[newNumbers[firstPageObjects.get(0).getObjNumber()]], 32);
+        bits.write(objectCountBits, 16);
+        bits.write(leastPageLength, 32);
+        bits.write(pageLengthBits, 16);
+        // content streams are not located separately, the whole page is reported instead
+        bits.write(0, 32);
+        bits.write(0, 16);
+        bits.write(leastPageLength, 32);
+        bits.write(pageLengthBits, 16);
+        bits.write(sharedReferenceCountBits, 16);
+        bits.write(sharedIdentifierBits, 16);
+        // fractional positions of the shared object references are not used
+        bits.write(0, 16);
+        bits.write(4, 16);
+        // page offset hint table entries
+        for (int i = 0; i < numberOfPages; i++) {
+            bits.write(pageObjectCounts[i] - leastObjectCount, objectCountBits);
+        }
+        bits.flush();
+        for (int i = 0; i < numberOfPages; i++) {
+            bits.write(pageLengths[i] - leastPageLength, pageLengthBits);
+        }
+        bits.flush();
+        for (int i = 0; i < numberOfPages; i++) {
+            bits.write(pageSharedReferences[i].length, sharedReferenceCountBits);
+        }
+        bits.flush();
+        for (int i = 0; i < numberOfPages; i++) {
+            for (int identifier : pageSharedReferences[i]) {
+                bits.write(identifier, sharedIdentifierBits);
+            }
+        }
+        bits.flush();
+        for (int i = 0; i < numberOfPages; i++) {
+            bits.write(pageLengths[i] - leastPageLength, pageLengthBits);
+        }
+        bits.flush();
+
+        // shared object hint table, every group consists of a single object
+        int sharedTableOffset = bits.size();
+        long[] groupLengths = new long[firstPageObjectLengths.length + sharedObjectLengths.length];
+        System.arraycopy(firstPageObjectLengths, 0, groupLengths, 0, firstPageObjectLengths.length);
+        System.arraycopy(sharedObjectLengths, 0, groupLengths, firstPageObjectLengths.length, sharedObjectLengths.length);
+        long leastGroupLength = min(groupLengths);
+        int groupLengthBits = 0;
+        for (long groupLength : groupLengths) {
+            groupLengthBits = Math.max(groupLengthBits, bitsNeeded(groupLength - leastGroupLength));
+        }
+        if (sharedObjects.isEmpty()) {
+            bits.write(0, 32);
+            bits.write(0, 32);
+        } else {
+            int firstSharedObject = newNumbers[sharedObjects.get(0).getObjNumber()];
+            bits.write(firstSharedObject, 32);
+            bits.write(offsets[firstSharedObject], 32);
+        }
+        bits.write(firstPageObjectLengths.length, 32);
+        bits.write(groupLengths.length, 32);
+        bits.write(0, 16);
+        bits.write(leastGroupLength, 32);
+        bits.write(groupLengthBits, 16);
+        for (long groupLength : groupLengths) {
+            bits.write(groupLength - leastGroupLength, groupLengthBits);
+        }
+        bits.flush();
+        // no MD5 signatures
+        for (int i = 0; i < groupLengths.length; i++) {
+            bits.write(0, 1);
+        }
+        bits.flush();
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        DeflaterOutputStream zip = new DeflaterOutputStream(compressed, CompressionConstants.DEFAULT_COMPRESSION);
+        try {
+            zip.write(bits.toByteArray());
+            zip.finish();
+        } catch (IOException e) {
+            throw new PdfException(PdfException.CannotWriteToPdfStream, e);
+        }
+        PdfStream hintStream = new PdfStream(compressed.toByteArray());
+        hintStream.put(PdfName.Filter, PdfName.FlateDecode);
+        hintStream.put(PdfName.S, new PdfNumber(sharedTableOffset));
+        return hintStream;
+    }
+
+    private long writeHeader(PdfOutputStream out) {
+        long start = out.getCurrentPos();
+        out.writeByte('%').
+                writeString(document.getPdfVersion().toString()).
+                writeString("\n%\u00e2\u00e3\u00cf\u00d3\n");
+        return out.getCurrentPos() - start;
+    }
+
+    private long writeLinearizationDictionary(PdfOutputStream out, int number, long fileLength, long hintStreamOffset,
+                                              long hintStreamLength, long endOfFirstPage, long mainXrefFirstEntry,
+                                              int firstPageNumber) {
+        long start = out.getCurrentPos();
+        out.writeInteger(number).writeBytes(obj).
+                writeString("<</Linearized 1/L ").writeString(pad(fileLength)).
+                writeString("/H [").writeString(pad(hintStreamOffset)).writeSpace().writeString(pad(hintStreamLength)).
+                writeString("]/O ").writeString(pad(firstPageNumber)).
+                writeString("/E ").writeString(pad(endOfFirstPage)).
+                writeString("/N ").writeInteger(numberOfPages).
+                writeString("/T ").writeString(pad(mainXrefFirstEntry)).
+                writeString(">>").writeBytes(endobj);
+        return out.getCurrentPos() - start;
+    }
+
+    private long writeFirstPageXref(PdfOutputStream out, int first, long[] offsets, int size, long mainXrefOffset) {
+        long start = out.getCurrentPos();
+        out.writeString("xref\n").writeInteger(first).writeSpace().writeInteger(size - first + 1).writeByte('\n');
+        for (int i = first; i <= size; i++) {
+            writeXrefEntry(out, offsets[i]);
+        }
+        PdfDictionary trailer = document.getTrailer();
+        out.writeString("trailer\n<</Size ").writeInteger(size + 1).
+                writeString("/Root ").writeInteger(newNumbers[catalog.getObjNumber()]).writeBytes(endIndirect);
+        PdfIndirectReference info = getReference(trailer.get(PdfName.Info, false));
+        if (info != null) {
+            out.writeString("/Info ").writeInteger(newNumbers[info.getObjNumber()]).writeBytes(endIndirect);
+        }
+        PdfArray id = trailer.getAsArray(PdfName.ID);
+        if (id != null) {
+            out.writeString("/ID ");
+            writeDirectObject(out, id);
+        }
+        out.writeString("/Prev ").writeString(pad(mainXrefOffset)).
+                writeString(">>\nstartxref\n0\n%%EOF\n");
+        return out.getCurrentPos() - start;
+    }
+
+    private long writeMainXref(PdfOutputStream out, int mainSectionSize, long[] offsets, long firstXrefOffset) {
+        long start = out.getCurrentPos();
+        out.writeString("xref\n0 ").writeInteger(mainSectionSize + 1).
+                writeString("\n0000000000 65535 f \n");
+        for (int i = 1; i <= mainSectionSize; i++) {
+            writeXrefEntry(out, offsets[i]);
+        }
+        out.writeString("trailer\n<</Size ").writeInteger(mainSectionSize + 1).
+                writeString(">>\nstartxref\n").writeLong(firstXrefOffset).writeString("\n%%EOF\n");
+        return out.getCurrentPos() - start;
+    }
+
+    private static void writeXrefEntry(PdfOutputStream out, long offset) {
+        StringBuilder off = new StringBuilder("0000000000").append(offset);
+        out.writeString(off.substring(off.length() - 10, off.length())).writeBytes(inUseXrefEntry);
+    }
+
+    private void writeObjects(PdfOutputStream out, List<PdfIndirectReference> objects) throws IOException {
+        for (PdfIndirectReference reference : objects) {
+            writeObject(out, reference, true);
+        }
+    }
+
+    /**
+     * Writes the indirect object with its new number.
+     *
+     * @param writeStreamData if false, the stream content is not written, but it's still counted in the object length.
+     * @return the length of the object in bytes.
+     */
+    private long writeObject(PdfOutputStream out, PdfIndirectReference reference, boolean writeStreamData) throws IOException {
+        PdfObject object = reference.getRefersTo();
+        byte[] streamData = null;
+        if (object.isStream() && writeStreamData) {
+            streamData = reader.readStreamBytesRaw((PdfStream) object);
+            if (streamData == null) {
+                streamData = new byte[0];
+            }
+        }
+        return writeObject(out, newNumbers[reference.getObjNumber()], object, streamData);
+    }
+
+    private long writeObject(PdfOutputStream out, int number, PdfObject object, byte[] streamData) {
+        long start = out.getCurrentPos();
+        out.writeInteger(number).writeBytes(obj);
+        if (object.isStream()) {
+            PdfStream pdfStream = (PdfStream) object;
+            int length = streamData != null ? streamData.length : Math.max(pdfStream.getLength(), 0);
+            writeDictionary(out, pdfStream, length);
+            out.writeBytes(stream);
+            if (streamData != null) {
+                out.writeBytes(streamData);
+            }
+            out.writeBytes(endstream);
+            out.writeBytes(endobj);
+            return out.getCurrentPos() - start + (streamData != null ? 0 : length);
+        }
+        writeDirectObject(out, object);
+        out.writeBytes(endobj);
+        return out.getCurrentPos() - start;
+    }
+
+    private void writeDirectObject(PdfOutputStream out, PdfObject object) {
+        switch (object.getType()) {
+            case PdfObject.ARRAY:
+                PdfArray array = (PdfArray) object;
+                out.writeByte('[');
+                for (int i = 0; i < array.size(); i++) {
+                    if (i > 0) {
+                        out.writeSpace();
+                    }
+                    writeValue(out, array.get(i, false));
+                }
+                out.writeByte(']');
+                break;
+            case PdfObject.DICTIONARY:
+                writeDictionary(out, (PdfDictionary) object, -1);
+                break;
+            default:
+                out.write(object);
+        }
+    }
+
+    /**
+     * Writes the dictionary with the sorted keys.
+     *
+     * @param streamLength the /Length of the stream dictionary, or -1 for the other dictionaries.
+     */
+    private void writeDictionary(PdfOutputStream out, PdfDictionary dictionary, int streamLength) {
+        out.writeString("<<");
+        PdfName[] keys = dictionary.keySet().toArray(new PdfName[dictionary.size()]);
+        Arrays.sort(keys);
+        for (PdfName key : keys) {
+            out.write(key);
+            out.writeSpace();
+            if (streamLength >= 0 && PdfName.Length.equals(key)) {
+                out.writeInteger(streamLength);
+            } else {
+                writeValue(out, dictionary.get(key, false));
+            }
+        }
+        if (streamLength >= 0 && !dictionary.containsKey(PdfName.Length)) {
+            out.write(PdfName.Length).writeSpace().writeInteger(streamLength);
+        }
+        out.writeString(">>");
+    }
+
+    private void writeValue(PdfOutputStream out, PdfObject value) {
+        PdfIndirectReference reference = getReference(value);
+        if (reference == null) {
+            writeDirectObject(out, value == null ? PdfNull.PDF_NULL : value);
+        } else if (reference.getObjNumber() < newNumbers.length && newNumbers[reference.getObjNumber()] != 0) {
+            out.writeInteger(newNumbers[reference.getObjNumber()]).writeBytes(endIndirect);
+        } else {
+            out.write(PdfNull.PDF_NULL);
+        }
+    }
+
+    private static PdfIndirectReference getReference(PdfObject value) {
+        if (value == null) {
+            return null;
+        }
+        return value.isIndirectReference() ? (PdfIndirectReference) value : value.getIndirectReference();
+    }
+
+    private static boolean isPageTreeNode(PdfObject object) {
+        if (!object.isDictionary()) {
+            return false;
+        }
+        PdfName type = ((PdfDictionary) object).getAsName(PdfName.Type);
+        return PdfName.Page.equals(type) || PdfName.Pages.equals(type);
+    }
+
+    private static String pad(long value) {
+        StringBuilder padded = new StringBuilder();
+        String digits = String.valueOf(value);
+        for (int i = digits.length(); i < OFFSET_WIDTH; i++) {
+            padded.append(' ');
+        }
+        return padded.append(digits).toString();
+    }
+
+    private static int bitsNeeded(long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    private static long sum(long[] values, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    private static int min(int[] values) {
+        int min = Integer.MAX_VALUE;
+        for (int value : values) {
+            min = Math.min(min, value);
+        }
+        return values.length > 0 ? min : 0;
+    }
+
+    private static long min(long[] values) {
+        long min = Long.MAX_VALUE;
+        for (long value : values) {
+            min = Math.min(min, value);
+        }
+        return values.length > 0 ? min : 0;
+    }
+
+    /**
+     * Packs the hint table items into bytes, the most significant bit first.
+     */
+    private static class BitWriter {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private long buffer;
+        private int bufferedBits;
+
+        void write(long value, int bitCount) {
+            for (int i = bitCount - 1; i >= 0; i--) {
+                buffer = (buffer << 1) | ((value >>> i) & 1);
+                if (++bufferedBits == 8) {
+                    bytes.write((int) buffer);
+                    buffer = 0;
+                    bufferedBits = 0;
+                }
+            }
+        }
+
+        /**
+         * Pads the last byte with zero bits.
+         */
+        void flush() {
+            if (bufferedBits > 0) {
+                write(0, 8 - bufferedBits);
+            }
+        }
+
+        int size() {
+            return (int) bytes.size();
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * The document the linearized one is rewritten from. It is the temporary copy of the document which
+     * is being written, so it's not counted as a read document.
+     */
+    private static class InternalDocument extends PdfDocument {
+
+        private static final long serialVersionUID = -1591538829349212318L;
+
+        InternalDocument(PdfReader reader) {
+            super(reader);
+        }
+
+        @Override
+        protected Counter getCounter() {
+            return null;
+        }
+    }
+}
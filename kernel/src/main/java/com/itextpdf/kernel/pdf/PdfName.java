@@ -267,6 +267,7 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
     public static final PdfName Direction = createDirectName("Direction");
     public static final PdfName Disc = createDirectName("Disc");
     public static final PdfName DisplayDocTitle = createDirectName("DisplayDocTitle");
+    public static final PdfName DL = createDirectName("DL");
     public static final PdfName DocMDP = createDirectName("DocMDP");
     public static final PdfName DocOpen = createDirectName("DocOpen");
     public static final PdfName DocTimeStamp = createDirectName("DocTimeStamp");
@@ -904,6 +905,19 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
         super();
     }
 
+    /**
+     * Gets the shared instance of the name with the passed content. Equal names read from PDF resolve
+     * to the same direct only instance, which is either one of the constants of this class or
+     * a name created on the first request of such content.
+     *
+     * @param content name content as it is written in PDF, without leading solidus.
+     *                The array could be used by the returned name, so it shall not be modified afterwards.
+     * @return the shared {@link PdfName} instance.
+     */
+    public static PdfName intern(byte[] content) {
+        return PdfNameTable.getName(content);
+    }
+
     @Override
     public byte getType() {
         return PdfObject.NAME;
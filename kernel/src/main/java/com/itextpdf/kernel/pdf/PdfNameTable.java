@@ -0,0 +1,199 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Global table of the names parsed from PDF content. Equal names are resolved to the same
+ * direct-only {@link PdfName} instance, so that large documents don't keep millions of equal names,
+ * and comparison of such names is reduced to the reference check.
+ * The table only weakly references the names, names declared in {@link PdfName} are kept by its static fields.
+ * <p/>
+ * The names are looked up by the hash of the parsed bytes, which are compared with the content of the names,
+ * so that a look up of an existing name doesn't allocate anything. The look ups are not blocking,
+ * the new names are added under the lock, which also guards the removal of the collected names and the resizing.
+ */
+final class PdfNameTable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final Object lock = new Object();
+    private static final ReferenceQueue<PdfName> collectedNames = new ReferenceQueue<>();
+    private static volatile AtomicReferenceArray<NameEntry> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    // guarded by lock
+    private static int count;
+
+    static {
+        if (PdfName.staticNames != null) {
+            synchronized (lock) {
+                for (PdfName name : PdfName.staticNames.values()) {
+                    byte[] content = name.getInternalContent();
+                    if (find(table, hash(content), content) == null) {
+                        add(new NameEntry(hash(content), name, collectedNames));
+                    }
+                }
+            }
+        }
+    }
+
+    private PdfNameTable() {
+    }
+
+    /**
+     * Gets the shared instance of the name.
+     *
+     * @param content name content as it is written in PDF, without leading solidus.
+     *                The array is used as the content of a new name, so it shall not be modified afterwards.
+     * @return direct-only {@link PdfName} instance.
+     */
+    static PdfName getName(byte[] content) {
+        int hash = hash(content);
+        PdfName name = find(table, hash, content);
+        if (name == null) {
+            synchronized (lock) {
+                removeCollectedNames();
+                name = find(table, hash, content);
+                if (name == null) {
+                    name = new PdfName(content);
+                    name.directOnly = true;
+                    add(new NameEntry(hash, name, collectedNames));
+                }
+            }
+        }
+        return name;
+    }
+
+    private static PdfName find(AtomicReferenceArray<NameEntry> tab, int hash, byte[] content) {
+        for (NameEntry entry = tab.get(hash & (tab.length() - 1)); entry != null; entry = entry.next) {
+            if (entry.hash == hash) {
+                PdfName name = entry.get();
+                if (name != null && Arrays.equals(name.getInternalContent(), content)) {
+                    return name;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the entry to the table, shall be called under the lock.
+     */
+    private static void add(NameEntry entry) {
+        AtomicReferenceArray<NameEntry> tab = table;
+        if (count >= tab.length() - (tab.length() >>> 2)) {
+            tab = resize(tab);
+        }
+        int index = entry.hash & (tab.length() - 1);
+        entry.next = tab.get(index);
+        tab.set(index, entry);
+        count++;
+    }
+
+    /**
+     * Copies the entries of the names, which are not collected, to the table of the double size.
+     * The entries are copied, rather than relinked, so that the concurrent look ups in the old table
+     * are not affected. The old entries are not reachable afterwards and so are never enqueued.
+     */
+    private static AtomicReferenceArray<NameEntry> resize(AtomicReferenceArray<NameEntry> tab) {
+        AtomicReferenceArray<NameEntry> newTab = new AtomicReferenceArray<>(tab.length() * 2);
+        int newCount = 0;
+        for (int i = 0; i < tab.length(); i++) {
+            for (NameEntry entry = tab.get(i); entry != null; entry = entry.next) {
+                PdfName name = entry.get();
+                if (name != null) {
+                    NameEntry copy = new NameEntry(entry.hash, name, collectedNames);
+                    int index = copy.hash & (newTab.length() - 1);
+                    copy.next = newTab.get(index);
+                    newTab.set(index, copy);
+                    newCount++;
+                }
+            }
+        }
+        count = newCount;
+        table = newTab;
+        return newTab;
+    }
+
+    /**
+     * Unlinks the entries of the collected names, shall be called under the lock.
+     */
+    private static void removeCollectedNames() {
+        NameEntry collected;
+        while ((collected = (NameEntry) collectedNames.poll()) != null) {
+            AtomicReferenceArray<NameEntry> tab = table;
+            int index = collected.hash & (tab.length() - 1);
+            NameEntry previous = null;
+            for (NameEntry entry = tab.get(index); entry != null; previous = entry, entry = entry.next) {
+                if (entry == collected) {
+                    if (previous == null) {
+                        tab.set(index, entry.next);
+                    } else {
+                        previous.next = entry.next;
+                    }
+                    count--;
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int hash(byte[] content) {
+        int h = Arrays.hashCode(content);
+        return h ^ (h >>> 16);
+    }
+
+    private static class NameEntry extends WeakReference<PdfName> {
+        final int hash;
+        volatile NameEntry next;
+
+        NameEntry(int hash, PdfName name, ReferenceQueue<PdfName> queue) {
+            super(name, queue);
+            this.hash = hash;
+        }
+    }
+}
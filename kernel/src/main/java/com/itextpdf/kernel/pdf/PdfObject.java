@@ -324,6 +324,9 @@ public abstract class PdfObject implements Serializable {
         if (indirectReference != null) {
             indirectReference.setState(MODIFIED);
             setState(FORBID_RELEASE);
+            if (indirectReference.getDocument() != null) {
+                indirectReference.getDocument().incrementModificationStamp();
+            }
         }
         return this;
     }
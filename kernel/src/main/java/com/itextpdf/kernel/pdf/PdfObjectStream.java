@@ -54,7 +54,7 @@ class PdfObjectStream extends PdfStream {
     private static final long serialVersionUID = -3513488307665597642L;
 
 	/**
-     * Max number of objects in object stream.
+     * Default max number of objects in object stream, see {@link ObjectStreamPackingPolicy}.
      */
     public static final int MAX_OBJ_STREAM_SIZE = 200;
 
@@ -68,6 +68,11 @@ class PdfObjectStream extends PdfStream {
      */
     protected PdfOutputStream indexStream = new PdfOutputStream(new ByteArrayOutputStream());
 
+    /**
+     * The policy which limits the object stream size, null means the default limit of {@link #MAX_OBJ_STREAM_SIZE} objects.
+     */
+    private ObjectStreamPackingPolicy packingPolicy;
+
     public PdfObjectStream(PdfDocument doc) {
         super();
         //avoid reuse existed references
@@ -78,13 +83,24 @@ class PdfObjectStream extends PdfStream {
         put(PdfName.First, new PdfNumber(indexStream.getCurrentPos()));
     }
 
+    /**
+     * Creates an object stream, which size is limited by the given packing policy.
+     *
+     * @param doc           the document the object stream belongs to.
+     * @param packingPolicy the policy which limits the object stream size.
+     */
+    PdfObjectStream(PdfDocument doc, ObjectStreamPackingPolicy packingPolicy) {
+        this(doc);
+        this.packingPolicy = packingPolicy;
+    }
+
     /**
      * This constructor is for reusing ByteArrayOutputStreams of indexStream and outputStream.
      * NOTE Only for internal use in PdfWriter!
      * @param prev previous PdfObjectStream.
      */
     PdfObjectStream(PdfObjectStream prev) {
-        this(prev.getIndirectReference().getDocument());
+        this(prev.getIndirectReference().getDocument(), prev.packingPolicy);
         ByteArrayOutputStream prevOutputStream = (ByteArrayOutputStream) prev.getOutputStream().getOutputStream();
         prevOutputStream.reset();
         initOutputStream(prevOutputStream);
@@ -99,7 +115,7 @@ class PdfObjectStream extends PdfStream {
      * @param object object to add.
      */
     public void addObject(PdfObject object) {
-        if (size.intValue() == MAX_OBJ_STREAM_SIZE) {
+        if (isFull()) {
             throw new PdfException(PdfException.PdfObjectStreamReachMaxSize);
         }
         PdfOutputStream outputStream = getOutputStream();
@@ -124,6 +140,28 @@ class PdfObjectStream extends PdfStream {
         return size.intValue();
     }
 
+    /**
+     * Gets the length of the not yet compressed content of the object stream, including its index part.
+     *
+     * @return object stream content length.
+     */
+    long getContentLength() {
+        return getOutputStream().getCurrentPos() + indexStream.getCurrentPos();
+    }
+
+    /**
+     * Checks if the object stream is full according to its packing policy, so no more objects can be added to it.
+     *
+     * @return true if the object stream is full.
+     */
+    boolean isFull() {
+        if (packingPolicy == null) {
+            return size.intValue() >= MAX_OBJ_STREAM_SIZE;
+        }
+        // an empty object stream takes at least one object, even if it is bigger than the content length limit
+        return size.intValue() > 0 && packingPolicy.isFull(size.intValue(), getContentLength());
+    }
+
     public PdfOutputStream getIndexStream() {
         return indexStream;
     }
@@ -158,7 +158,8 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
 
     private void write(PdfDictionary pdfDictionary) {
         writeBytes(openDict);
-        for (PdfName key : pdfDictionary.keySet()) {
+        // keys are written in the same order regardless of the order they were put into dictionary
+        for (PdfName key : pdfDictionary.getSortedKeys()) {
             boolean isAlreadyWriteSpace = false;
             write(key);
             PdfObject value = pdfDictionary.get(key, false);
@@ -255,10 +256,7 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
         try {
             boolean userDefinedCompression = pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION;
             if (!userDefinedCompression) {
-                int defaultCompressionLevel = document != null ?
-                        document.getWriter().getCompressionLevel() :
-                        CompressionConstants.DEFAULT_COMPRESSION;
-                pdfStream.setCompressionLevel(defaultCompressionLevel);
+                pdfStream.setCompressionLevel(getDefaultCompressionLevel());
             }
             boolean toCompress = pdfStream.getCompressionLevel() != CompressionConstants.NO_COMPRESSION;
             boolean allowCompression = !pdfStream.containsKey(PdfName.Filter) && isNotMetadataPdfStream(pdfStream);
@@ -308,27 +306,25 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
                     pdfStream.getOutputStream().write(bytes);
                 }
                 assert pdfStream.getOutputStream() != null : "PdfStream lost OutputStream";
+                boolean compress = toCompress && !containsFlateFilter(pdfStream) && (allowCompression || userDefinedCompression);
+                if (compress) {
+                    updateCompressionFilter(pdfStream);
+                }
+                if (isStreamingMode(pdfStream)) {
+                    writeStreamContentDirectly(pdfStream, compress, checkEncryption(pdfStream));
+                    return;
+                }
                 ByteArrayOutputStream byteArrayStream;
                 try {
-                    if (toCompress && !containsFlateFilter(pdfStream) && (allowCompression || userDefinedCompression)) { // compress
-                        updateCompressionFilter(pdfStream);
+                    if (compress) {
                         byteArrayStream = new ByteArrayOutputStream();
                         DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, pdfStream.getCompressionLevel());
-                        if (pdfStream instanceof PdfObjectStream) {
-                            PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
-                            ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(zip);
-                            ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(zip);
-                        } else {
-                            assert pdfStream.getOutputStream() != null : "Error in outputStream";
-                            ((ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream()).writeTo(zip);
-                        }
+                        writeStreamContentTo(pdfStream, zip);
                         zip.finish();
                     } else {
                         if (pdfStream instanceof PdfObjectStream) {
-                            PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
                             byteArrayStream = new ByteArrayOutputStream();
-                            ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(byteArrayStream);
-                            ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(byteArrayStream);
+                            writeStreamContentTo(pdfStream, byteArrayStream);
                         } else {
                             assert pdfStream.getOutputStream() != null : "Error in outputStream";
                             byteArrayStream = (ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream();
@@ -357,6 +353,93 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
         }
     }
 
+    /**
+     * Writes the stream dictionary with an indirect /Length and then deflates and encrypts the stream content
+     * straight into this output stream, without buffering the whole encoded content in memory.
+     * The /Length object gets its value once the content is written and is flushed later as a separate object.
+     *
+     * @param pdfStream the stream to write.
+     * @param compress  indicates whether the content shall be deflated.
+     * @param encrypt   indicates whether the content shall be encrypted.
+     * @throws IOException if an I/O error occurs.
+     */
+    private void writeStreamContentDirectly(PdfStream pdfStream, boolean compress, boolean encrypt) throws IOException {
+        PdfNumber length = new PdfNumber(-1);
+        length.makeIndirect(document);
+        pdfStream.put(PdfName.Length, length);
+        this.write((PdfDictionary) pdfStream);
+        writeBytes(PdfOutputStream.stream);
+        long beginStreamContent = getCurrentPos();
+        java.io.OutputStream fout = this;
+        OutputStreamEncryption ose = null;
+        DeflaterOutputStream def = null;
+        if (encrypt) {
+            fout = ose = crypto.getEncryptionStream(fout);
+        }
+        if (compress) {
+            fout = def = new DeflaterOutputStream(fout, pdfStream.getCompressionLevel(), 0x8000);
+        }
+        writeStreamContentTo(pdfStream, fout);
+        if (def != null) {
+            def.finish();
+        }
+        if (ose != null) {
+            ose.finish();
+        }
+        length.setValue((int) (getCurrentPos() - beginStreamContent));
+        pdfStream.updateLength(length.intValue());
+        writeBytes(PdfOutputStream.endstream);
+    }
+
+    /**
+     * Checks if the content of the stream will be deflated when the stream is written.
+     * Only streams which content is kept in memory are taken into account. The stream itself is not changed.
+     *
+     * @param pdfStream the stream to check.
+     * @return true if the stream content will be deflated on writing, false otherwise.
+     */
+    boolean isContentToBeCompressed(PdfStream pdfStream) {
+        if (pdfStream.getInputStream() != null || pdfStream.getOutputStream() == null) {
+            return false;
+        }
+        boolean userDefinedCompression = pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION;
+        int compressionLevel = userDefinedCompression ? pdfStream.getCompressionLevel() : getDefaultCompressionLevel();
+        boolean allowCompression = !pdfStream.containsKey(PdfName.Filter) && isNotMetadataPdfStream(pdfStream);
+        return compressionLevel != CompressionConstants.NO_COMPRESSION && !containsFlateFilter(pdfStream)
+                && (allowCompression || userDefinedCompression);
+    }
+
+    /**
+     * Writes the not yet encoded content of the stream to the passed output stream.
+     * For object streams the index part is written first.
+     */
+    static void writeStreamContentTo(PdfStream pdfStream, java.io.OutputStream out) throws IOException {
+        if (pdfStream instanceof PdfObjectStream) {
+            PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
+            ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(out);
+            ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(out);
+        } else {
+            assert pdfStream.getOutputStream() != null : "Error in outputStream";
+            ((ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream()).writeTo(out);
+        }
+    }
+
+    /**
+     * Checks if stream bodies shall be written in streaming mode.
+     * Streaming is only possible when the stream is written directly to the document's writer,
+     * because the indirect /Length object has to be flushed to the same document.
+     * The cross-reference stream is never streamed: it is written after all the other objects,
+     * so its /Length object would not be listed in any cross-reference section.
+     */
+    private boolean isStreamingMode(PdfStream pdfStream) {
+        return document != null && document.getWriter() == this && document.getWriter().isStreamingMode()
+                && !PdfName.XRef.equals(pdfStream.getAsName(PdfName.Type));
+    }
+
+    private int getDefaultCompressionLevel() {
+        return document != null ? document.getWriter().getCompressionLevel() : CompressionConstants.DEFAULT_COMPRESSION;
+    }
+
     protected boolean checkEncryption(PdfStream pdfStream) {
         if (crypto == null || crypto.isEmbeddedFilesOnly()) {
             return false;
@@ -459,9 +542,7 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
         }
 
         // decode
-        byte[] res = FlateDecodeFilter.flateDecode(bytes, true);
-        if (res == null)
-            res = FlateDecodeFilter.flateDecode(bytes, false);
+        byte[] res = FlateDecodeFilter.flateDecode(bytes, false);
         bytes = FlateDecodeFilter.decodePredictor(res, decodeParams);
 
 
@@ -494,6 +494,9 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
         resources = null;
 
         super.flush();
+        if (getDocument().getWriter() != null) {
+            getDocument().getWriter().flushObjectStreamOnPageBoundary();
+        }
     }
 
     /**
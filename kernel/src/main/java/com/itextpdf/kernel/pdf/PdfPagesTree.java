@@ -103,7 +103,7 @@ class PdfPagesTree implements Serializable {
      * @param pageNum one-based index of the element to return
      * @return the {@see PdfPage} at the specified position in this list
      */
-    public PdfPage getPage(int pageNum) {
+    public synchronized PdfPage getPage(int pageNum) {
         if (pageNum < 1 || pageNum > getNumberOfPages()) {
             throw new IndexOutOfBoundsException(MessageFormat.format(PdfException.RequestedPageNumberIsOutOfBounds, pageNum));
         }
@@ -126,7 +126,7 @@ class PdfPagesTree implements Serializable {
      * @param pageDictionary page's PdfDictionary
      * @return the {@code PdfPage} object, that wraps {@code pageDictionary}.
      */
-    public PdfPage getPage(PdfDictionary pageDictionary) {
+    public synchronized PdfPage getPage(PdfDictionary pageDictionary) {
         int pageNum = getPageNumber(pageDictionary);
         if (pageNum > 0) {
             return getPage(pageNum);
@@ -148,7 +148,7 @@ class PdfPagesTree implements Serializable {
      * Returns the index of the first occurrence of the specified page
      * in this tree, or 0 if this tree does not contain the page.
      */
-    public int getPageNumber(PdfPage page) {
+    public synchronized int getPageNumber(PdfPage page) {
         return pages.indexOf(page) + 1;
     }
 
@@ -156,7 +156,7 @@ class PdfPagesTree implements Serializable {
      * Returns the index of the first occurrence of the page in this tree
      * specified by it's PdfDictionary, or 0 if this tree does not contain the page.
      */
-    public int getPageNumber(PdfDictionary pageDictionary) {
+    public synchronized int getPageNumber(PdfDictionary pageDictionary) {
         int pageNum = pageRefs.indexOf(pageDictionary);
         if (pageNum >= 0) {
             return pageNum + 1;
@@ -303,7 +303,7 @@ class PdfPagesTree implements Serializable {
         return root;
     }
 
-    protected PdfPages findPageParent(PdfPage pdfPage) {
+    protected synchronized PdfPages findPageParent(PdfPage pdfPage) {
         int pageNum = getPageNumber(pdfPage) - 1;
         int parentIndex = findPageParent(pageNum);
         return parents.get(parentIndex);
@@ -48,18 +48,23 @@ import com.itextpdf.io.source.ByteBuffer;
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.source.IRandomAccessSource;
 import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RASInputStream;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.io.source.ThreadSafeRandomAccessSource;
 import com.itextpdf.io.source.WindowRandomAccessSource;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.pdf.filters.FilterHandlers;
 import com.itextpdf.kernel.pdf.filters.IFilterHandler;
+import com.itextpdf.kernel.pdf.filters.IStreamingFilterHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -100,6 +105,8 @@ public class PdfReader implements Closeable, Serializable {
 
     protected ReaderProperties properties;
 
+    private transient Map<Integer, ObjectStreamContent> objectStreamCache;
+
     protected boolean encrypted = false;
     protected boolean rebuiltXref = false;
     protected boolean hybridXref = false;
@@ -114,7 +121,7 @@ public class PdfReader implements Closeable, Serializable {
      */
     public PdfReader(IRandomAccessSource byteSource, ReaderProperties properties) throws IOException {
         this.properties = properties;
-        this.tokens = getOffsetTokeniser(byteSource);
+        this.tokens = getOffsetTokeniser(byteSource, properties.concurrentReading);
     }
 
     /**
@@ -264,6 +271,16 @@ public class PdfReader implements Closeable, Serializable {
         return lastXref;
     }
 
+    /**
+     * Indicates whether the document read by this reader could be accessed from several threads at once.
+     *
+     * @return true, if concurrent reading is enabled in {@link ReaderProperties}.
+     * @see ReaderProperties#setConcurrentReading(boolean)
+     */
+    public boolean isConcurrentReading() {
+        return properties.concurrentReading;
+    }
+
     /**
      * Reads, decrypt and optionally decode stream bytes.
      * Note, this method doesn't store actual bytes in any internal structures.
@@ -289,39 +306,21 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public byte[] readStreamBytesRaw(PdfStream stream) throws IOException {
-        PdfName type = stream.getAsName(PdfName.Type);
-        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type))
-            checkPdfStreamLength(stream);
+        checkStreamLength(stream);
         long offset = stream.getOffset();
         if (offset <= 0)
             return null;
         int length = stream.getLength();
         if (length <= 0)
             return new byte[0];
-        RandomAccessFileOrArray file = tokens.getSafeFile();
+        RandomAccessFileOrArray file = getSafeFile();
         byte[] bytes = null;
         try {
             file.seek(stream.getOffset());
             bytes = new byte[length];
             file.readFully(bytes);
-            if (decrypt != null && !decrypt.isEmbeddedFilesOnly()) {
-                PdfObject filter = stream.get(PdfName.Filter, true);
-                boolean skip = false;
-                if (filter != null) {
-                    if (PdfName.Crypt.equals(filter)) {
-                        skip = true;
-                    } else if (filter.getType() == PdfObject.ARRAY) {
-                        PdfArray filters = (PdfArray) filter;
-                        for (int k = 0; k < filters.size(); k++) {
-                            if (!filters.isEmpty() && PdfName.Crypt.equals(filters.get(k, true))) {
-                                skip = true;
-                                break;
-                            }
-                        }
-                    }
-                    filter.release();
-                }
-                if (!skip) {
+            if (isStreamToBeDecrypted(stream)) {
+                synchronized (decrypt) {
                     decrypt.setHashKeyForNextObject(stream.getIndirectReference().getObjNumber(), stream.getIndirectReference().getGenNumber());
                     bytes = decrypt.decryptByteArray(bytes);
                 }
@@ -336,7 +335,10 @@ public class PdfReader implements Closeable, Serializable {
     }
 
     /**
-     * Reads, decrypt and optionally decode stream bytes into {@link ByteArrayInputStream}.
+     * Creates a stream, which reads, decrypts and optionally decodes the stream bytes on the fly.
+     * The stream bytes are read straight from the document source, so only the buffers of the decoding chain
+     * are kept in memory. Filters, which handlers don't implement {@link IStreamingFilterHandler},
+     * are applied to the whole data at once.
      * User is responsible for closing returned stream.
      *
      * @param decode true if to get decoded stream, false if to leave it originally encoded.
@@ -344,8 +346,21 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public InputStream readStream(PdfStream stream, boolean decode) throws IOException {
-        byte[] bytes = readStreamBytes(stream, decode);
-        return bytes != null ? new ByteArrayInputStream(bytes) : null;
+        checkStreamLength(stream);
+        long offset = stream.getOffset();
+        if (offset <= 0)
+            return null;
+        int length = stream.getLength();
+        if (length <= 0)
+            return new ByteArrayInputStream(new byte[0]);
+        InputStream in = new RASInputStream(new WindowRandomAccessSource(getSafeFile().createSourceView(), offset, length));
+        if (isStreamToBeDecrypted(stream)) {
+            synchronized (decrypt) {
+                decrypt.setHashKeyForNextObject(stream.getIndirectReference().getObjNumber(), stream.getIndirectReference().getGenNumber());
+                in = decrypt.getDecryptionStream(in);
+            }
+        }
+        return decode ? decodeStream(in, stream, FilterHandlers.getDefaultFilterHandlers()) : in;
     }
 
     /**
@@ -373,6 +388,49 @@ public class PdfReader implements Closeable, Serializable {
         if (b == null) {
             return null;
         }
+        PdfArray filters = getFilters(streamDictionary);
+        PdfArray dp = getDecodeParamsArray(streamDictionary);
+        for (int j = 0; j < filters.size(); ++j) {
+            PdfName filterName = (PdfName) filters.get(j);
+            b = getFilterHandler(filterHandlers, filterName).decode(b, filterName, getDecodeParams(dp, j), streamDictionary);
+        }
+        return b;
+    }
+
+    /**
+     * Wraps the stream of the encoded data into the chain of the decoding streams according to the filters
+     * specified in the provided dictionary. Filters, which handlers don't implement {@link IStreamingFilterHandler},
+     * read all the data decoded by the previous filters and decode it at once.
+     *
+     * @param in               the stream of the data to decode
+     * @param streamDictionary the dictionary that contains filter information
+     * @param filterHandlers   the map used to look up a handler for each type of filter
+     * @return the stream of the decoded data
+     * @throws PdfException if there are any problems decoding the data
+     */
+    public static InputStream decodeStream(InputStream in, PdfDictionary streamDictionary, Map<PdfName, IFilterHandler> filterHandlers) {
+        PdfArray filters = getFilters(streamDictionary);
+        PdfArray dp = getDecodeParamsArray(streamDictionary);
+        for (int j = 0; j < filters.size(); ++j) {
+            PdfName filterName = (PdfName) filters.get(j);
+            IFilterHandler filterHandler = getFilterHandler(filterHandlers, filterName);
+            PdfDictionary decodeParams = getDecodeParams(dp, j);
+            if (filterHandler instanceof IStreamingFilterHandler) {
+                in = ((IStreamingFilterHandler) filterHandler).createDecodingStream(in, filterName, decodeParams, streamDictionary);
+            } else {
+                try {
+                    byte[] b = StreamUtil.inputStreamToArray(in);
+                    in.close();
+                    in = new ByteArrayInputStream(filterHandler.decode(b, filterName, decodeParams, streamDictionary));
+                } catch (IOException e) {
+                    throw new PdfException(PdfException.IoException, e);
+                }
+            }
+        }
+        return in;
+    }
+
+    private static PdfArray getFilters(PdfDictionary streamDictionary) {
         PdfObject filter = streamDictionary.get(PdfName.Filter);
         PdfArray filters = new PdfArray();
         if (filter != null) {
@@ -382,6 +440,10 @@ public class PdfReader implements Closeable, Serializable {
                 filters = ((PdfArray) filter);
             }
         }
+        return filters;
+    }
+
+    private static PdfArray getDecodeParamsArray(PdfDictionary streamDictionary) {
         PdfArray dp = new PdfArray();
         PdfObject dpo = streamDictionary.get(PdfName.DecodeParms);
         if (dpo == null || (dpo.getType() != PdfObject.DICTIONARY && dpo.getType() != PdfObject.ARRAY)) {
@@ -396,28 +458,31 @@ public class PdfReader implements Closeable, Serializable {
             }
             dpo.release();
         }
-        for (int j = 0; j < filters.size(); ++j) {
-            PdfName filterName = (PdfName) filters.get(j);
-            IFilterHandler filterHandler = filterHandlers.get(filterName);
-            if (filterHandler == null)
-                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
-
-            PdfDictionary decodeParams;
-            if (j < dp.size()) {
-                PdfObject dpEntry = dp.get(j, true);
-                if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
-                    decodeParams = null;
-                } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
-                    decodeParams = (PdfDictionary) dpEntry;
-                } else {
-                    throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
-                }
-            } else {
+        return dp;
+    }
+
+    private static IFilterHandler getFilterHandler(Map<PdfName, IFilterHandler> filterHandlers, PdfName filterName) {
+        IFilterHandler filterHandler = filterHandlers.get(filterName);
+        if (filterHandler == null)
+            throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
+        return filterHandler;
+    }
+
+    private static PdfDictionary getDecodeParams(PdfArray dp, int j) {
+        PdfDictionary decodeParams;
+        if (j < dp.size()) {
+            PdfObject dpEntry = dp.get(j, true);
+            if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
                 decodeParams = null;
+            } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
+                decodeParams = (PdfDictionary) dpEntry;
+            } else {
+                throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
             }
-            b = filterHandler.decode(b, filterName, decodeParams, streamDictionary);
+        } else {
+            decodeParams = null;
         }
-        return b;
+        return decodeParams;
     }
 
     /**
@@ -427,6 +492,12 @@ public class PdfReader implements Closeable, Serializable {
      * @return a new file instance of the original PDF document
      */
     public RandomAccessFileOrArray getSafeFile() {
+        if (isConcurrentReading()) {
+            // objects from object streams are parsed with a temporary tokenizer which replaces the shared one under the lock
+            synchronized (this) {
+                return tokens.getSafeFile();
+            }
+        }
         return tokens.getSafeFile();
     }
 
@@ -437,7 +508,7 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public long getFileLength() throws IOException {
-        return tokens.getSafeFile().length();
+        return getSafeFile().length();
     }
 
     /**
@@ -537,61 +608,26 @@ public class PdfReader implements Closeable, Serializable {
 
             rebuildXref();
         }
+        if (isConcurrentReading()) {
+            // references shall not be created lazily, when several threads are reading the document
+            pdfDocument.getXref().createReadReferences();
+        }
         readDecryptObj();
     }
 
     protected void readObjectStream(PdfStream objectStream) throws IOException {
         int objectStreamNumber = objectStream.getIndirectReference().getObjNumber();
-        int first = objectStream.getAsNumber(PdfName.First).intValue();
-        int n = objectStream.getAsNumber(PdfName.N).intValue();
-        byte[] bytes = readStreamBytes(objectStream, true);
-        PdfTokenizer saveTokens = tokens;
-        try {
-            tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes)));
-            int[] address = new int[n];
-            int[] objNumber = new int[n];
-            boolean ok = true;
-            for (int k = 0; k < n; ++k) {
-                ok = tokens.nextToken();
-                if (!ok)
-                    break;
-                if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-                    ok = false;
-                    break;
-                }
-                objNumber[k] = tokens.getIntValue();
-                ok = tokens.nextToken();
-                if (!ok)
-                    break;
-                if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-                    ok = false;
-                    break;
-                }
-                address[k] = tokens.getIntValue() + first;
+        ObjectStreamContent content = readObjectStreamContent(objectStream);
+        for (int k = 0; k < content.objNumbers.length; ++k) {
+            PdfObject obj = readObjectStreamEntry(content, k);
+            PdfIndirectReference reference = pdfDocument.getXref().get(content.objNumbers[k]);
+            // Check if this object has no incremental updates (e.g. no append mode)
+            if (reference.getObjStreamNumber() == objectStreamNumber) {
+                reference.setRefersTo(obj);
+                obj.setIndirectReference(reference);
             }
-            if (!ok)
-                throw new PdfException(PdfException.ErrorWhileReadingObjectStream);
-            for (int k = 0; k < n; ++k) {
-                tokens.seek(address[k]);
-                tokens.nextToken();
-                PdfObject obj;
-                if (tokens.getTokenType() == PdfTokenizer.TokenType.Number) {
-                    obj = new PdfNumber(tokens.getByteContent());
-                } else {
-                    tokens.seek(address[k]);
-                    obj = readObject(false, true);
-                }
-                PdfIndirectReference reference = pdfDocument.getXref().get(objNumber[k]);
-                // Check if this object has no incremental updates (e.g. no append mode)
-                if (reference.getObjStreamNumber() == objectStreamNumber) {
-                    reference.setRefersTo(obj);
-                    obj.setIndirectReference(reference);
-                }
-            }
-            objectStream.getIndirectReference().setState(PdfObject.ORIGINAL_OBJECT_STREAM);
-        } finally {
-            tokens = saveTokens;
         }
+        objectStream.getIndirectReference().setState(PdfObject.ORIGINAL_OBJECT_STREAM);
     }
 
     protected PdfObject readObject(PdfIndirectReference reference) {
@@ -694,11 +730,9 @@ public class PdfReader implements Closeable, Serializable {
 
     protected PdfName readPdfName(boolean readAsDirect) {
         if (readAsDirect) {
-            PdfName cachedName = PdfName.staticNames.get(tokens.getStringValue());
-            if (cachedName != null)
-                return cachedName;
+            return PdfName.intern(tokens.getByteContent());
         }
-        // an indirect name (how odd...), or a non-standard one
+        // an indirect name (how odd...)
         return new PdfName(tokens.getByteContent());
     }
 
@@ -825,28 +859,15 @@ public class PdfReader implements Closeable, Serializable {
                     end--;
                     continue;
                 }
-                PdfIndirectReference reference = xref.get(num);
-                if (reference == null) {
-                    reference = new PdfIndirectReference(pdfDocument, num, gen, pos);
-                } else if (reference.checkState(PdfObject.READING) && reference.getGenNumber() == gen) {
-                    reference.setOffset(pos);
-                    reference.clearState(PdfObject.READING);
-                } else {
-                    continue;
-                }
                 if (tokens.tokenValueEqualsTo(PdfTokenizer.N)) {
-                    if (xref.get(num) == null) {
-                        if (pos == 0)
-                            tokens.throwError(PdfException.FilePosition1CrossReferenceEntryInThisXrefSubsection);
-                        xref.add(reference);
-                    }
+                    if (xref.addReadEntry(pdfDocument, num, gen, pos, 0, false) && pos == 0)
+                        tokens.throwError(PdfException.FilePosition1CrossReferenceEntryInThisXrefSubsection);
                 } else if (tokens.tokenValueEqualsTo(PdfTokenizer.F)) {
-                    if (xref.get(num) == null) {
-                        reference.setFree();
-                        xref.add(reference);
-                    }
-                } else
+                    xref.addReadEntry(pdfDocument, num, gen, pos, 0, true);
+                } else if (!xref.isReadEntryOverridden(num, gen)) {
+                    // the entry overridden by a newer revision is ignored, whatever its keyword is
                     tokens.throwError(PdfException.InvalidCrossReferenceEntryInThisXrefSubsection);
+                }
             }
         }
         PdfDictionary trailer = (PdfDictionary) readObject(false);
@@ -942,38 +963,21 @@ public class PdfReader implements Closeable, Serializable {
                     field3 = (field3 << 8) + (b[bptr++] & 0xff);
                 }
                 int base = start;
-                PdfIndirectReference newReference;
                 switch (type) {
                     case 0:
-                        if (base == 0) {
-                            //indirect reference with number = 0 can't be overridden
-                            //xref table already has indirect reference 0 65535 R
-                            newReference = xref.get(base);
-                        } else {
-                            newReference = new PdfIndirectReference(pdfDocument, base, field3, 0);
-                            newReference.setFree();
-                        }
+                        //indirect reference with number = 0 can't be overridden
+                        //xref table already has indirect reference 0 65535 R
+                        xref.addReadEntry(pdfDocument, base, field3, 0, 0, true);
                         break;
                     case 1:
-                        newReference = new PdfIndirectReference(pdfDocument, base, field3, field2);
+                        xref.addReadEntry(pdfDocument, base, field3, field2, 0, false);
                         break;
                     case 2:
-                        newReference = new PdfIndirectReference(pdfDocument, base, 0, field3);
-                        newReference.setObjStreamNumber((int) field2);
+                        xref.addReadEntry(pdfDocument, base, 0, field3, (int) field2, false);
                         break;
                     default:
                         throw new PdfException(PdfException.InvalidXrefStream);
                 }
-                if (xref.get(base) == null) {
-                    xref.add(newReference);
-                } else if (xref.get(base).checkState(PdfObject.READING)
-                        && xref.get(base).getObjNumber() == newReference.getObjNumber()
-                        && xref.get(base).getGenNumber() == newReference.getGenNumber()) {
-                    PdfIndirectReference reference = xref.get(base);
-                    reference.setOffset(newReference.getOffset());
-                    reference.setObjStreamNumber(newReference.getObjStreamNumber());
-                    reference.clearState(PdfObject.READING);
-                }
                 ++start;
             }
         }
@@ -1078,11 +1082,15 @@ public class PdfReader implements Closeable, Serializable {
      * @return a tokeniser that is guaranteed to start at the PDF header
      * @throws IOException if there is a problem reading the byte source
      */
-    private static PdfTokenizer getOffsetTokeniser(IRandomAccessSource byteSource) throws IOException {
+    private static PdfTokenizer getOffsetTokeniser(IRandomAccessSource byteSource, boolean threadSafe) throws IOException {
         PdfTokenizer tok = new PdfTokenizer(new RandomAccessFileOrArray(byteSource));
         int offset = tok.getHeaderOffset();
-        if (offset != 0) {
-            IRandomAccessSource offsetSource = new WindowRandomAccessSource(byteSource, offset);
+        if (offset != 0 || threadSafe) {
+            IRandomAccessSource offsetSource = offset != 0 ? new WindowRandomAccessSource(byteSource, offset) : byteSource;
+            if (threadSafe) {
+                // views of the source are created from different threads, so it shall be wrapped beforehand
+                offsetSource = new ThreadSafeRandomAccessSource(offsetSource);
+            }
             tok = new PdfTokenizer(new RandomAccessFileOrArray(offsetSource));
         }
         return tok;
@@ -1098,6 +1106,9 @@ public class PdfReader implements Closeable, Serializable {
             if (reference.getObjStreamNumber() > 0) {
                 PdfStream objectStream = (PdfStream) pdfDocument.getXref().
                         get(reference.getObjStreamNumber()).getRefersTo(false);
+                if (properties.objectStreamCacheSize > 0) {
+                    return readObjectFromObjectStream(objectStream, reference);
+                }
                 readObjectStream(objectStream);
                 return reference.refersTo;
             } else if (reference.getOffset() > 0) {
@@ -1128,6 +1139,133 @@ public class PdfReader implements Closeable, Serializable {
         }
     }
 
+    /**
+     * Reads only the requested object from the object stream. Decoded bytes of the object stream together
+     * with offsets of its objects are kept in a bounded cache, so that subsequent requests of the objects
+     * from the same stream neither decode it again, nor parse the objects that were not requested.
+     */
+    private PdfObject readObjectFromObjectStream(PdfStream objectStream, PdfIndirectReference reference) throws IOException {
+        int objectStreamNumber = objectStream.getIndirectReference().getObjNumber();
+        if (objectStreamCache == null) {
+            final int cacheSize = properties.objectStreamCacheSize;
+            objectStreamCache = new LinkedHashMap<Integer, ObjectStreamContent>(cacheSize, 0.75f, true) {
+                private static final long serialVersionUID = 4395270542738713632L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, ObjectStreamContent> eldest) {
+                    return size() > cacheSize;
+                }
+            };
+        }
+        ObjectStreamContent content = objectStreamCache.get(objectStreamNumber);
+        if (content == null) {
+            content = readObjectStreamContent(objectStream);
+            objectStreamCache.put(objectStreamNumber, content);
+            objectStream.getIndirectReference().setState(PdfObject.ORIGINAL_OBJECT_STREAM);
+        }
+        int index = reference.getIndex();
+        if (index < 0 || index >= content.objNumbers.length || content.objNumbers[index] != reference.getObjNumber()) {
+            // index from the cross-reference section doesn't match the object stream, look for the object number
+            index = -1;
+            for (int k = 0; k < content.objNumbers.length; ++k) {
+                if (content.objNumbers[k] == reference.getObjNumber()) {
+                    index = k;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return null;
+            }
+        }
+        PdfObject obj = readObjectStreamEntry(content, index);
+        return obj.setIndirectReference(reference);
+    }
+
+    private ObjectStreamContent readObjectStreamContent(PdfStream objectStream) throws IOException {
+        int first = objectStream.getAsNumber(PdfName.First).intValue();
+        int n = objectStream.getAsNumber(PdfName.N).intValue();
+        byte[] bytes = readStreamBytes(objectStream, true);
+        PdfTokenizer objectStreamTokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes)));
+        int[] address = new int[n];
+        int[] objNumber = new int[n];
+        boolean ok = true;
+        for (int k = 0; k < n; ++k) {
+            ok = objectStreamTokens.nextToken();
+            if (!ok)
+                break;
+            if (objectStreamTokens.getTokenType() != PdfTokenizer.TokenType.Number) {
+                ok = false;
+                break;
+            }
+            objNumber[k] = objectStreamTokens.getIntValue();
+            ok = objectStreamTokens.nextToken();
+            if (!ok)
+                break;
+            if (objectStreamTokens.getTokenType() != PdfTokenizer.TokenType.Number) {
+                ok = false;
+                break;
+            }
+            address[k] = objectStreamTokens.getIntValue() + first;
+        }
+        if (!ok)
+            throw new PdfException(PdfException.ErrorWhileReadingObjectStream);
+        return new ObjectStreamContent(objectStreamTokens, objNumber, address);
+    }
+
+    private PdfObject readObjectStreamEntry(ObjectStreamContent content, int index) throws IOException {
+        PdfTokenizer saveTokens = tokens;
+        try {
+            tokens = content.tokens;
+            tokens.seek(content.addresses[index]);
+            tokens.nextToken();
+            if (tokens.getTokenType() == PdfTokenizer.TokenType.Number) {
+                return new PdfNumber(tokens.getByteContent());
+            } else {
+                tokens.seek(content.addresses[index]);
+                return readObject(false, true);
+            }
+        } finally {
+            tokens = saveTokens;
+        }
+    }
+
+    private void checkStreamLength(PdfStream stream) throws IOException {
+        PdfName type = stream.getAsName(PdfName.Type);
+        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type)) {
+            if (isConcurrentReading()) {
+                // stream length check uses the shared tokenizer and may correct the Length entry
+                synchronized (this) {
+                    checkPdfStreamLength(stream);
+                }
+            } else {
+                checkPdfStreamLength(stream);
+            }
+        }
+    }
+
+    private boolean isStreamToBeDecrypted(PdfStream stream) {
+        if (decrypt == null || decrypt.isEmbeddedFilesOnly()) {
+            return false;
+        }
+        PdfObject filter = stream.get(PdfName.Filter, true);
+        boolean skip = false;
+        if (filter != null) {
+            if (PdfName.Crypt.equals(filter)) {
+                skip = true;
+            } else if (filter.getType() == PdfObject.ARRAY) {
+                PdfArray filters = (PdfArray) filter;
+                for (int k = 0; k < filters.size(); k++) {
+                    if (!filters.isEmpty() && PdfName.Crypt.equals(filters.get(k, true))) {
+                        skip = true;
+                        break;
+                    }
+                }
+            }
+            filter.release();
+        }
+        return !skip;
+    }
+
     private void checkPdfStreamLength(PdfStream pdfStream) throws IOException {
         if (!correctStreamLength)
             return;
@@ -1194,7 +1332,8 @@ public class PdfReader implements Closeable, Serializable {
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
         in.defaultReadObject();
         if (sourcePath != null && tokens == null) {
-            tokens = getOffsetTokeniser(new RandomAccessSourceFactory().setForceRead(false).createBestSource(sourcePath));
+            tokens = getOffsetTokeniser(new RandomAccessSourceFactory().setForceRead(false).createBestSource(sourcePath),
+                    properties.concurrentReading);
         }
     }
 
@@ -1251,4 +1390,20 @@ public class PdfReader implements Closeable, Serializable {
             buffer = null;
         }
     }
+
+    /**
+     * Decoded content of an object stream: the tokenizer over its bytes and
+     * numbers and offsets of the objects it contains.
+     */
+    private static class ObjectStreamContent {
+        final PdfTokenizer tokens;
+        final int[] objNumbers;
+        final int[] addresses;
+
+        ObjectStreamContent(PdfTokenizer tokens, int[] objNumbers, int[] addresses) {
+            this.tokens = tokens;
+            this.objNumbers = objNumbers;
+            this.addresses = addresses;
+        }
+    }
 }
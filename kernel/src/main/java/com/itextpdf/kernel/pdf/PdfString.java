@@ -360,8 +360,11 @@ public class PdfString extends PdfPrimitiveObject {
     protected byte[] decodeContent() {
         byte[] decodedBytes = PdfTokenizer.decodeStringContent(content, hexWriting);
         if (decryption != null && !checkState(PdfObject.UNENCRYPTED)) {
-            decryption.setHashKeyForNextObject(decryptInfoNum, decryptInfoGen);
-            decodedBytes = decryption.decryptByteArray(decodedBytes);
+            // the same decryption instance could be shared by strings decoded from different threads
+            synchronized (decryption) {
+                decryption.setHashKeyForNextObject(decryptInfoNum, decryptInfoGen);
+                decodedBytes = decryption.decryptByteArray(decodedBytes);
+            }
         }
         return decodedBytes;
     }
@@ -51,10 +51,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.security.MessageDigest;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
 import static com.itextpdf.io.source.ByteUtils.getIsoBytes;
 
@@ -76,18 +72,34 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     PdfObjectStream objectStream = null;
 
+    /**
+     * The policy of packing objects into object streams, either the one from the writer properties or the default one.
+     */
+    private ObjectStreamPackingPolicy objectStreamPackingPolicy;
+
+    /**
+     * Deflates flushed streams on worker threads if parallel compression is enabled.
+     */
+    private transient ParallelStreamCompressor streamCompressor;
+
     /**
      * Is used to avoid duplications on object copying.
-     * It stores hashes of the indirect reference from the source document and the corresponding
+     * It stores the indirect references of the objects from the source documents and the corresponding
      * indirect references of the copied objects from the new document.
      */
-    private Map<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedObjects = new HashMap<>();
+    private PdfCopyContext copyContext = new PdfCopyContext();
+
+    /**
+     * Is used in smart mode to find previously copied objects with the same content.
+     */
+    private SmartModeObjectIndex smartModeObjectIndex;
 
     /**
-     * Is used in smart mode to store serialized objects content.
+     * In linearization mode the document is written to this temporary file first and is reordered
+     * into {@link #linearizedOutputStream} once the document is closed.
      */
-    private HashMap<SerializedPdfObject, PdfIndirectReference> serializedContentToObjectRef = new HashMap<>();
-    private HashMap<PdfDocument.IndirectRefDescription, byte[]> objectRefToSerializedContent = new HashMap<>();
+    private transient File linearizationTempFile;
+    private transient OutputStream linearizedOutputStream;
 
     //forewarned is forearmed
     protected boolean isUserWarnedAboutAcroFormCopying;
@@ -124,6 +136,11 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         if (properties.debugMode) {
             setDebugMode();
         }
+        if (properties.compressionParallelism > 0) {
+            streamCompressor = new ParallelStreamCompressor(properties.compressionParallelism);
+        }
+        objectStreamPackingPolicy = properties.objectStreamPackingPolicy != null
+                ? properties.objectStreamPackingPolicy : new ObjectStreamPackingPolicy();
     }
 
     /**
@@ -193,6 +210,43 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         return this;
     }
 
+    /**
+     * Gets the context, which keeps the objects copied to the document.
+     *
+     * @return the copy context of this writer.
+     */
+    public PdfCopyContext getCopyContext() {
+        return copyContext;
+    }
+
+    /**
+     * Sets the context, which keeps the objects copied to the document.
+     * <p/>
+     * The same context may be set to the writers of the documents, which are assembled one after another
+     * from the same source documents, in order to reuse the memory of the context. Objects are still copied
+     * once for every destination document. See {@link PdfCopyContext}.
+     *
+     * @param copyContext the copy context.
+     * @return this {@code PdfWriter} instance
+     */
+    public PdfWriter setCopyContext(PdfCopyContext copyContext) {
+        if (copyContext == null) {
+            throw new IllegalArgumentException("copyContext");
+        }
+        this.copyContext = copyContext;
+        return this;
+    }
+
+    /**
+     * Indicates if to write {@link PdfStream} bodies in streaming mode.
+     * See {@link WriterProperties#useStreamingMode()}.
+     *
+     * @return true if streaming mode is enabled, false otherwise.
+     */
+    public boolean isStreamingMode() {
+        return properties.streamingMode;
+    }
+
     /**
      * Write an integer to the underlying stream
      *
@@ -245,20 +299,71 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     @Override
     public void close() throws IOException {
+        if (document != null) {
+            copyContext.removeDestinationDocument(document);
+        }
         try {
+            if (streamCompressor != null) {
+                streamCompressor.shutdown();
+                streamCompressor = null;
+            }
             super.close();
         } finally {
             try {
-                if (duplicateStream != null) {
-                    duplicateStream.close();
+                if (linearizationTempFile != null) {
+                    // the document wasn't closed properly, so it couldn't be linearized
+                    linearizationTempFile.delete();
+                    linearizationTempFile = null;
+                    linearizedOutputStream.close();
+                }
+            } finally {
+                try {
+                    if (duplicateStream != null) {
+                        duplicateStream.close();
+                    }
+                } catch (Exception ex) {
+                    Logger logger = LoggerFactory.getLogger(PdfWriter.class);
+                    logger.error("Closing of the duplicatedStream failed.", ex);
                 }
-            } catch (Exception ex) {
-                Logger logger = LoggerFactory.getLogger(PdfWriter.class);
-                logger.error("Closing of the duplicatedStream failed.", ex);
             }
         }
     }
 
+    /**
+     * Redirects the document into a temporary file, which is linearized into the output once the document is closed.
+     *
+     * @throws IOException if the temporary file cannot be created.
+     */
+    void startLinearization() throws IOException {
+        linearizationTempFile = File.createTempFile("pdf", null);
+        linearizedOutputStream = outputStream;
+        outputStream = FileUtil.wrapWithBufferedOutputStream(FileUtil.getFileOutputStream(linearizationTempFile));
+    }
+
+    /**
+     * Rewrites the complete document from the temporary file into the output in linearized form,
+     * if linearization is enabled.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    void writeLinearized() throws IOException {
+        if (linearizationTempFile == null) {
+            return;
+        }
+        outputStream.close();
+        outputStream = linearizedOutputStream;
+        PdfReader reader = new PdfReader(linearizationTempFile);
+        try {
+            // the position is reported as the length of the written document, e.g. to the counter
+            currentPos = new PdfLinearizer(reader).write(outputStream);
+        } finally {
+            reader.close();
+            linearizationTempFile.delete();
+            linearizationTempFile = null;
+        }
+        outputStream.flush();
+    }
+
     /**
      * Gets the current object stream.
      *
@@ -269,14 +374,26 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         if (!isFullCompression())
             return null;
         if (objectStream == null) {
-            objectStream = new PdfObjectStream(document);
-        } else if (objectStream.getSize() == PdfObjectStream.MAX_OBJ_STREAM_SIZE) {
+            objectStream = new PdfObjectStream(document, objectStreamPackingPolicy);
+        } else if (objectStream.isFull()) {
             objectStream.flush();
-            objectStream = new PdfObjectStream(objectStream);
+            // The content of the flushed object stream may be still compressed on a worker thread, so its buffers can't be reused.
+            objectStream = streamCompressor != null ? new PdfObjectStream(document, objectStreamPackingPolicy) : new PdfObjectStream(objectStream);
         }
         return objectStream;
     }
 
+    /**
+     * Flushes the current object stream, if object streams are grouped by pages.
+     * Called after the page is flushed, so that objects of the next page are not mixed with the objects of this one.
+     */
+    void flushObjectStreamOnPageBoundary() {
+        if (objectStream != null && objectStream.getSize() > 0 && objectStreamPackingPolicy.isGroupByPage()) {
+            objectStream.flush();
+            objectStream = null;
+        }
+    }
+
     /**
      * Flushes the object. Override this method if you want to define custom behaviour for object flushing.
      *
@@ -289,11 +406,18 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         if (isFullCompression() && canBeInObjStm) {
             PdfObjectStream objectStream = getObjectStream();
             objectStream.addObject(pdfObject);
+        } else if (streamCompressor != null && pdfObject.getType() == PdfObject.STREAM
+                && isContentToBeCompressed((PdfStream) pdfObject)) {
+            submitStreamCompression((PdfStream) pdfObject);
+            return;
         } else {
             indirectReference.setOffset(getCurrentPos());
             writeToBody(pdfObject);
         }
         indirectReference.setState(PdfObject.FLUSHED).clearState(PdfObject.MUST_BE_FLUSHED);
+        if (pdfObject.getType() == PdfObject.STREAM) {
+            flushStreamLength((PdfStream) pdfObject);
+        }
         switch (pdfObject.getType()) {
             case PdfObject.BOOLEAN:
             case PdfObject.NAME:
@@ -333,15 +457,12 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
 
         PdfIndirectReference indirectReference = obj.getIndirectReference();
 
-        PdfDocument.IndirectRefDescription copiedObjectKey = null;
         boolean tryToFindDuplicate = !allowDuplicating && indirectReference != null;
 
         if (tryToFindDuplicate) {
-            copiedObjectKey = new PdfDocument.IndirectRefDescription(indirectReference);
-
-            PdfIndirectReference copiedIndirectReference = copiedObjects.get(copiedObjectKey);
+            PdfIndirectReference copiedIndirectReference = copyContext.get(indirectReference, document);
             if (copiedIndirectReference != null)
-                return copiedIndirectReference.getRefersTo();
+                return getCopiedObject(copiedIndirectReference);
         }
 
         if (obj.isDictionary()) {
@@ -351,27 +472,41 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             }
 
         }
+        SmartModeObjectIndex.ContentHash contentHash = null;
         if (properties.smartMode && tryToFindDuplicate && !checkTypeOfPdfDictionary(obj, PdfName.Page)) {
-            PdfIndirectReference copiedObjectRef = tryToFindPreviouslyCopiedEqualObject(obj);
-            if (copiedObjectRef != null) {
-                PdfIndirectReference copiedIndirectReference = copiedObjects.get(new PdfDocument.IndirectRefDescription(copiedObjectRef));
-                copiedObjects.put(copiedObjectKey, copiedIndirectReference);
-                return copiedIndirectReference.getRefersTo();
+            if (smartModeObjectIndex == null) {
+                smartModeObjectIndex = new SmartModeObjectIndex(properties.smartModeIndexMaxBytes);
+            }
+            contentHash = smartModeObjectIndex.getContentHash(obj);
+            PdfIndirectReference copiedIndirectReference = contentHash != null ? smartModeObjectIndex.get(contentHash, obj) : null;
+            if (copiedIndirectReference != null) {
+                copyContext.put(indirectReference, document, copiedIndirectReference);
+                return getCopiedObject(copiedIndirectReference);
             }
         }
 
         PdfObject newObject = obj.newInstance();
         if (indirectReference != null) {
-            if (copiedObjectKey == null)
-                copiedObjectKey = new PdfDocument.IndirectRefDescription(indirectReference);
             PdfIndirectReference indRef = newObject.makeIndirect(document).getIndirectReference();
-            copiedObjects.put(copiedObjectKey, indRef);
+            copyContext.put(indirectReference, document, indRef);
+            if (contentHash != null) {
+                smartModeObjectIndex.put(contentHash, obj, indRef);
+            }
         }
         newObject.copyContent(obj, document);
 
         return newObject;
     }
 
+    /**
+     * Gets the object, which was copied before. If the copy was already flushed, e.g. together with the page
+     * it was copied for, the copy is referred by its indirect reference.
+     */
+    private static PdfObject getCopiedObject(PdfIndirectReference copiedIndirectReference) {
+        PdfObject copiedObject = copiedIndirectReference.getRefersTo();
+        return copiedObject != null ? copiedObject : copiedIndirectReference;
+    }
+
     /**
      * Writes object to body of PDF document.
      *
@@ -444,6 +579,20 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         }
     }
 
+    /**
+     * Writes all the streams which are still being compressed in parallel and stops the worker threads.
+     * Streams flushed afterwards are compressed on the flushing thread.
+     *
+     * @throws IOException on error.
+     */
+    void flushPendingStreams() throws IOException {
+        if (streamCompressor != null) {
+            writeCompressedStreams(true);
+            streamCompressor.shutdown();
+            streamCompressor = null;
+        }
+    }
+
     /**
      * Calculates hash code for the indirect reference taking into account the document it belongs to.
      *
@@ -459,7 +608,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
 
     /**
      * Calculates hash code for object to be copied.
-     * The hash code and the copied object is the stored in @{link copiedObjects} hash map to avoid duplications.
+     * The hash code and the copied object is the stored in {@link PdfCopyContext} to avoid duplications.
      *
      * @param obj object to be copied.
      * @return calculated hash code.
@@ -471,25 +620,54 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
     }
 
     /**
-     * Used in the smart mode.
-     * It serializes given object content and tries to find previously copied object with the same content.
-     * If already copied object is not found, it saves current object serialized content into the map.
+     * Hands the stream over to the worker threads. The stream is considered to be flushed from now on,
+     * but it is actually written and released only after its content is compressed.
+     */
+    private void submitStreamCompression(PdfStream stream) throws IOException {
+        if (stream.getCompressionLevel() == CompressionConstants.UNDEFINED_COMPRESSION) {
+            stream.setCompressionLevel(getCompressionLevel());
+        }
+        updateCompressionFilter(stream);
+        streamCompressor.submit(stream);
+        stream.getIndirectReference().setState(PdfObject.FLUSHED).clearState(PdfObject.MUST_BE_FLUSHED);
+        markDictionaryContentToFlush(stream);
+        writeCompressedStreams(false);
+    }
+
+    /**
+     * Writes the streams which have been compressed in parallel, in the order they were submitted.
      *
-     * @param object an object to check if some other object with the same content was already copied.
-     * @return indirect reference of the object with the same content, which already has a copy in the new document.
-     */
-    private PdfIndirectReference tryToFindPreviouslyCopiedEqualObject(PdfObject object) {
-        SerializedPdfObject objectKey;
-        if (object.isStream() || object.isDictionary()) {
-            objectKey = new SerializedPdfObject(object, objectRefToSerializedContent);
-            PdfIndirectReference objectRef = serializedContentToObjectRef.get(objectKey);
-            if (objectRef != null) {
-                return objectRef;
+     * @param all if false, streams are written only while the limit of pending streams is reached,
+     *            otherwise all the pending streams are written.
+     */
+    private void writeCompressedStreams(boolean all) throws IOException {
+        while (streamCompressor.hasPendingStreams() && (all || streamCompressor.isFull())) {
+            PdfStream stream = streamCompressor.getNextStream();
+            byte[] compressedContent = streamCompressor.takeNextCompressedContent();
+            if (stream instanceof PdfObjectStream) {
+                ((PdfObjectStream) stream).getIndexStream().reset();
             }
-            serializedContentToObjectRef.put(objectKey, object.getIndirectReference());
+            // The stream already has the /FlateDecode filter, so its new content is written as is.
+            stream.getOutputStream().assignBytes(compressedContent, compressedContent.length);
+            stream.getIndirectReference().setOffset(getCurrentPos());
+            writeToBody(stream);
+            flushStreamLength(stream);
+            stream.releaseContent();
         }
+    }
 
-        return null;
+    /**
+     * In streaming mode /Length is an indirect object which value is known only after the stream is written.
+     * Write it right away and never put it into an object stream, because an object stream could not
+     * contain the length of another object stream.
+     */
+    private void flushStreamLength(PdfStream stream) {
+        if (isStreamingMode()) {
+            PdfObject length = stream.get(PdfName.Length, false);
+            if (length != null && length.getIndirectReference() != null) {
+                length.flush(false);
+            }
+        }
     }
 
     private void markArrayContentToFlush(PdfArray array) {
@@ -565,131 +743,4 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         out.defaultWriteObject();
         outputStream = tempOutputStream;
     }
-
-    static class SerializedPdfObject {
-        private final byte[] serializedContent;
-        private final int hash;
-
-        private MessageDigest md5;
-        private HashMap<PdfDocument.IndirectRefDescription, byte[]> objToSerializedContent;
-
-        SerializedPdfObject(PdfObject obj, HashMap<PdfDocument.IndirectRefDescription, byte[]> objToSerializedContent) {
-            assert obj.isDictionary() || obj.isStream();
-
-            this.objToSerializedContent = objToSerializedContent;
-            try {
-                md5 = MessageDigest.getInstance("MD5");
-            } catch (Exception e) {
-                throw new PdfException(e);
-            }
-            ByteBufferOutputStream bb = new ByteBufferOutputStream();
-            int level = 100;
-            serObject(obj, level, bb);
-            this.serializedContent = bb.toByteArray();
-            hash = calculateHash(this.serializedContent);
-            md5 = null;
-        }
-
-        // TODO 2: object is not checked if it was already serialized on start, double work could be done
-        // TODO 3: indirect objects often stored multiple times as parts of the other objects
-        private void serObject(PdfObject obj, int level, ByteBufferOutputStream bb) {
-            if (level <= 0)
-                return;
-            if (obj == null) {
-                bb.append("$Lnull");
-                return;
-            }
-            PdfIndirectReference reference = null;
-            ByteBufferOutputStream savedBb = null;
-            PdfDocument.IndirectRefDescription indRefKey = null;
-
-            if (obj.isIndirectReference()) {
-                reference = (PdfIndirectReference) obj;
-                indRefKey = new PdfDocument.IndirectRefDescription(reference);
-                byte[] cached = objToSerializedContent.get(indRefKey);
-                if (cached != null) {
-                    bb.append(cached);
-                    return;
-                } else {
-                    savedBb = bb;
-                    bb = new ByteBufferOutputStream();
-                    obj = reference.getRefersTo();
-                }
-            }
-
-            if (obj.isStream()) {
-                bb.append("$B");
-                serDic((PdfDictionary) obj, level - 1, bb);
-                if (level > 0) {
-                    md5.reset();
-                    bb.append(md5.digest(((PdfStream) obj).getBytes(false)));
-                }
-            } else if (obj.isDictionary()) {
-                serDic((PdfDictionary) obj, level - 1, bb);
-            } else if (obj.isArray()) {
-                serArray((PdfArray) obj, level - 1, bb);
-            } else if (obj.isString()) {
-                bb.append("$S").append(obj.toString());
-            } else if (obj.isName()) {
-                bb.append("$N").append(obj.toString());
-            } else
-                bb.append("$L").append(obj.toString()); // PdfNull case is also here
-
-            if (savedBb != null) {
-                objToSerializedContent.put(indRefKey, bb.getBuffer());
-                savedBb.append(bb);
-            }
-        }
-
-        private void serDic(PdfDictionary dic, int level, ByteBufferOutputStream bb) {
-            bb.append("$D");
-            if (level <= 0)
-                return;
-            PdfName[] keys = new PdfName[dic.keySet().size()];
-            keys = dic.keySet().toArray(keys);
-            Arrays.sort(keys);
-            for (Object key : keys) {
-                if (key.equals(PdfName.P) && (dic.get((PdfName) key).isIndirectReference() || dic.get((PdfName) key).isDictionary()) || key.equals(PdfName.Parent)) // ignore recursive call
-                    continue;
-                serObject((PdfObject) key, level, bb);
-                serObject(dic.get((PdfName) key, false), level, bb);
-
-            }
-        }
-
-        private void serArray(PdfArray array, int level, ByteBufferOutputStream bb) {
-            bb.append("$A");
-            if (level <= 0)
-                return;
-            for (int k = 0; k < array.size(); ++k) {
-                serObject(array.get(k, false), level, bb);
-            }
-        }
-
-        private static int calculateHash(byte[] b) {
-            int hash = 0;
-            int len = b.length;
-            for (int k = 0; k < len; ++k) {
-                hash = hash * 31 + (b[k] & 0xff);
-            }
-            return hash;
-        }
-
-        /**
-         * Compares this PdfWriter to the obj.
-         * Two PdfWriters are equal if their hashcodes are equal and their serialized content are equal.
-         *
-         * @param obj obj to compare
-         * @return True if this and obj are equal, false otherwise
-         */
-        @Override
-        public boolean equals(Object obj) {
-            return obj instanceof SerializedPdfObject && hashCode() == obj.hashCode() && Arrays.equals(serializedContent, ((SerializedPdfObject) obj).serializedContent);
-        }
-
-        @Override
-        public int hashCode() {
-            return hash;
-        }
-    }
 }
@@ -52,8 +52,9 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.TreeSet;
 
 class PdfXrefTable implements Serializable {
 
@@ -65,10 +66,24 @@ class PdfXrefTable implements Serializable {
     private static final byte[] freeXRefEntry = ByteUtils.getIsoBytes("f \n");
     private static final byte[] inUseXRefEntry = ByteUtils.getIsoBytes("n \n");
 
+    private static final byte NO_ENTRY = 0;
+    private static final byte IN_USE_ENTRY = 1;
+    private static final byte FREE_ENTRY = 2;
+
     private PdfIndirectReference[] xref;
     private int count = 0;
 
-    private final TreeSet<Integer> freeReferences;
+    // Entries read from the cross-reference sections of the document, which don't have indirect references yet.
+    // They are kept in columns and turned into references on the first request, see get(int).
+    private PdfDocument readDocument;
+    private byte[] readEntryTypes;
+    private long[] readOffsets;
+    private int[] readGenerations;
+    private int[] readObjStreamNumbers;
+
+    private final BitSet freeReferences;
+    // All the free references numbers are not less than this one.
+    private int firstFreeReference;
 
     public PdfXrefTable() {
         this(INITIAL_CAPACITY);
@@ -79,7 +94,7 @@ class PdfXrefTable implements Serializable {
             capacity = INITIAL_CAPACITY;
         }
         xref = new PdfIndirectReference[capacity];
-        freeReferences = new TreeSet<>();
+        freeReferences = new BitSet();
         add(new PdfIndirectReference(null, 0, MAX_GENERATION, 0).setState(PdfObject.FREE));
     }
 
@@ -96,6 +111,9 @@ class PdfXrefTable implements Serializable {
         this.count = Math.max(this.count, objNr);
         ensureCount(objNr);
         xref[objNr] = reference;
+        if (readEntryTypes != null) {
+            readEntryTypes[objNr] = NO_ENTRY;
+        }
         return reference;
     }
 
@@ -107,7 +125,85 @@ class PdfXrefTable implements Serializable {
         if (index > count) {
             return null;
         }
-        return xref[index];
+        PdfIndirectReference reference = xref[index];
+        if (reference == null && readEntryTypes != null && readEntryTypes[index] != NO_ENTRY) {
+            reference = createReadReference(index);
+        }
+        return reference;
+    }
+
+    /**
+     * Checks if the entry read from the cross-reference section of the document would be ignored by
+     * {@link #addReadEntry}, because the object has already been defined by a newer revision.
+     */
+    boolean isReadEntryOverridden(int objNr, int genNr) {
+        if (objNr >= xref.length) {
+            return false;
+        }
+        PdfIndirectReference reference = xref[objNr];
+        if (reference != null) {
+            return !reference.checkState(PdfObject.READING) || reference.getGenNumber() != genNr;
+        }
+        return readEntryTypes != null && readEntryTypes[objNr] != NO_ENTRY;
+    }
+
+    /**
+     * Adds the entry read from the cross-reference section or stream of the document. Sections are read
+     * starting from the last revision, so the entry is ignored if the object has already been defined,
+     * unless the reference was created while reading the cross-reference and is still in {@link PdfObject#READING} state.
+     * The indirect reference itself is created only on the first request of the object.
+     *
+     * @return true, if the entry has been added as a new one.
+     */
+    boolean addReadEntry(PdfDocument document, int objNr, int genNr, long offset, int objStreamNumber, boolean free) {
+        ensureCount(objNr);
+        PdfIndirectReference reference = xref[objNr];
+        if (reference != null) {
+            if (reference.checkState(PdfObject.READING) && reference.getGenNumber() == genNr) {
+                reference.setOffset(offset);
+                reference.setObjStreamNumber(objStreamNumber);
+                reference.clearState(PdfObject.READING);
+            }
+            return false;
+        }
+        if (readEntryTypes == null) {
+            readDocument = document;
+            readEntryTypes = new byte[xref.length];
+            readOffsets = new long[xref.length];
+            readGenerations = new int[xref.length];
+            readObjStreamNumbers = new int[xref.length];
+        } else if (readEntryTypes[objNr] != NO_ENTRY) {
+            return false;
+        }
+        this.count = Math.max(this.count, objNr);
+        readGenerations[objNr] = genNr;
+        if (free) {
+            readEntryTypes[objNr] = FREE_ENTRY;
+            readOffsets[objNr] = 0;
+            readObjStreamNumbers[objNr] = 0;
+            if (genNr < MAX_GENERATION) {
+                addFreeReference(objNr);
+            }
+        } else {
+            readEntryTypes[objNr] = IN_USE_ENTRY;
+            readOffsets[objNr] = offset;
+            readObjStreamNumbers[objNr] = objStreamNumber;
+        }
+        return true;
+    }
+
+    /**
+     * Creates indirect references for all the entries read from the document.
+     */
+    void createReadReferences() {
+        if (readEntryTypes == null) {
+            return;
+        }
+        for (int i = 0; i <= count; i++) {
+            if (xref[i] == null && readEntryTypes[i] != NO_ENTRY) {
+                createReadReference(i);
+            }
+        }
     }
 
     /**
@@ -117,9 +213,11 @@ class PdfXrefTable implements Serializable {
      */
     protected PdfIndirectReference createNextIndirectReference(PdfDocument document) {
         PdfIndirectReference reference;
-        if (freeReferences.size() > 0) {
-            int num = (int) freeReferences.pollFirst();
-            reference = xref[num];
+        if (!freeReferences.isEmpty()) {
+            int num = freeReferences.nextSetBit(firstFreeReference);
+            freeReferences.clear(num);
+            firstFreeReference = num + 1;
+            reference = get(num);
             if (reference == null) {
                 reference = new PdfIndirectReference(document, num);
                 xref[num] = reference;
@@ -149,7 +247,7 @@ class PdfXrefTable implements Serializable {
                 reference.refersTo = null;
             }
             if (reference.getGenNumber() < MAX_GENERATION) {
-                freeReferences.add(reference.getObjNumber());
+                addFreeReference(reference.getObjNumber());
                 ensureCount(Math.max(this.count, reference.getObjNumber()));
                 xref[reference.getObjNumber()] = null;
             }
@@ -172,20 +270,30 @@ class PdfXrefTable implements Serializable {
         PdfWriter writer = document.getWriter();
         if (document.isAppendMode()) {
             // Increment generation number for all freed references.
-            for (Integer objNr : freeReferences) {
-                xref[(int) objNr].genNr++;
+            for (int objNr = freeReferences.nextSetBit(0); objNr >= 0; objNr = freeReferences.nextSetBit(objNr + 1)) {
+                get(objNr).genNr++;
             }
         } else {
-            for (Integer objNr : freeReferences) {
-                xref[(int) objNr] = null;
+            for (int objNr = freeReferences.nextSetBit(0); objNr >= 0; objNr = freeReferences.nextSetBit(objNr + 1)) {
+                xref[objNr] = null;
+                if (readEntryTypes != null) {
+                    readEntryTypes[objNr] = NO_ENTRY;
+                }
             }
         }
         freeReferences.clear();
+        firstFreeReference = 0;
 
 
         for (int i = count; i > 0; --i) {
             PdfIndirectReference lastRef = xref[i];
-            if (lastRef == null
+            if (lastRef == null && readEntryTypes != null && readEntryTypes[i] != NO_ENTRY) {
+                // never requested entry of the original document, so it's neither flushed nor modified
+                if (document.properties.appendMode && !(readEntryTypes[i] == FREE_ENTRY && readGenerations[i] == 0)) {
+                    break;
+                }
+                --count;
+            } else if (lastRef == null
                     || (lastRef.isFree() && lastRef.getGenNumber() == 0)
                     || (!lastRef.checkState(PdfObject.FLUSHED)
                             && !(document.properties.appendMode && !lastRef.checkState(PdfObject.MODIFIED)))) {
@@ -245,11 +353,55 @@ class PdfXrefTable implements Serializable {
             if (crypto != null)
                 xrefStream.put(PdfName.Encrypt, crypto);
             xrefStream.put(PdfName.Size, new PdfNumber(this.size()));
+            // choose the field widths, which are just enough for the biggest written values
+            long maxField2 = 0;
+            int maxField3 = 0;
+            int rows = 0;
+            int similarRows = 0;
+            int previousType = -1;
+            int previousObjStreamNumber = -1;
+            for (int k = 0; k < sections.size(); k += 2) {
+                first = (int) sections.get(k);
+                len = (int) sections.get(k + 1);
+                for (int i = first; i < first + len; i++) {
+                    PdfIndirectReference reference = xref[i];
+                    if (reference == null) {
+                        continue;
+                    }
+                    if (reference.isFree()) {
+                        maxField3 = Math.max(maxField3, reference.getGenNumber());
+                    } else if (reference.getObjStreamNumber() == 0) {
+                        maxField2 = Math.max(maxField2, reference.getOffset());
+                        maxField3 = Math.max(maxField3, reference.getGenNumber());
+                    } else {
+                        maxField2 = Math.max(maxField2, reference.getObjStreamNumber());
+                        maxField3 = Math.max(maxField3, reference.getIndex());
+                    }
+                    int type = reference.isFree() ? 0 : (reference.getObjStreamNumber() == 0 ? 1 : 2);
+                    if (type == previousType && reference.getObjStreamNumber() == previousObjStreamNumber) {
+                        similarRows++;
+                    }
+                    previousType = type;
+                    previousObjStreamNumber = reference.getObjStreamNumber();
+                    rows++;
+                }
+            }
+            int[] widths = {1, getFieldWidth(maxField2), getFieldWidth(maxField3)};
             ArrayList<PdfObject> tmpArray = new ArrayList<PdfObject>(3);
-            tmpArray.add(new PdfNumber(1));
-            tmpArray.add(new PdfNumber(4));
-            tmpArray.add(new PdfNumber(2));
+            for (int width : widths) {
+                tmpArray.add(new PdfNumber(width));
+            }
             xrefStream.put(PdfName.W, new PdfArray(tmpArray));
+            int rowLength = widths[0] + widths[1] + widths[2];
+            // Up predictor turns the rows of the same object stream or the growing offsets into mostly zero bytes,
+            // which are deflated much better. If the row types are mixed, the differences only add noise.
+            boolean predictor = similarRows * 2 > rows && writer.isContentToBeCompressed(xrefStream);
+            if (predictor) {
+                PdfDictionary decodeParms = new PdfDictionary();
+                decodeParms.put(PdfName.Columns, new PdfNumber(rowLength));
+                decodeParms.put(PdfName.Predictor, new PdfNumber(12));
+                xrefStream.put(PdfName.DecodeParms, decodeParms);
+            }
             xrefStream.put(PdfName.Info, document.getDocumentInfo().getPdfObject());
             xrefStream.put(PdfName.Root, document.getCatalog().getPdfObject());
             PdfArray index = new PdfArray();
@@ -262,6 +414,12 @@ class PdfXrefTable implements Serializable {
             }
             xrefStream.put(PdfName.Index, index);
             PdfXrefTable xrefTable = document.getXref();
+            PdfOutputStream xrefOutput = xrefStream.getOutputStream();
+            byte[] row = new byte[rowLength];
+            byte[] previousRow = new byte[rowLength];
+            byte[] predictedRow = new byte[rowLength + 1];
+            // PNG Up predictor for every row
+            predictedRow[0] = 2;
             for (int k = 0; k < sections.size(); k += 2) {
                 first = (int) sections.get(k);
                 len = (int) sections.get(k + 1);
@@ -271,19 +429,29 @@ class PdfXrefTable implements Serializable {
                         continue;
                     }
                     if (reference.isFree()) {
-                        xrefStream.getOutputStream().write(0);
+                        row[0] = 0;
                         //NOTE The object number of the next free object should be at this position due to spec.
-                        xrefStream.getOutputStream().write(intToBytes(0));
-                        xrefStream.getOutputStream().write(shortToBytes(reference.getGenNumber()));
+                        putField(row, widths[0], widths[1], 0);
+                        putField(row, widths[0] + widths[1], widths[2], reference.getGenNumber());
                     } else if (reference.getObjStreamNumber() == 0) {
-                        xrefStream.getOutputStream().write(1);
-                        assert reference.getOffset() < Integer.MAX_VALUE;
-                        xrefStream.getOutputStream().write(intToBytes((int) reference.getOffset()));
-                        xrefStream.getOutputStream().write(shortToBytes(reference.getGenNumber()));
+                        row[0] = 1;
+                        putField(row, widths[0], widths[1], reference.getOffset());
+                        putField(row, widths[0] + widths[1], widths[2], reference.getGenNumber());
+                    } else {
+                        row[0] = 2;
+                        putField(row, widths[0], widths[1], reference.getObjStreamNumber());
+                        putField(row, widths[0] + widths[1], widths[2], reference.getIndex());
+                    }
+                    if (predictor) {
+                        for (int j = 0; j < rowLength; j++) {
+                            predictedRow[j + 1] = (byte) (row[j] - previousRow[j]);
+                        }
+                        xrefOutput.write(predictedRow);
+                        byte[] tmp = previousRow;
+                        previousRow = row;
+                        row = tmp;
                     } else {
-                        xrefStream.getOutputStream().write(2);
-                        xrefStream.getOutputStream().write(intToBytes(reference.getObjStreamNumber()));
-                        xrefStream.getOutputStream().write(shortToBytes(reference.getIndex()));
+                        xrefOutput.write(row);
                     }
                 }
             }
@@ -332,6 +500,7 @@ class PdfXrefTable implements Serializable {
                 writeLong(startxref).
                 writeString("\n%%EOF\n");
         xref = null;
+        clearReadEntries();
     }
 
     void clear() {
@@ -340,6 +509,9 @@ class PdfXrefTable implements Serializable {
                 continue;
             }
             xref[i] = null;
+            if (readEntryTypes != null && readEntryTypes[i] == IN_USE_ENTRY) {
+                readEntryTypes[i] = NO_ENTRY;
+            }
         }
         count = 1;
     }
@@ -354,6 +526,31 @@ class PdfXrefTable implements Serializable {
         writer.writeString(MessageFormat.format("%{0}-{1}{2}\n", k, version.getRelease(), platform));
     }
 
+    private PdfIndirectReference createReadReference(int objNr) {
+        PdfIndirectReference reference = new PdfIndirectReference(readDocument, objNr, readGenerations[objNr], readOffsets[objNr]);
+        if (readEntryTypes[objNr] == FREE_ENTRY) {
+            reference.setState(PdfObject.FREE);
+        } else if (readObjStreamNumbers[objNr] != 0) {
+            reference.setObjStreamNumber(readObjStreamNumbers[objNr]);
+        }
+        readEntryTypes[objNr] = NO_ENTRY;
+        xref[objNr] = reference;
+        return reference;
+    }
+
+    private void clearReadEntries() {
+        readDocument = null;
+        readEntryTypes = null;
+        readOffsets = null;
+        readGenerations = null;
+        readObjStreamNumbers = null;
+    }
+
+    private void addFreeReference(int objNr) {
+        freeReferences.set(objNr);
+        firstFreeReference = Math.min(firstFreeReference, objNr);
+    }
+
     private void ensureCount(int count) {
         if (count >= xref.length) {
             extendXref(count << 1);
@@ -364,13 +561,32 @@ class PdfXrefTable implements Serializable {
         PdfIndirectReference[] newXref = new PdfIndirectReference[capacity];
         System.arraycopy(xref, 0, newXref, 0, xref.length);
         xref = newXref;
+        if (readEntryTypes != null) {
+            readEntryTypes = Arrays.copyOf(readEntryTypes, capacity);
+            readOffsets = Arrays.copyOf(readOffsets, capacity);
+            readGenerations = Arrays.copyOf(readGenerations, capacity);
+            readObjStreamNumbers = Arrays.copyOf(readObjStreamNumbers, capacity);
+        }
     }
 
-    private static byte[] shortToBytes(int n) {
-        return new byte[]{(byte) ((n >> 8) & 0xFF), (byte) (n & 0xFF)};
+    /**
+     * Gets the number of bytes needed to store the value in a cross-reference stream field.
+     */
+    private static int getFieldWidth(long value) {
+        int width = 1;
+        while ((value >>>= 8) != 0) {
+            width++;
+        }
+        return width;
     }
 
-    private static byte[] intToBytes(int n) {
-        return new byte[]{(byte) ((n >> 24) & 0xFF), (byte) ((n >> 16) & 0xFF), (byte) ((n >> 8) & 0xFF), (byte) (n & 0xFF)};
+    /**
+     * Puts the value into the cross-reference stream row as a big-endian field of the given width.
+     */
+    private static void putField(byte[] row, int offset, int width, long value) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            row[i] = (byte) value;
+            value >>>= 8;
+        }
     }
 }
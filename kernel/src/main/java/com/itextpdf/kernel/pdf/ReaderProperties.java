@@ -59,6 +59,10 @@ public class ReaderProperties implements Serializable {
     protected String certificateKeyProvider; //added by Aiken Sam for certificate decryption
     protected IExternalDecryptionProcess externalDecryptionProcess;
 
+    protected boolean concurrentReading;
+
+    protected int objectStreamCacheSize;
+
     /**
      * Defines the password which will be used if the document is encrypted with standard encryption.
      * This could be either user or owner password.
@@ -94,6 +98,34 @@ public class ReaderProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Allows the document opened with these properties to be read from several threads at once.
+     * Lazy resolution of indirect objects is then synchronized on the {@link PdfReader},
+     * while stream bytes are read through independent views of the underlying source,
+     * so that pages of a single {@link PdfDocument} could be requested and parsed in parallel.
+     * Note, that only reading is thread-safe in this mode: a document opened in stamping mode
+     * shall still be modified from one thread only.
+     * @param concurrentReading true to allow concurrent reading, false otherwise.
+     */
+    public ReaderProperties setConcurrentReading(boolean concurrentReading) {
+        this.concurrentReading = concurrentReading;
+        return this;
+    }
+
+    /**
+     * Enables lazy resolution of the objects stored in object streams. By default, the whole object stream
+     * is decoded and all its objects are parsed as soon as any of them is requested. With a positive cache size
+     * only the requested object is parsed, while decoded bytes of the most recently used object streams are kept,
+     * so that the other objects of these streams could be read without decoding them again.
+     * This is useful for huge documents when only a small part of their objects is going to be accessed.
+     * @param objectStreamCacheSize the maximum number of decoded object streams kept by the reader,
+     *                              zero to parse object streams entirely.
+     */
+    public ReaderProperties setObjectStreamCacheSize(int objectStreamCacheSize) {
+        this.objectStreamCacheSize = objectStreamCacheSize;
+        return this;
+    }
+
     private void clearEncryptionParams() {
         this.password = null;
         this.certificate = null;
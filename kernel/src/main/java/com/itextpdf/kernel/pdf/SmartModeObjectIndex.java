@@ -0,0 +1,515 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.kernel.PdfException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Is used in smart mode to find previously copied objects with the same content.
+ * <p/>
+ * Objects are identified by the SHA-256 hash of their content, which includes the content of all
+ * the objects they refer to. The hash of an indirect object is memoized on its {@link PdfIndirectReference},
+ * so objects shared by several copied objects are hashed only once. The memoized hashes of a document
+ * are discarded as soon as any of its objects is marked as modified with {@link PdfObject#setModified()}.
+ * The index stores the references of the copies together with the canonical form of the copied objects.
+ * When the hashes match, the canonical forms are compared as well, which rules out a collision of the hashes
+ * of the copied objects themselves. The canonical form represents the referenced objects and the stream data
+ * by their hashes only, so these are still trusted to be collision free.
+ * The estimated size of the index may be bounded, in which case the least recently used entries are evicted.
+ */
+class SmartModeObjectIndex implements Serializable {
+
+    private static final long serialVersionUID = 4718593409452036467L;
+
+    private static final int MAX_LEVEL = 100;
+
+    private static final int NOT_ESCAPED = Integer.MAX_VALUE;
+    private static final int TRUNCATED = -1;
+
+    private static final byte NULL = 0;
+    private static final byte REFERENCE = 1;
+    private static final byte CYCLE = 2;
+    private static final byte STREAM = 3;
+    private static final byte DICTIONARY = 4;
+    private static final byte ARRAY = 5;
+    private static final byte STRING = 6;
+    private static final byte NAME = 7;
+    private static final byte LITERAL = 8;
+    private static final byte TRUNCATED_CONTENT = 9;
+
+    /**
+     * The estimated size of an index entry without the canonical form, i.e. the map node, the hash,
+     * the entry itself and the array header.
+     */
+    private static final int ENTRY_SIZE = 112;
+
+    private final Map<ContentHash, IndexEntry> index;
+    private final long maxBytes;
+    private long indexedBytes;
+
+    /**
+     * Digests of the indirect objects which are being hashed, one per nesting level.
+     * The digest of the top level object keeps its canonical form.
+     */
+    private transient List<ContentDigest> digests;
+    private transient MessageDigest streamDigest;
+    /**
+     * The stack of the indirect objects which are being hashed, is used to detect cyclic references.
+     */
+    private transient List<PdfIndirectReference> hashedReferences;
+    /**
+     * Hashes of the objects which depend on the way they were reached, i.e. which refer to the objects
+     * being hashed or which are nested too deep. They are valid only while the current object is hashed.
+     */
+    private transient Map<PdfIndirectReference, byte[]> contextDependentHashes;
+    private transient byte[] buffer;
+    /**
+     * The canonical form of the last top level object, which was hashed, so that it isn't serialized twice.
+     */
+    private transient PdfIndirectReference lastSerializedReference;
+    private transient byte[] lastSerialization;
+
+    /**
+     * Creates the index.
+     *
+     * @param maxBytes the maximum estimated size of the index in bytes, zero or negative value means no limit.
+     */
+    SmartModeObjectIndex(long maxBytes) {
+        if (maxBytes > 0) {
+            // access-ordered, so the iteration starts with the least recently used entry
+            index = new LinkedHashMap<>(16, 0.75f, true);
+        } else {
+            index = new HashMap<>();
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Calculates the hash of the content of the indirect object.
+     *
+     * @param obj a dictionary or a stream to calculate the hash for.
+     * @return the hash of the object content, or null if the object is not an indirect dictionary or stream.
+     */
+    ContentHash getContentHash(PdfObject obj) {
+        PdfIndirectReference reference = obj.getIndirectReference();
+        if (reference == null || !(obj.isDictionary() || obj.isStream())) {
+            return null;
+        }
+        lastSerializedReference = null;
+        byte[] hash = reference.getContentHash();
+        if (hash == null) {
+            initialize();
+            try {
+                serReference(reference, MAX_LEVEL, null);
+                hash = reference.getContentHash();
+                if (hash == null) {
+                    hash = contextDependentHashes.get(reference);
+                }
+            } finally {
+                reset();
+            }
+        }
+        return new ContentHash(hash);
+    }
+
+    /**
+     * Gets the reference of the copy of the object with the given content hash.
+     *
+     * @param hash the content hash of the object.
+     * @param obj  the object, which content is compared with the content of the indexed one if the hashes match.
+     * @return the reference of the copy or null if there is no copy of an object with the same content.
+     */
+    PdfIndirectReference get(ContentHash hash, PdfObject obj) {
+        IndexEntry entry = index.get(hash);
+        if (entry == null) {
+            return null;
+        }
+        return Arrays.equals(entry.serialization, getSerialization(obj)) ? entry.copiedReference : null;
+    }
+
+    /**
+     * Saves the reference of the copy of the object with the given content hash.
+     */
+    void put(ContentHash hash, PdfObject obj, PdfIndirectReference copiedReference) {
+        IndexEntry entry = new IndexEntry(copiedReference, getSerialization(obj));
+        IndexEntry previous = index.put(hash, entry);
+        indexedBytes += entry.getSize() - (previous != null ? previous.getSize() : 0);
+        if (maxBytes > 0) {
+            Iterator<IndexEntry> iterator = index.values().iterator();
+            while (indexedBytes > maxBytes) {
+                indexedBytes -= iterator.next().getSize();
+                iterator.remove();
+            }
+        }
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    long getIndexedBytes() {
+        return indexedBytes;
+    }
+
+    /**
+     * Gets the canonical form of the object's own content, the same one its hash is calculated from.
+     */
+    private byte[] getSerialization(PdfObject obj) {
+        PdfIndirectReference reference = obj.getIndirectReference();
+        if (reference != lastSerializedReference) {
+            initialize();
+            if (digests.isEmpty()) {
+                digests.add(new ContentDigest(true));
+            }
+            try {
+                hashedReferences.add(reference);
+                ContentDigest md = digests.get(0);
+                serObject(reference.getRefersTo(), MAX_LEVEL, md);
+                lastSerialization = md.takeSerialization();
+                lastSerializedReference = reference;
+            } finally {
+                reset();
+            }
+        }
+        return lastSerialization;
+    }
+
+    private void initialize() {
+        if (digests == null) {
+            digests = new ArrayList<>();
+            streamDigest = createDigest();
+            hashedReferences = new ArrayList<>();
+            contextDependentHashes = new IdentityHashMap<>();
+            buffer = new byte[64];
+        }
+    }
+
+    private void reset() {
+        hashedReferences.clear();
+        contextDependentHashes.clear();
+        for (ContentDigest md : digests) {
+            md.reset();
+        }
+    }
+
+    /**
+     * Writes the hash of the referenced object to the digest of the object which refers to it.
+     *
+     * @return the lowest position in the stack of hashed references, which the object refers to,
+     * {@link #NOT_ESCAPED} if it doesn't refer to the objects being hashed
+     * or {@link #TRUNCATED} if the object was nested too deep.
+     */
+    private int serReference(PdfIndirectReference reference, int level, ContentDigest md) {
+        byte[] hash = reference.getContentHash();
+        int escape = NOT_ESCAPED;
+        if (hash == null) {
+            hash = contextDependentHashes.get(reference);
+            if (hash != null) {
+                escape = TRUNCATED;
+            }
+        }
+        if (hash == null) {
+            int position = indexOf(reference);
+            if (position >= 0) {
+                md.update(CYCLE);
+                updateInt(md, hashedReferences.size() - position);
+                return position;
+            }
+            if (level <= 0) {
+                md.update(TRUNCATED_CONTENT);
+                return TRUNCATED;
+            }
+            int frame = hashedReferences.size();
+            hashedReferences.add(reference);
+            if (digests.size() == frame) {
+                digests.add(new ContentDigest(frame == 0));
+            }
+            ContentDigest objectMd = digests.get(frame);
+            escape = serObject(reference.getRefersTo(), level, objectMd);
+            hashedReferences.remove(frame);
+            hash = objectMd.digest();
+            if (frame == 0) {
+                lastSerialization = objectMd.takeSerialization();
+                lastSerializedReference = reference;
+            }
+            if (escape >= frame) {
+                // the hash doesn't depend on the way the object was reached
+                reference.setContentHash(hash);
+                escape = NOT_ESCAPED;
+            } else {
+                contextDependentHashes.put(reference, hash);
+            }
+        }
+        if (md != null) {
+            md.update(REFERENCE);
+            md.update(hash);
+        }
+        return escape;
+    }
+
+    private int serObject(PdfObject obj, int level, ContentDigest md) {
+        if (obj == null || obj.isNull()) {
+            md.update(NULL);
+            return NOT_ESCAPED;
+        }
+        if (obj.isIndirectReference()) {
+            return serReference((PdfIndirectReference) obj, level, md);
+        }
+        int escape = NOT_ESCAPED;
+        if (obj.isStream()) {
+            md.update(STREAM);
+            escape = serDic((PdfDictionary) obj, level - 1, md);
+            byte[] bytes = ((PdfStream) obj).getBytes(false);
+            updateInt(md, bytes.length);
+            md.update(streamDigest.digest(bytes));
+        } else if (obj.isDictionary()) {
+            escape = serDic((PdfDictionary) obj, level - 1, md);
+        } else if (obj.isArray()) {
+            escape = serArray((PdfArray) obj, level - 1, md);
+        } else if (obj.isString()) {
+            md.update(STRING);
+            updateString(md, obj.toString());
+        } else if (obj.isName()) {
+            md.update(NAME);
+            updateString(md, ((PdfName) obj).getValue());
+        } else {
+            md.update(LITERAL);
+            updateString(md, obj.toString());
+        }
+        return escape;
+    }
+
+    private int serDic(PdfDictionary dic, int level, ContentDigest md) {
+        md.update(DICTIONARY);
+        if (level <= 0) {
+            md.update(TRUNCATED_CONTENT);
+            return TRUNCATED;
+        }
+        PdfName[] keys = dic.keySet().toArray(new PdfName[dic.size()]);
+        Arrays.sort(keys);
+        updateInt(md, keys.length);
+        int escape = NOT_ESCAPED;
+        for (PdfName key : keys) {
+            PdfObject value = dic.get(key, false);
+            // ignore recursive call
+            if (key.equals(PdfName.P) && value != null && (value.isIndirectReference() || value.isDictionary()) || key.equals(PdfName.Parent)) {
+                continue;
+            }
+            md.update(NAME);
+            updateString(md, key.getValue());
+            escape = Math.min(escape, serObject(value, level, md));
+        }
+        return escape;
+    }
+
+    private int serArray(PdfArray array, int level, ContentDigest md) {
+        md.update(ARRAY);
+        if (level <= 0) {
+            md.update(TRUNCATED_CONTENT);
+            return TRUNCATED;
+        }
+        updateInt(md, array.size());
+        int escape = NOT_ESCAPED;
+        for (int k = 0; k < array.size(); ++k) {
+            escape = Math.min(escape, serObject(array.get(k, false), level, md));
+        }
+        return escape;
+    }
+
+    private int indexOf(PdfIndirectReference reference) {
+        for (int i = 0; i < hashedReferences.size(); i++) {
+            if (hashedReferences.get(i) == reference) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void updateInt(ContentDigest md, int value) {
+        buffer[0] = (byte) (value >>> 24);
+        buffer[1] = (byte) (value >>> 16);
+        buffer[2] = (byte) (value >>> 8);
+        buffer[3] = (byte) value;
+        md.update(buffer, 0, 4);
+    }
+
+    private void updateString(ContentDigest md, String s) {
+        int length = s.length();
+        updateInt(md, length);
+        if (buffer.length < length * 2) {
+            buffer = new byte[length * 2];
+        }
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            buffer[i * 2] = (byte) (c >>> 8);
+            buffer[i * 2 + 1] = (byte) c;
+        }
+        md.update(buffer, 0, length * 2);
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new PdfException(e);
+        }
+    }
+
+    /**
+     * The first 128 bits of the hash of the object content.
+     */
+    static final class ContentHash implements Serializable {
+
+        private static final long serialVersionUID = -2270585939519862306L;
+
+        private final long high;
+        private final long low;
+
+        ContentHash(byte[] hash) {
+            long h = 0;
+            long l = 0;
+            for (int i = 0; i < 8; i++) {
+                h = (h << 8) | (hash[i] & 0xff);
+                l = (l << 8) | (hash[i + 8] & 0xff);
+            }
+            this.high = h;
+            this.low = l;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ContentHash)) {
+                return false;
+            }
+            ContentHash that = (ContentHash) obj;
+            return high == that.high && low == that.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (low ^ (low >>> 32));
+        }
+    }
+
+    private static final class IndexEntry implements Serializable {
+
+        private static final long serialVersionUID = -1829270154364390826L;
+
+        private final PdfIndirectReference copiedReference;
+        private final byte[] serialization;
+
+        IndexEntry(PdfIndirectReference copiedReference, byte[] serialization) {
+            this.copiedReference = copiedReference;
+            this.serialization = serialization;
+        }
+
+        long getSize() {
+            return ENTRY_SIZE + serialization.length;
+        }
+    }
+
+    /**
+     * The digest of the canonical form of an object, which optionally keeps the canonical form itself.
+     */
+    private static final class ContentDigest {
+
+        private final MessageDigest md = createDigest();
+        private final ByteArrayOutputStream serialization;
+
+        ContentDigest(boolean keepSerialization) {
+            serialization = keepSerialization ? new ByteArrayOutputStream() : null;
+        }
+
+        void update(byte b) {
+            md.update(b);
+            if (serialization != null) {
+                serialization.write(b);
+            }
+        }
+
+        void update(byte[] b) {
+            update(b, 0, b.length);
+        }
+
+        void update(byte[] b, int off, int len) {
+            md.update(b, off, len);
+            if (serialization != null) {
+                serialization.write(b, off, len);
+            }
+        }
+
+        byte[] digest() {
+            return md.digest();
+        }
+
+        byte[] takeSerialization() {
+            byte[] bytes = serialization.toByteArray();
+            reset();
+            return bytes;
+        }
+
+        void reset() {
+            md.reset();
+            if (serialization != null) {
+                serialization.reset();
+            }
+        }
+    }
+}
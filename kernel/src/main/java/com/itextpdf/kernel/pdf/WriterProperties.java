@@ -62,6 +62,25 @@ public class WriterProperties implements Serializable {
      * and reused if there's an object with the same content later.
      */
     protected boolean smartMode;
+    /**
+     * The maximum estimated size in bytes of the copied objects remembered in smart mode. Zero means no limit.
+     */
+    protected long smartModeIndexMaxBytes;
+    /**
+     * Indicates if the writer streams {@link PdfStream} bodies directly to the output. If so the stream dictionary
+     * is written with an indirect /Length and the content is deflated and encrypted on the fly.
+     */
+    protected boolean streamingMode;
+    /**
+     * The number of worker threads used to deflate flushed streams. Zero means that streams are compressed
+     * on the thread that flushes them.
+     */
+    protected int compressionParallelism;
+    protected ObjectStreamPackingPolicy objectStreamPackingPolicy;
+    /**
+     * Indicates if the document is written linearized, see {@link #useLinearization()}.
+     */
+    protected boolean linearization;
     protected boolean debugMode;
     protected boolean addXmpMetadata;
     protected PdfVersion pdfVersion;
@@ -110,6 +129,88 @@ public class WriterProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Enables smart mode and limits the memory occupied by the copied objects, which are remembered in order to reuse them.
+     * <p/>
+     * A remembered object takes about a hundred bytes plus the size of its own content, in which the stream data
+     * and the referenced objects are replaced by their hashes. When the limit is reached, the least recently
+     * reused objects are forgotten, so that their duplicates copied later are written to the document again.
+     * See {@link #useSmartMode()}.
+     *
+     * @param indexMaxBytes the maximum estimated size of the remembered objects in bytes,
+     *                      zero or negative value means no limit.
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useSmartMode(long indexMaxBytes) {
+        this.smartMode = true;
+        this.smartModeIndexMaxBytes = indexMaxBytes;
+        return this;
+    }
+
+    /**
+     * Enables streaming mode for {@link PdfStream} bodies.
+     * <p/>
+     * By default the content of a stream is compressed and encrypted into temporary buffers first, so that
+     * the exact /Length could be written directly into the stream dictionary. In streaming mode the stream
+     * dictionary is written with an indirect /Length object, the content is deflated and encrypted straight
+     * into the writer and the length is written later as a separate object. This keeps the peak memory
+     * consumption per stream bounded, which is useful for documents with large embedded images or content,
+     * at the cost of one extra indirect object per stream. Note that the not yet encoded content of a stream
+     * is still kept in memory until the stream is written, only the encoded copy of it is not buffered.
+     * The cross-reference stream in full compression mode always gets a direct /Length.
+     *
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useStreamingMode() {
+        this.streamingMode = true;
+        return this;
+    }
+
+    /**
+     * Enables parallel compression of the flushed {@link PdfStream}s.
+     * <p/>
+     * When enabled, the content of flushed streams (including object streams in full compression mode) is deflated
+     * on a bounded pool of worker threads, while the flushing thread continues with the rest of the document.
+     * Streams are written to the output in the order they were flushed, however other objects may be written
+     * before the streams which are still being compressed. The resultant document is the same for every run.
+     *
+     * @param parallelism the number of worker threads, values less than 1 disable parallel compression.
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useParallelCompression(int parallelism) {
+        this.compressionParallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Enables linearization (also known as Fast Web View) of the written document.
+     * <p/>
+     * The objects of a linearized document are ordered so that a viewer is able to display the first page
+     * as soon as the beginning of the file is downloaded, the hint tables let it locate the other pages
+     * without waiting for the rest of the file. The document is written to a temporary file first and is
+     * reordered into the output once the document is closed, so the output gets all the bytes at once.
+     * Object streams and cross-reference streams are not used in the linearized document.
+     * Linearization is not supported for encrypted documents and in append mode.
+     *
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useLinearization() {
+        this.linearization = true;
+        return this;
+    }
+
+    /**
+     * Sets the policy of packing objects into object streams in full compression mode.
+     * See {@link ObjectStreamPackingPolicy}.
+     *
+     * @param objectStreamPackingPolicy the packing policy, null means the default one.
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties setObjectStreamPackingPolicy(ObjectStreamPackingPolicy objectStreamPackingPolicy) {
+        this.objectStreamPackingPolicy = objectStreamPackingPolicy;
+        return this;
+    }
+
     /**
      * If true, default XMPMetadata based on {@link PdfDocumentInfo} will be added.
      * @return this {@code WriterProperties} instance
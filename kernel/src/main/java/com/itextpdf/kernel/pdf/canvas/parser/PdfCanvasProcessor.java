@@ -135,6 +135,11 @@ public class PdfCanvasProcessor {
      */
     private Map<String, IContentOperator> operators;
 
+    /**
+     * The same operators keyed by their literals, so that the parsed operators are looked up without converting them to strings.
+     */
+    private Map<PdfLiteral, IContentOperator> operatorsByLiteral;
+
     /**
      * Resources for the content stream.
      * Current resources are always at the top of the stack.
@@ -176,6 +181,7 @@ public class PdfCanvasProcessor {
         this.eventListener = eventListener;
         this.supportedEvents = eventListener.getSupportedEvents();
         operators = new HashMap<>();
+        operatorsByLiteral = new HashMap<>();
         populateOperators();
         xobjectDoHandlers = new HashMap<>();
         populateXObjectDoHandlers();
@@ -223,6 +229,7 @@ public class PdfCanvasProcessor {
      * @return the existing registered operator, if any
      */
     public IContentOperator registerContentOperator(String operatorString, IContentOperator operator) {
+        operatorsByLiteral.put(new PdfLiteral(operatorString), operator);
         return operators.put(operatorString, operator);
     }
 
@@ -443,7 +450,7 @@ public class PdfCanvasProcessor {
      * @param operands a list with operands
      */
     protected void invokeOperator(PdfLiteral operator, List<PdfObject> operands) {
-        IContentOperator op = operators.get(operator.toString());
+        IContentOperator op = operatorsByLiteral.get(operator);
         if (op == null)
             op = operators.get(DEFAULT_OPERATOR);
         op.invoke(this, operator, operands);
@@ -540,7 +547,7 @@ public class PdfCanvasProcessor {
      */
     private void displayPdfString(PdfString string) {
         TextRenderInfo renderInfo = new TextRenderInfo(string, getGraphicsState(), textMatrix, markedContentStack);
-        textMatrix = new Matrix(renderInfo.getUnscaledWidth(), 0).multiply(textMatrix);
+        textMatrix = translate(renderInfo.getUnscaledWidth(), 0, textMatrix);
         eventOccurred(renderInfo, EventType.RENDER_TEXT);
     }
 
@@ -575,7 +582,20 @@ public class PdfCanvasProcessor {
     private void applyTextAdjust(float tj) {
         float adjustBy = -tj / 1000f * getGraphicsState().getFontSize() * (getGraphicsState().getHorizontalScaling() / 100f);
 
-        textMatrix = new Matrix(adjustBy, 0).multiply(textMatrix);
+        textMatrix = translate(adjustBy, 0, textMatrix);
+    }
+
+    /**
+     * Computes the same as {@code new Matrix(tx, ty).multiply(matrix)}, without creating the translation matrix.
+     */
+    private static Matrix translate(float tx, float ty, Matrix matrix) {
+        float a = matrix.get(Matrix.I11);
+        float b = matrix.get(Matrix.I12);
+        float c = matrix.get(Matrix.I21);
+        float d = matrix.get(Matrix.I22);
+        return new Matrix(a, b, c, d,
+                tx * a + ty * c + matrix.get(Matrix.I31),
+                tx * b + ty * d + matrix.get(Matrix.I32));
     }
 
     private void initClippingPath(PdfPage page) {
@@ -780,8 +800,7 @@ public class PdfCanvasProcessor {
             float tx = ((PdfNumber) operands.get(0)).floatValue();
             float ty = ((PdfNumber) operands.get(1)).floatValue();
 
-            Matrix translationMatrix = new Matrix(tx, ty);
-            processor.textMatrix = translationMatrix.multiply(processor.textLineMatrix);
+            processor.textMatrix = translate(tx, ty, processor.textLineMatrix);
             processor.textLineMatrix = processor.textMatrix;
         }
     }
@@ -43,11 +43,27 @@
  */
 package com.itextpdf.kernel.pdf.canvas.parser;
 
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListenerFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
 
+import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * A utility class that makes it cleaner to process content from pages of a {@link PdfDocument}
@@ -90,4 +106,163 @@ public class PdfDocumentContentParser {
         return processContent(pageNumber, renderListener, new HashMap<String, IContentOperator>());
     }
 
+    /**
+     * Processes content of the range of pages, each page with its own listener created by the factory.
+     * <p>
+     * If the document is read with {@link com.itextpdf.kernel.pdf.ReaderProperties#setConcurrentReading(boolean)}
+     * enabled, the pages are processed concurrently by the passed executor, otherwise they are processed
+     * one by one in the calling thread. The fonts are decoded once and shared between the pages, so
+     * the additional content operators and the listeners shall not change the passed fonts.
+     * The additional content operators are shared between the pages, so they shall be thread-safe
+     * in case of concurrent processing.
+     *
+     * @param <E>                        the type of the listeners
+     * @param startPage                  the number of the first page to process
+     * @param endPage                    the number of the last page to process, inclusive
+     * @param listenerFactory            the factory creating the listener for every page
+     * @param additionalContentOperators an optional map of custom ContentOperators for rendering instructions
+     * @param executor                   the executor which processes the pages. It is not shut down by this method.
+     * @return the listeners, which received the events of the pages, in page order
+     */
+    public <E extends IEventListener> List<E> processContent(int startPage, int endPage, IEventListenerFactory<E> listenerFactory,
+                                                             Map<String, IContentOperator> additionalContentOperators, ExecutorService executor) {
+        checkPageRange(startPage, endPage);
+        if (!isConcurrentReading()) {
+            return processContentSequentially(startPage, endPage, listenerFactory, additionalContentOperators);
+        }
+
+        ConcurrentMap<PdfIndirectReference, PdfFont> fonts = new ConcurrentHashMap<>();
+        List<E> listeners = new ArrayList<>(endPage - startPage + 1);
+        List<Future<E>> results = new ArrayList<>(endPage - startPage + 1);
+        try {
+            for (int pageNumber = startPage; pageNumber <= endPage; pageNumber++) {
+                results.add(executor.submit(new PageProcessingTask<>(pageNumber, listenerFactory, additionalContentOperators, fonts)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                listeners.add(getResult(results.get(i), startPage + i));
+            }
+        } finally {
+            if (listeners.size() < results.size()) {
+                for (Future<E> result : results) {
+                    result.cancel(true);
+                }
+            }
+        }
+        return listeners;
+    }
+
+    /**
+     * Processes content of the range of pages, each page with its own listener created by the factory.
+     * The pages are processed concurrently by the specified number of threads, if the document is read with
+     * {@link com.itextpdf.kernel.pdf.ReaderProperties#setConcurrentReading(boolean)} enabled.
+     * See {@link #processContent(int, int, IEventListenerFactory, Map, ExecutorService)} for details.
+     *
+     * @param <E>             the type of the listeners
+     * @param startPage       the number of the first page to process
+     * @param endPage         the number of the last page to process, inclusive
+     * @param listenerFactory the factory creating the listener for every page
+     * @param parallelism     the number of threads processing the pages
+     * @return the listeners, which received the events of the pages, in page order
+     */
+    public <E extends IEventListener> List<E> processContent(int startPage, int endPage, IEventListenerFactory<E> listenerFactory, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism");
+        }
+        if (parallelism == 1 || !isConcurrentReading()) {
+            checkPageRange(startPage, endPage);
+            return processContentSequentially(startPage, endPage, listenerFactory, new HashMap<String, IContentOperator>());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, endPage - startPage + 1));
+        try {
+            return processContent(startPage, endPage, listenerFactory, new HashMap<String, IContentOperator>(), executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <E extends IEventListener> List<E> processContentSequentially(int startPage, int endPage, IEventListenerFactory<E> listenerFactory,
+                                                                          Map<String, IContentOperator> additionalContentOperators) {
+        ConcurrentMap<PdfIndirectReference, PdfFont> fonts = new ConcurrentHashMap<>();
+        List<E> listeners = new ArrayList<>(endPage - startPage + 1);
+        for (int pageNumber = startPage; pageNumber <= endPage; pageNumber++) {
+            listeners.add(processContent(pageNumber, listenerFactory.createEventListener(pageNumber), additionalContentOperators, fonts));
+        }
+        return listeners;
+    }
+
+    private <E extends IEventListener> E processContent(int pageNumber, E renderListener, Map<String, IContentOperator> additionalContentOperators,
+                                                        final ConcurrentMap<PdfIndirectReference, PdfFont> fonts) {
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(renderListener, additionalContentOperators) {
+            @Override
+            protected PdfFont getFont(PdfDictionary fontDict) {
+                PdfIndirectReference reference = fontDict.getIndirectReference();
+                if (reference == null) {
+                    return super.getFont(fontDict);
+                }
+                PdfFont font = fonts.get(reference);
+                if (font == null) {
+                    font = super.getFont(fontDict);
+                    PdfFont sharedFont = fonts.putIfAbsent(reference, font);
+                    if (sharedFont != null) {
+                        font = sharedFont;
+                    }
+                }
+                return font;
+            }
+        };
+        processor.processPageContent(pdfDocument.getPage(pageNumber));
+        return renderListener;
+    }
+
+    private boolean isConcurrentReading() {
+        PdfReader reader = pdfDocument.getReader();
+        return reader != null && reader.isConcurrentReading();
+    }
+
+    private void checkPageRange(int startPage, int endPage) {
+        if (startPage < 1 || startPage > endPage) {
+            throw new IndexOutOfBoundsException(MessageFormat.format(PdfException.RequestedPageNumberIsOutOfBounds, startPage));
+        }
+        if (endPage > pdfDocument.getNumberOfPages()) {
+            throw new IndexOutOfBoundsException(MessageFormat.format(PdfException.RequestedPageNumberIsOutOfBounds, endPage));
+        }
+    }
+
+    private static <E> E getResult(Future<E> result, int pageNumber) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.PageContentProcessingWasInterrupted, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PdfException(PdfException.CannotProcessContentOfPage1, cause).setMessageParams(pageNumber);
+        }
+    }
+
+    private class PageProcessingTask<E extends IEventListener> implements Callable<E> {
+        private final int pageNumber;
+        private final IEventListenerFactory<E> listenerFactory;
+        private final Map<String, IContentOperator> additionalContentOperators;
+        private final ConcurrentMap<PdfIndirectReference, PdfFont> fonts;
+
+        PageProcessingTask(int pageNumber, IEventListenerFactory<E> listenerFactory, Map<String, IContentOperator> additionalContentOperators,
+                           ConcurrentMap<PdfIndirectReference, PdfFont> fonts) {
+            this.pageNumber = pageNumber;
+            this.listenerFactory = listenerFactory;
+            this.additionalContentOperators = additionalContentOperators;
+            this.fonts = fonts;
+        }
+
+        @Override
+        public E call() {
+            return processContent(pageNumber, listenerFactory.createEventListener(pageNumber), additionalContentOperators, fonts);
+        }
+    }
 }
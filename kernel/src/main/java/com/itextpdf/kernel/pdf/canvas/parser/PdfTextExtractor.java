@@ -43,12 +43,17 @@
  */
 package com.itextpdf.kernel.pdf.canvas.parser;
 
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListenerFactory;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
 import com.itextpdf.kernel.pdf.PdfPage;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 public final class PdfTextExtractor {
 
@@ -93,4 +98,68 @@ public final class PdfTextExtractor {
     public static String getTextFromPage(PdfPage page) {
         return getTextFromPage(page, new LocationTextExtractionStrategy());
     }
+
+    /**
+     * Extracts text from the range of pages, each page with its own strategy created by the factory.
+     * The pages are processed concurrently by the executor, if the document is read with
+     * {@link com.itextpdf.kernel.pdf.ReaderProperties#setConcurrentReading(boolean)} enabled.
+     * See {@link PdfDocumentContentParser#processContent(int, int, IEventListenerFactory, Map, ExecutorService)} for details.
+     *
+     * @param pdfDocument     the document for the text to be extracted from
+     * @param startPage       the number of the first page
+     * @param endPage         the number of the last page, inclusive
+     * @param strategyFactory the factory creating the extraction strategy for every page
+     * @param executor        the executor which processes the pages. It is not shut down by this method.
+     * @return the text of the pages in page order
+     */
+    public static List<String> getTextFromPages(PdfDocument pdfDocument, int startPage, int endPage,
+                                                IEventListenerFactory<? extends ITextExtractionStrategy> strategyFactory, ExecutorService executor) {
+        return toText(new PdfDocumentContentParser(pdfDocument).processContent(startPage, endPage, strategyFactory,
+                new HashMap<String, IContentOperator>(), executor));
+    }
+
+    /**
+     * Extracts text from the range of pages, each page with its own strategy created by the factory.
+     * The pages are processed concurrently by the specified number of threads, if the document is read with
+     * {@link com.itextpdf.kernel.pdf.ReaderProperties#setConcurrentReading(boolean)} enabled.
+     *
+     * @param pdfDocument     the document for the text to be extracted from
+     * @param startPage       the number of the first page
+     * @param endPage         the number of the last page, inclusive
+     * @param strategyFactory the factory creating the extraction strategy for every page
+     * @param parallelism     the number of threads processing the pages
+     * @return the text of the pages in page order
+     */
+    public static List<String> getTextFromPages(PdfDocument pdfDocument, int startPage, int endPage,
+                                                IEventListenerFactory<? extends ITextExtractionStrategy> strategyFactory, int parallelism) {
+        return toText(new PdfDocumentContentParser(pdfDocument).processContent(startPage, endPage, strategyFactory, parallelism));
+    }
+
+    /**
+     * Extracts text from the range of pages using the default strategy.
+     * The pages are processed concurrently by the specified number of threads, if the document is read with
+     * {@link com.itextpdf.kernel.pdf.ReaderProperties#setConcurrentReading(boolean)} enabled.
+     *
+     * @param pdfDocument the document for the text to be extracted from
+     * @param startPage   the number of the first page
+     * @param endPage     the number of the last page, inclusive
+     * @param parallelism the number of threads processing the pages
+     * @return the text of the pages in page order
+     */
+    public static List<String> getTextFromPages(PdfDocument pdfDocument, int startPage, int endPage, int parallelism) {
+        return getTextFromPages(pdfDocument, startPage, endPage, new IEventListenerFactory<LocationTextExtractionStrategy>() {
+            @Override
+            public LocationTextExtractionStrategy createEventListener(int pageNumber) {
+                return new LocationTextExtractionStrategy();
+            }
+        }, parallelism);
+    }
+
+    private static List<String> toText(List<? extends ITextExtractionStrategy> strategies) {
+        List<String> text = new ArrayList<>(strategies.size());
+        for (ITextExtractionStrategy strategy : strategies) {
+            text.add(strategy.getResultantText());
+        }
+        return text;
+    }
 }
@@ -98,7 +98,8 @@ public class TextRenderInfo implements IEventData {
         this.string = str;
         this.textToUserSpaceTransformMatrix = textMatrix.multiply(gs.getCtm());
         this.gs = gs;
-        this.canvasTagHierarchy = Collections.<CanvasTag>unmodifiableList(new ArrayList<>(canvasTagHierarchy));
+        this.canvasTagHierarchy = canvasTagHierarchy.isEmpty() ? Collections.<CanvasTag>emptyList()
+                : Collections.<CanvasTag>unmodifiableList(new ArrayList<>(canvasTagHierarchy));
         this.fontMatrix = gs.getFont().getFontMatrix();
     }
 
@@ -65,6 +65,8 @@ import java.util.List;
  */
 public class PdfCanvasParser {
 
+    private static final byte[] BI = {(byte) 'B', (byte) 'I'};
+
     /**
      * Holds value of property tokeniser.
      */
@@ -115,7 +117,7 @@ public class PdfCanvasParser {
         while ((ob = readObject()) != null) {
             ls.add(ob);
             if (tokeniser.getTokenType() == PdfTokenizer.TokenType.Other) {
-                if (ob.toString().equals("BI")) {
+                if (tokeniser.tokenValueEqualsTo(BI)) {
                     PdfStream inlineImageAsStream = InlineImageParsingUtils.parse(this, currentResources.getResource(PdfName.ColorSpace));
                     ls.clear();
                     ls.add(inlineImageAsStream);
@@ -202,7 +204,7 @@ public class PdfCanvasParser {
                 PdfString str = new PdfString(tokeniser.getDecodedStringContent()).setHexWriting(tokeniser.isHexString());
                 return str;
             case Name:
-                return new PdfName(tokeniser.getByteContent());
+                return PdfName.intern(tokeniser.getByteContent());
             case Number:
                 //use PdfNumber(byte[]) here, as in this case number parsing won't happen until it's needed.
                 return new PdfNumber(tokeniser.getByteContent());
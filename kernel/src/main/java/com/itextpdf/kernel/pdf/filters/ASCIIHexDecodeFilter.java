@@ -51,11 +51,13 @@ import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfObject;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Handles ASCIIHexDecode filter
  */
-public class ASCIIHexDecodeFilter implements IFilterHandler {
+public class ASCIIHexDecodeFilter implements IStreamingFilterHandler {
 
     @Override
     public byte[] decode(byte[] b, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
@@ -63,6 +65,11 @@ public class ASCIIHexDecodeFilter implements IFilterHandler {
         return b;
     }
 
+    @Override
+    public InputStream createDecodingStream(InputStream in, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
+        return new ASCIIHexInputStream(in);
+    }
+
     /**
      * Decodes a byte[] according to ASCII Hex encoding.
      *
@@ -92,4 +99,45 @@ public class ASCIIHexDecodeFilter implements IFilterHandler {
             out.write((byte)(n1 << 4));
         return out.toByteArray();
     }
+
+    private static class ASCIIHexInputStream extends DecodingInputStream {
+
+        private byte[] buffer = new byte[CHUNK_SIZE];
+        private boolean first = true;
+        private int n1 = 0;
+
+        ASCIIHexInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        protected boolean decodeChunk() throws IOException {
+            int length = in.read(buffer);
+            if (length < 0) {
+                return finish();
+            }
+            for (int k = 0; k < length; ++k) {
+                int ch = buffer[k] & 0xff;
+                if (ch == '>')
+                    return finish();
+                if (PdfTokenizer.isWhitespace(ch))
+                    continue;
+                int n = ByteBuffer.getHex(ch);
+                if (n == -1)
+                    throw new PdfException(PdfException.IllegalCharacterInAsciihexdecode);
+                if (first)
+                    n1 = n;
+                else
+                    write((byte)((n1 << 4) + n));
+                first = !first;
+            }
+            return true;
+        }
+
+        private boolean finish() {
+            if (!first)
+                write((byte)(n1 << 4));
+            return false;
+        }
+    }
 }
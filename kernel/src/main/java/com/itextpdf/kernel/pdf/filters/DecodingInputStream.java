@@ -0,0 +1,146 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Base class for the streams, which decode the data of the wrapped stream chunk by chunk.
+ */
+abstract class DecodingInputStream extends InputStream {
+
+    static final int CHUNK_SIZE = 8192;
+
+    protected final InputStream in;
+    private byte[] decoded = new byte[CHUNK_SIZE];
+    private int position;
+    private int count;
+    private boolean finished;
+    private byte[] sb = new byte[1];
+
+    DecodingInputStream(InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(sb, 0, 1) == -1 ? -1 : sb[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (position == count) {
+            if (finished) {
+                return -1;
+            }
+            position = 0;
+            count = 0;
+            finished = !decodeChunk();
+        }
+        int n = Math.min(len, count - position);
+        System.arraycopy(decoded, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Decodes the next portion of the data and writes it with {@link #write(int)} or {@link #write(byte[], int, int)}.
+     *
+     * @return false if the end of the data is reached.
+     * @throws IOException if an I/O error occurs.
+     */
+    protected abstract boolean decodeChunk() throws IOException;
+
+    protected void write(int b) {
+        ensureCapacity(1);
+        decoded[count++] = (byte) b;
+    }
+
+    protected void write(byte[] b, int off, int len) {
+        ensureCapacity(len);
+        System.arraycopy(b, off, decoded, count, len);
+        count += len;
+    }
+
+    /**
+     * Reads as many bytes as possible into the buffer, until the buffer is full or the end of stream is reached.
+     *
+     * @return the number of read bytes.
+     */
+    protected int readFully(byte[] b, int off, int len) throws IOException {
+        int total = 0;
+        while (total < len) {
+            int n = in.read(b, off + total, len - total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of bytes decoded by the current {@link #decodeChunk()} call.
+     */
+    protected int getDecodedCount() {
+        return count;
+    }
+
+    private void ensureCapacity(int len) {
+        if (count + len > decoded.length) {
+            byte[] newDecoded = new byte[Math.max(decoded.length << 1, count + len)];
+            System.arraycopy(decoded, 0, newDecoded, 0, count);
+            decoded = newDecoded;
+        }
+    }
+}
@@ -47,10 +47,12 @@ import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfObject;
 
+import java.io.InputStream;
+
 /**
  * A filter that doesn't modify the stream at all
  */
-public class DoNothingFilter implements IFilterHandler {
+public class DoNothingFilter implements IStreamingFilterHandler {
     private PdfName lastFilterName;
     @Override
     public byte[] decode(byte[] b, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
@@ -58,6 +60,12 @@ public class DoNothingFilter implements IFilterHandler {
         return b;
     }
 
+    @Override
+    public InputStream createDecodingStream(InputStream in, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
+        lastFilterName = filterName;
+        return in;
+    }
+
     public PdfName getLastFilterName() {
         return lastFilterName;
     }
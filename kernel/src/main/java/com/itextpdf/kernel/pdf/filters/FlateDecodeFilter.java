@@ -49,26 +49,68 @@ import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfNumber;
 import com.itextpdf.kernel.pdf.PdfObject;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 /**
  * Handles FlateDecode filter.
  */
-public class FlateDecodeFilter implements IFilterHandler {
+public class FlateDecodeFilter implements IStreamingFilterHandler {
+
+    /**
+     * The maximum number of idle {@link Inflater} instances kept for reuse.
+     */
+    private static final int MAX_POOLED_INFLATERS = 16;
+
+    /**
+     * The maximum number of bytes inflated by one {@link Inflater#inflate(byte[], int, int)} call.
+     * In case of corrupted data only the last portion is inflated once more byte by byte.
+     */
+    private static final int INFLATE_PORTION = 8192;
+
+    /**
+     * The size of the input portions, by which the data is fed to the {@link Inflater} during the recovery.
+     * The same as the buffer size of {@link InflaterInputStream}.
+     */
+    private static final int RECOVERY_INPUT_PORTION = 512;
+
+    /**
+     * The maximum compression ratio of deflate is about 1032:1,
+     * bigger /DL values can't be trusted.
+     */
+    private static final int MAX_COMPRESSION_RATIO = 1032;
+
+    private static final Deque<Inflater> inflaterPool = new ArrayDeque<>();
 
     @Override
     public byte[] decode(byte[] b, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
-        byte[] res = flateDecode(b, true);
-        if (res == null)
-            res = flateDecode(b, false);
-        b = decodePredictor(res, decodeParams);
+        int lengthHint = -1;
+        PdfNumber decodedLength = streamDictionary != null ? streamDictionary.getAsNumber(PdfName.DL) : null;
+        if (decodedLength != null) {
+            lengthHint = decodedLength.intValue();
+        }
+        byte[] res = inflate(b, false, lengthHint);
+        b = decodePredictor(res, decodeParams, true);
         return b;
     }
 
+    @Override
+    public InputStream createDecodingStream(InputStream in, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
+        LenientInflaterInputStream inflaterStream = new LenientInflaterInputStream(in);
+        try {
+            return PredictorInputStream.create(inflaterStream, decodeParams);
+        } catch (RuntimeException e) {
+            inflaterStream.releaseInflater();
+            throw e;
+        }
+    }
+
     /**
      * A helper to flateDecode.
      *
@@ -77,32 +119,28 @@ public class FlateDecodeFilter implements IFilterHandler {
      * @return the decoded data
      */
     public static byte[] flateDecode(byte[] in, boolean strict) {
-        ByteArrayInputStream stream = new ByteArrayInputStream(in);
-        InflaterInputStream zip = new InflaterInputStream(stream);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        byte[] b = new byte[strict ? 4092 : 1];
-        try {
-            int n;
-            while ((n = zip.read(b)) >= 0) {
-                out.write(b, 0, n);
-            }
-            zip.close();
-            out.close();
-            return out.toByteArray();
-        }
-        catch (Exception e) {
-            if (strict)
-                return null;
-            return out.toByteArray();
-        }
+        return inflate(in, strict, -1);
     }
 
     /**
-     * @param in Input byte array.
+     * @param in Input byte array. It is not modified.
      * @param decodeParams PdfDictionary of decodeParams.
      * @return a byte array
      */
     public static byte[] decodePredictor(byte[] in, PdfObject decodeParams) {
+        return decodePredictor(in, decodeParams, false);
+    }
+
+    /**
+     * Reverts the predictor.
+     *
+     * @param in the input data
+     * @param decodeParams the decode parameters
+     * @param inPlace {@code true} to decode right in the input array, which gets overwritten.
+     *                Only for the callers which own the input array.
+     * @return the decoded data
+     */
+    static byte[] decodePredictor(byte[] in, PdfObject decodeParams, boolean inPlace) {
         if (decodeParams == null || decodeParams.getType() != PdfObject.DICTIONARY)
             return in;
         PdfDictionary dic = (PdfDictionary)decodeParams;
@@ -124,14 +162,13 @@ public class FlateDecodeFilter implements IFilterHandler {
         obj = dic.get(PdfName.BitsPerComponent);
         if (obj != null && obj.getType() == PdfObject.NUMBER)
             bpc = ((PdfNumber)obj).intValue();
-        DataInputStream dataStream = new DataInputStream(new ByteArrayInputStream(in));
-        ByteArrayOutputStream fout = new ByteArrayOutputStream(in.length);
         int bytesPerPixel = colors * bpc / 8;
         int bytesPerRow = (colors * width * bpc + 7)/8;
-        byte[] curr = new byte[bytesPerRow];
-        byte[] prior = new byte[bytesPerRow];
         if (predictor == 2) {
             if (bpc == 8) {
+                if (!inPlace) {
+                    in = in.clone();
+                }
                 int numRows = in.length / bytesPerRow;
                 for (int row = 0; row < numRows; row++) {
                     int rowStart = row * bytesPerRow;
@@ -142,50 +179,51 @@ public class FlateDecodeFilter implements IFilterHandler {
             }
             return in;
         }
-        // Decode the (sub)image row-by-row
-        while (true) {
-            // Read the filter type byte and a row of data
-            int filter;
-            try {
-                filter = dataStream.read();
-                if (filter < 0) {
-                    return fout.toByteArray();
-                }
-                dataStream.readFully(curr, 0, bytesPerRow);
-            } catch (Exception e) {
-                return fout.toByteArray();
-            }
-
+        if (bytesPerRow <= 0) {
+            return new byte[0];
+        }
+        // Decode the (sub)image row-by-row. When decoding in place, each row is preceded by the filter type byte,
+        // so the decoded row is always written before the encoded one and the prior row stays intact.
+        int numRows = in.length / (bytesPerRow + 1);
+        byte[] out = inPlace ? in : new byte[numRows * bytesPerRow];
+        for (int row = 0; row < numRows; row++) {
+            int src = row * (bytesPerRow + 1) + 1;
+            int curr = row * bytesPerRow;
+            int prior = curr - bytesPerRow;
+            int filter = in[src - 1] & 0xff;
             switch (filter) {
                 case 0: //PNG_FILTER_NONE
+                    System.arraycopy(in, src, out, curr, bytesPerRow);
                     break;
                 case 1: //PNG_FILTER_SUB
-                    for (int i = bytesPerPixel; i < bytesPerRow; i++) {
-                        curr[i] += curr[i - bytesPerPixel];
+                    for (int i = 0; i < bytesPerRow; i++) {
+                        out[curr + i] = i < bytesPerPixel ? in[src + i] : (byte) (in[src + i] + out[curr + i - bytesPerPixel]);
                     }
                     break;
                 case 2: //PNG_FILTER_UP
                     for (int i = 0; i < bytesPerRow; i++) {
-                        curr[i] += prior[i];
+                        out[curr + i] = row == 0 ? in[src + i] : (byte) (in[src + i] + out[prior + i]);
                     }
                     break;
                 case 3: //PNG_FILTER_AVERAGE
-                    for (int i = 0; i < bytesPerPixel; i++) {
-                        curr[i] += (byte) (prior[i] / 2);
-                    }
-                    for (int i = bytesPerPixel; i < bytesPerRow; i++) {
-                        curr[i] += (byte) (((curr[i - bytesPerPixel] & 0xff) + (prior[i] & 0xff))/2);
+                    for (int i = 0; i < bytesPerRow; i++) {
+                        int up = row == 0 ? 0 : out[prior + i];
+                        if (i < bytesPerPixel) {
+                            out[curr + i] = (byte) (in[src + i] + up / 2);
+                        } else {
+                            out[curr + i] = (byte) (in[src + i] + (((out[curr + i - bytesPerPixel] & 0xff) + (up & 0xff)) / 2));
+                        }
                     }
                     break;
                 case 4: //PNG_FILTER_PAETH
-                    for (int i = 0; i < bytesPerPixel; i++) {
-                        curr[i] += prior[i];
-                    }
-
-                    for (int i = bytesPerPixel; i < bytesPerRow; i++) {
-                        int a = curr[i - bytesPerPixel] & 0xff;
-                        int b = prior[i] & 0xff;
-                        int c = prior[i - bytesPerPixel] & 0xff;
+                    for (int i = 0; i < bytesPerRow; i++) {
+                        int b = row == 0 ? 0 : out[prior + i] & 0xff;
+                        if (i < bytesPerPixel) {
+                            out[curr + i] = (byte) (in[src + i] + b);
+                            continue;
+                        }
+                        int a = out[curr + i - bytesPerPixel] & 0xff;
+                        int c = row == 0 ? 0 : out[prior + i - bytesPerPixel] & 0xff;
 
                         int p = a + b - c;
                         int pa = Math.abs(p - a);
@@ -201,25 +239,184 @@ public class FlateDecodeFilter implements IFilterHandler {
                         } else {
                             ret = c;
                         }
-                        curr[i] += (byte)ret;
+                        out[curr + i] = (byte) (in[src + i] + ret);
                     }
                     break;
                 default:
                     // Error -- unknown filter type
                     throw new PdfException(PdfException.PngFilterUnknown);
             }
+        }
+        // an incomplete last row is dropped
+        return inPlace ? Arrays.copyOf(out, numRows * bytesPerRow) : out;
+    }
+
+    /**
+     * Inflates the data with a pooled {@link Inflater}.
+     *
+     * @param in the input data
+     * @param strict {@code true} to return {@code null} for a corrupted stream,
+     *               {@code false} to return the data inflated before the error.
+     * @param lengthHint the expected length of the inflated data, or -1 if unknown.
+     * @return the decoded data
+     */
+    private static byte[] inflate(byte[] in, boolean strict, int lengthHint) {
+        long maxLength = (long) in.length * MAX_COMPRESSION_RATIO + INFLATE_PORTION;
+        if (lengthHint <= 0 || lengthHint > maxLength) {
+            lengthHint = (int) Math.min(Math.max((long) in.length * 4, 64), maxLength);
+        }
+        byte[] out = new byte[lengthHint];
+        int count = 0;
+        Inflater inflater = obtainInflater();
+        try {
+            inflater.setInput(in);
+            try {
+                while (!inflater.finished()) {
+                    if (count == out.length) {
+                        out = Arrays.copyOf(out, grow(out.length));
+                    }
+                    int n = inflater.inflate(out, count, Math.min(out.length - count, INFLATE_PORTION));
+                    if (n == 0 && !inflater.finished()) {
+                        // unexpected end of the data
+                        if (strict) {
+                            return null;
+                        }
+                        break;
+                    }
+                    count += n;
+                }
+            } catch (DataFormatException e) {
+                if (strict) {
+                    return null;
+                }
+                inflater.reset();
+                inflater.setInput(in);
+                out = recover(inflater, in, out, count);
+                count = out.length;
+            }
+        } finally {
+            releaseInflater(inflater);
+        }
+        return count == out.length ? out : Arrays.copyOf(out, count);
+    }
+
+    /**
+     * Inflates the data once more up to the last successfully inflated portion in bulk,
+     * and the rest byte by byte, until the corrupted part is reached.
+     */
+    private static byte[] recover(Inflater inflater, byte[] in, byte[] out, int validCount) {
+        int count = 0;
+        try {
+            while (count < validCount) {
+                int n = inflater.inflate(out, count, validCount - count);
+                if (n == 0) {
+                    break;
+                }
+                count += n;
+            }
+            // the input is fed by the same portions as InflaterInputStream does,
+            // so that exactly the same data is recovered as with reading the stream byte by byte
+            int position = in.length - inflater.getRemaining();
+            int end = Math.min(in.length, (position + RECOVERY_INPUT_PORTION - 1) / RECOVERY_INPUT_PORTION * RECOVERY_INPUT_PORTION);
+            inflater.setInput(in, position, end - position);
+            position = end;
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    if (position == in.length) {
+                        break;
+                    }
+                    end = Math.min(in.length, position + RECOVERY_INPUT_PORTION);
+                    inflater.setInput(in, position, end - position);
+                    position = end;
+                }
+                if (count == out.length) {
+                    out = Arrays.copyOf(out, grow(out.length));
+                }
+                int n = inflater.inflate(out, count, 1);
+                if (n == 0 && inflater.needsDictionary()) {
+                    break;
+                }
+                count += n;
+            }
+        } catch (DataFormatException ignored) {
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    private static int grow(int length) {
+        return (int) Math.min((long) length << 1, Integer.MAX_VALUE - 8);
+    }
+
+    private static Inflater obtainInflater() {
+        synchronized (inflaterPool) {
+            Inflater inflater = inflaterPool.pollFirst();
+            if (inflater != null) {
+                return inflater;
+            }
+        }
+        return new Inflater();
+    }
+
+    private static void releaseInflater(Inflater inflater) {
+        inflater.reset();
+        synchronized (inflaterPool) {
+            if (inflaterPool.size() < MAX_POOLED_INFLATERS) {
+                inflaterPool.addFirst(inflater);
+                return;
+            }
+        }
+        inflater.end();
+    }
+
+    /**
+     * Inflates the data like {@link #flateDecode(byte[], boolean)} in not strict mode:
+     * in case of corrupted data, the data inflated before the error is returned.
+     */
+    private static class LenientInflaterInputStream extends InflaterInputStream {
+
+        private boolean released;
+
+        LenientInflaterInputStream(InputStream in) {
+            super(in, obtainInflater());
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (released) {
+                return -1;
+            }
             try {
-                fout.write(curr);
+                int n = super.read(b, off, len);
+                if (n < 0) {
+                    // the inflater is returned to the pool as soon as it isn't needed, even if the stream is never closed
+                    releaseInflater();
+                }
+                return n;
+            } catch (IOException e) {
+                releaseInflater();
+                return -1;
             }
-            catch (IOException ioe) {
-                // Never happens
-                assert true: "Happens!";
+        }
+
+        @Override
+        public int available() throws IOException {
+            return released ? 0 : super.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                releaseInflater();
             }
+        }
 
-            // Swap curr and prior
-            byte[] tmp = prior;
-            prior = curr;
-            curr = tmp;
+        void releaseInflater() {
+            if (!released) {
+                released = true;
+                FlateDecodeFilter.releaseInflater(inf);
+            }
         }
     }
 }
@@ -43,24 +43,32 @@
  */
 package com.itextpdf.kernel.pdf.filters;
 
+import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfObject;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Handles LZWDECODE filter
  */
-public class LZWDecodeFilter implements IFilterHandler {
+public class LZWDecodeFilter implements IStreamingFilterHandler {
 
     @Override
     public byte[] decode(byte[] b, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
         b = LZWDecode(b);
-        b = FlateDecodeFilter.decodePredictor(b, decodeParams);
+        b = FlateDecodeFilter.decodePredictor(b, decodeParams, true);
         return b;
     }
 
+    @Override
+    public InputStream createDecodingStream(InputStream in, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
+        return PredictorInputStream.create(new LZWInputStream(in), decodeParams);
+    }
+
     /**
      * Decodes a byte[] according to the LZW encoding.
      *
@@ -73,4 +81,103 @@ public class LZWDecodeFilter implements IFilterHandler {
         lzw.decode(in, out);
         return out.toByteArray();
     }
+
+    /**
+     * The streaming counterpart of {@link LZWDecoder#decode(byte[], java.io.OutputStream)}, which uses
+     * the string table of {@link LZWDecoder}, but reads the codes directly from the wrapped stream.
+     */
+    private static class LZWInputStream extends DecodingInputStream {
+
+        private LZWDecoder lzw = new LZWDecoder();
+        private byte[] input = new byte[CHUNK_SIZE];
+        private int inputPosition;
+        private int inputLength;
+        private boolean started;
+        private int nextData = 0;
+        private int nextBits = 0;
+        private int oldCode = 0;
+
+        LZWInputStream(InputStream in) {
+            super(in);
+            lzw.initializeStringTable();
+        }
+
+        @Override
+        protected boolean decodeChunk() throws IOException {
+            if (!started) {
+                started = true;
+                inputLength = readFully(input, 0, input.length);
+                if (inputLength > 1 && input[0] == (byte) 0x00 && input[1] == (byte) 0x01) {
+                    throw new PdfException(PdfException.LzwFlavourNotSupported);
+                }
+            }
+            byte[] string;
+            while (getDecodedCount() < CHUNK_SIZE) {
+                int code = getNextCode();
+                if (code == 257) {
+                    return false;
+                }
+                if (code == 256) {
+                    lzw.initializeStringTable();
+                    code = getNextCode();
+                    if (code == 257) {
+                        return false;
+                    }
+                    writeString(lzw.stringTable[code]);
+                    oldCode = code;
+                } else {
+                    if (code < lzw.tableIndex) {
+                        string = lzw.stringTable[code];
+                        writeString(string);
+                        lzw.addStringToTable(lzw.stringTable[oldCode], string[0]);
+                        oldCode = code;
+                    } else {
+                        string = lzw.stringTable[oldCode];
+                        string = lzw.composeString(string, string[0]);
+                        writeString(string);
+                        lzw.addStringToTable(string);
+                        oldCode = code;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void writeString(byte[] string) {
+            write(string, 0, string.length);
+        }
+
+        // Returns the next 9, 10, 11 or 12 bits, or EndOfInformation code if the data is over
+        private int getNextCode() throws IOException {
+            int b = nextByte();
+            if (b < 0) {
+                return 257;
+            }
+            nextData = (nextData << 8) | b;
+            nextBits += 8;
+            if (nextBits < lzw.bitsToGet) {
+                b = nextByte();
+                if (b < 0) {
+                    return 257;
+                }
+                nextData = (nextData << 8) | b;
+                nextBits += 8;
+            }
+            int code = (nextData >> (nextBits - lzw.bitsToGet)) & lzw.andTable[lzw.bitsToGet - 9];
+            nextBits -= lzw.bitsToGet;
+            return code;
+        }
+
+        private int nextByte() throws IOException {
+            if (inputPosition == inputLength) {
+                inputLength = in.read(input);
+                inputPosition = 0;
+                if (inputLength <= 0) {
+                    inputLength = 0;
+                    return -1;
+                }
+            }
+            return input[inputPosition++] & 0xff;
+        }
+    }
 }
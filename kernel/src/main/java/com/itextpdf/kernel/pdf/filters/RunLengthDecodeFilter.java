@@ -48,11 +48,13 @@ import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfObject;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Handles RunLengthDecode filter.
  */
-public class RunLengthDecodeFilter implements IFilterHandler {
+public class RunLengthDecodeFilter implements IStreamingFilterHandler {
 
     @Override
     public byte[] decode(byte[] b, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
@@ -65,7 +67,7 @@ public class RunLengthDecodeFilter implements IFilterHandler {
             }
             if (dupCount >= 0) {
                 int bytesToCopy = dupCount + 1;
-                baos.write(b, i, bytesToCopy);
+                baos.write(b, i + 1, bytesToCopy);
                 i += bytesToCopy;
             } else {                // make dupcount copies of the next byte
                 i++;
@@ -76,4 +78,45 @@ public class RunLengthDecodeFilter implements IFilterHandler {
         }
         return baos.toByteArray();
     }
+
+    @Override
+    public InputStream createDecodingStream(InputStream in, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
+        return new RunLengthInputStream(in);
+    }
+
+    private static class RunLengthInputStream extends DecodingInputStream {
+
+        private byte[] run = new byte[128];
+
+        RunLengthInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        protected boolean decodeChunk() throws IOException {
+            while (getDecodedCount() < CHUNK_SIZE) {
+                int dupCount = in.read();
+                if (dupCount < 0 || dupCount == 0x80) { // 0x80 is implicit end of data
+                    return false;
+                }
+                if (dupCount < 0x80) {
+                    int bytesToCopy = dupCount + 1;
+                    int n = readFully(run, 0, bytesToCopy);
+                    write(run, 0, n);
+                    if (n < bytesToCopy) {
+                        return false;
+                    }
+                } else {                // make dupcount copies of the next byte
+                    int b = in.read();
+                    if (b < 0) {
+                        return false;
+                    }
+                    for (int j = 0; j < 257 - dupCount; j++) {
+                        write(b);
+                    }
+                }
+            }
+            return true;
+        }
+    }
 }
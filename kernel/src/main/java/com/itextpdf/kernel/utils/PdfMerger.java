@@ -43,7 +43,9 @@
  */
 package com.itextpdf.kernel.utils;
 
+import com.itextpdf.kernel.pdf.PdfCopyContext;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -55,6 +57,7 @@ public class PdfMerger {
     private boolean closeSrcDocuments;
     private boolean mergeTags;
     private boolean mergeOutlines;
+    private boolean streamingMode;
 
     /**
      * This class is used to merge a number of existing documents into one. By default, if source document
@@ -93,6 +96,40 @@ public class PdfMerger {
         return this;
     }
 
+    /**
+     * Enables or disables the streaming merge.
+     * <br/><br/>
+     * In streaming mode each merged page is flushed together with its resources right after it's copied, so
+     * the memory consumption doesn't depend on the number of merged pages. Resources shared by the merged
+     * pages are still written once. Enabling the streaming mode also enables closing of the source documents
+     * (see {@link #setCloseSourceDocuments(boolean)}), and the objects copied from the closed documents are
+     * forgotten. The source documents may be left open with {@code setCloseSourceDocuments(false)}, e.g. if pages
+     * of the same template are merged many times. Note, that pages can't be modified after they were merged
+     * in streaming mode.
+     * @param streamingMode true to enable the streaming merge.
+     * @return this {@code PdfMerger} instance.
+     */
+    public PdfMerger setStreamingMode(boolean streamingMode) {
+        this.streamingMode = streamingMode;
+        if (streamingMode) {
+            this.closeSrcDocuments = true;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the context, which keeps the objects copied to the current document. Objects shared by the merged
+     * pages, such as fonts and images, are copied once as long as their source document is open, no matter
+     * how many times it is merged. The same context may be set to the mergers of the documents, which are
+     * assembled one after another, in order to reuse its memory. See {@link PdfCopyContext}.
+     * @param copyContext the copy context.
+     * @return this {@code PdfMerger} instance.
+     */
+    public PdfMerger setCopyContext(PdfCopyContext copyContext) {
+        pdfDocument.getWriter().setCopyContext(copyContext);
+        return this;
+    }
+
     /**
      * This method merges pages from the source document to the current one.
      * <br/><br/>
@@ -128,9 +165,19 @@ public class PdfMerger {
             pdfDocument.initializeOutlines();
         }
 
-        from.copyPagesTo(pages, pdfDocument);
+        List<PdfPage> mergedPages = from.copyPagesTo(pages, pdfDocument);
+        if (streamingMode) {
+            for (PdfPage page : mergedPages) {
+                page.flush(true);
+            }
+        }
         if (closeSrcDocuments) {
             from.close();
+            if (streamingMode) {
+                // the copies of the closed document can't be reused, so they are written at once, unless they may be
+                // modified by the tag structure of the following documents
+                pdfDocument.getWriter().getCopyContext().removeSourceDocument(from, !pdfDocument.isTagged());
+            }
         }
         return this;
     }
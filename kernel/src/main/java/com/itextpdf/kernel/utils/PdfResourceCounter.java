@@ -57,7 +57,11 @@ import java.util.Map;
 /**
  * This class can be used to count the number of bytes needed when copying
  * pages from an existing PDF into a newly created PDF.
+ *
+ * @deprecated Will be removed in 7.1. It is not used by {@link PdfSplitter#splitBySize(long)} anymore, which
+ * estimates the size of the split documents in a single pass over the pages.
  */
+@Deprecated
 public class PdfResourceCounter {
 
     /**
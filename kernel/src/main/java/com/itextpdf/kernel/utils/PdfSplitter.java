@@ -43,19 +43,28 @@
  */
 package com.itextpdf.kernel.utils;
 
+import com.itextpdf.io.util.IdelOutputStream;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfOutline;
+import com.itextpdf.kernel.pdf.PdfOutputStream;
 import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.PdfWriter;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
 
 public class PdfSplitter {
 
@@ -97,24 +106,56 @@ public class PdfSplitter {
 
     /**
      * Splits the document basing on the given size.
+     * <p/>
+     * Pages are added to the current split document as long as its estimated size doesn't exceed the given size.
+     * The size of every object of the document is calculated once: the length of the serialized dictionary plus
+     * the length of the stream data as it is stored in the document, and the objects shared by the pages
+     * of the same split document are counted once. The estimation doesn't take into account compression
+     * of the resultant documents, so they're usually a bit smaller than estimated.
+     * A split document with a single page may exceed the given size, if the page itself is too large.
+     * Each split document is passed to the listener as soon as it's complete, before the next one is created.
      *
-     * @param size <strog>Preferred</strog> size for splitting.
+     * @param size          the maximum size of a split document in bytes.
+     * @param documentReady the event listener which is called when another document is ready.
+     *                      You can close this document in this listener, for instance.
+     */
+    public void splitBySize(long size, IDocumentReadyListener documentReady) {
+        SizeEstimator estimator = new SizeEstimator();
+        int numOfPages = pdfDocument.getNumberOfPages();
+        int startPage = 1;
+        while (startPage <= numOfPages) {
+            estimator.startDocument();
+            int endPage = startPage;
+            estimator.addPage(pdfDocument.getPage(startPage));
+            while (endPage < numOfPages && estimator.addPage(pdfDocument.getPage(endPage + 1)) <= size) {
+                endPage++;
+            }
+            PageRange currentPageRange = new PageRange().addPageSequence(startPage, endPage);
+            PdfDocument currentDocument = createPdfDocument(currentPageRange);
+            pdfDocument.copyPagesTo(startPage, endPage, currentDocument);
+            documentReady.documentReady(currentDocument, currentPageRange);
+            startPage = endPage + 1;
+        }
+    }
+
+    /**
+     * Splits the document basing on the given size. See {@link #splitBySize(long, IDocumentReadyListener)}.
+     *
+     * @param size the maximum size of a split document in bytes.
      * @return The documents which the source document was split into.
      *         Be warned that these documents are not closed.
      */
     public List<PdfDocument> splitBySize(long size) {
-        List<PageRange> splitRanges = new ArrayList<>();
-        int currentPage = 1;
-        int numOfPages = pdfDocument.getNumberOfPages();
+        final List<PdfDocument> splitDocuments = new ArrayList<>();
 
-        while (currentPage <= numOfPages) {
-            PageRange nextRange = getNextRange(currentPage, numOfPages, size);
-            splitRanges.add(nextRange);
-            List<Integer> allPages = nextRange.getQualifyingPageNums(numOfPages);
-            currentPage = (int) allPages.get(allPages.size() - 1) + 1;
-        }
+        splitBySize(size, new IDocumentReadyListener() {
+            @Override
+            public void documentReady(PdfDocument pdfDocument, PageRange pageRange) {
+                splitDocuments.add(pdfDocument);
+            }
+        });
 
-        return extractPageRanges(splitRanges);
+        return splitDocuments;
     }
 
     /**
@@ -358,35 +399,123 @@ public class PdfSplitter {
         return nextPdfOutline;
     }
 
-    private PageRange getNextRange(int startPage, int endPage, long size) {
-        PdfResourceCounter counter = new PdfResourceCounter(pdfDocument.getTrailer());
-        Map<Integer, PdfObject> resources = counter.getResources();
-        long lengthWithoutXref = counter.getLength(null); // initialize with trailer length
-        int currentPage = startPage;
-        boolean oversized = false;
-
-        do {
-            PdfPage page = pdfDocument.getPage(currentPage++);
-            counter = new PdfResourceCounter(page.getPdfObject());
-            lengthWithoutXref += counter.getLength(resources);
-            resources.putAll(counter.getResources());
-
-            if (lengthWithoutXref + xrefLength(resources.size()) > size) {
-                oversized = true;
-            }
-        } while (currentPage <= endPage && !oversized);
+    /**
+     * Estimates the size of a split document page by page.
+     */
+    private class SizeEstimator {
+        /**
+         * The header, the catalog, the page tree root, the document info, the xref table header and the trailer.
+         */
+        private static final int DOCUMENT_OVERHEAD = 1024;
+        /**
+         * The object header, "endobj" and the xref table entry.
+         */
+        private static final int OBJECT_OVERHEAD = 48;
+        /**
+         * "stream" and "endstream" keywords.
+         */
+        private static final int STREAM_OVERHEAD = 18;
+        /**
+         * The reference in the /Kids array of the page tree.
+         */
+        private static final int PAGE_OVERHEAD = 12;
+
+        private final PdfOutputStream serializer = new PdfOutputStream(new IdelOutputStream());
+        /**
+         * The sizes of the objects of the split document by their numbers, zero if the size wasn't calculated yet.
+         */
+        private long[] objectSizes = new long[pdfDocument.getNumberOfPdfObjects() + 1];
+        /**
+         * The numbers of the objects, which are already counted in the current split document.
+         */
+        private final BitSet countedObjects = new BitSet();
+        private final Deque<PdfObject> objectsToCount = new ArrayDeque<>();
+        private long documentSize;
+
+        void startDocument() {
+            countedObjects.clear();
+            documentSize = DOCUMENT_OVERHEAD;
+        }
 
-        // true if at least the first page to be copied didn't cause the oversize
-        if (oversized && (currentPage - 1) != startPage) {
-            // we shouldn't copy previous page because it caused
-            // the oversize and it isn't the first page to be copied
-            --currentPage;
+        /**
+         * Adds the page and the objects it uses to the current split document.
+         *
+         * @return the size of the split document with the page.
+         */
+        long addPage(PdfPage page) {
+            PdfDictionary pageDictionary = page.getPdfObject();
+            documentSize += PAGE_OVERHEAD;
+            countObject(pageDictionary, pageDictionary);
+            while (!objectsToCount.isEmpty()) {
+                PdfObject obj = objectsToCount.pop();
+                switch (obj.getType()) {
+                    case PdfObject.ARRAY:
+                        PdfArray array = (PdfArray) obj;
+                        for (int i = 0; i < array.size(); i++) {
+                            countObject(array.get(i, false), pageDictionary);
+                        }
+                        break;
+                    case PdfObject.DICTIONARY:
+                    case PdfObject.STREAM:
+                        for (PdfObject value : ((PdfDictionary) obj).values(false)) {
+                            countObject(value, pageDictionary);
+                        }
+                        break;
+                }
+            }
+            return documentSize;
         }
 
-        return new PageRange().addPageSequence(startPage, currentPage - 1);
-    }
+        private void countObject(PdfObject obj, PdfDictionary pageDictionary) {
+            if (obj == null) {
+                return;
+            }
+            if (obj.isIndirectReference()) {
+                PdfIndirectReference reference = (PdfIndirectReference) obj;
+                if (countedObjects.get(reference.getObjNumber())) {
+                    return;
+                }
+                obj = reference.getRefersTo();
+                if (obj == null) {
+                    return;
+                }
+            }
+            // the page tree and the other pages are not copied together with the page
+            if (obj.isDictionary() && obj != pageDictionary && (PdfName.Pages.equals(((PdfDictionary) obj).get(PdfName.Type))
+                    || PdfName.Page.equals(((PdfDictionary) obj).get(PdfName.Type)))) {
+                return;
+            }
+            PdfIndirectReference reference = obj.getIndirectReference();
+            if (reference != null) {
+                if (countedObjects.get(reference.getObjNumber())) {
+                    return;
+                }
+                countedObjects.set(reference.getObjNumber());
+                documentSize += getObjectSize(reference.getObjNumber(), obj);
+            }
+            if (obj.isArray() || obj.isDictionary() || obj.isStream()) {
+                objectsToCount.push(obj);
+            }
+        }
 
-    private long xrefLength(int size) {
-        return 20L * (size + 1);
+        private long getObjectSize(int objNumber, PdfObject obj) {
+            if (objNumber >= objectSizes.length) {
+                objectSizes = Arrays.copyOf(objectSizes, Math.max(objNumber + 1, objectSizes.length * 2));
+            }
+            if (objectSizes[objNumber] == 0) {
+                long start = serializer.getCurrentPos();
+                long size = OBJECT_OVERHEAD;
+                if (obj.isStream()) {
+                    PdfStream stream = (PdfStream) obj;
+                    serializer.write(new PdfDictionary(stream));
+                    int length = stream.getLength();
+                    size += STREAM_OVERHEAD + (length >= 0 ? length : stream.getBytes(false).length);
+                } else {
+                    serializer.write(obj.clone());
+                }
+                objectSizes[objNumber] = size + serializer.getCurrentPos() - start;
+            }
+            return objectSizes[objNumber];
+        }
     }
 }
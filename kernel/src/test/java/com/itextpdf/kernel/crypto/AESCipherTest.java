@@ -0,0 +1,137 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.crypto;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+@Category(UnitTest.class)
+public class AESCipherTest {
+
+    private static final byte[] KEY_128 = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+    private static final byte[] IV = {16, 15, 14, 13, 12, 11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1};
+
+    @Test
+    public void encryptionTest() {
+        Random random = new Random(15);
+        for (int length : new int[] {0, 1, 15, 16, 17, 31, 32, 100, 10000}) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            byte[] expected = process(new AESCipher(true, KEY_128, IV, false), data, 7);
+            Assert.assertArrayEquals(expected, process(new AESCipher(true, KEY_128, IV, true), data, 7));
+            Assert.assertArrayEquals(expected, process(new AESCipher(true, KEY_128, IV, true), data, length + 1));
+            Assert.assertArrayEquals(data, process(new AESCipher(false, KEY_128, IV, true), expected, 5));
+            Assert.assertArrayEquals(data, process(new AESCipher(false, KEY_128, IV, true), expected, 16));
+        }
+    }
+
+    @Test
+    public void corruptedDataDecryptionTest() {
+        Random random = new Random(42);
+        // incomplete last block, wrong padding and empty data are processed in the same way as by Bouncy Castle
+        for (int length : new int[] {0, 5, 16, 17, 32, 45, 64}) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            for (int portion : new int[] {1, 16, 20, 100}) {
+                byte[] expected = process(new AESCipher(false, KEY_128, IV, false), data, portion);
+                Assert.assertArrayEquals(expected, process(new AESCipher(false, KEY_128, IV, true), data, portion));
+            }
+        }
+    }
+
+    @Test
+    public void decryptionIntoBufferTest() {
+        byte[] data = new byte[1000];
+        new Random(3).nextBytes(data);
+        byte[] encryptedObject = concat(IV, process(new AESCipher(true, KEY_128, IV), data, data.length));
+
+        AesDecryptor decryptor = new AesDecryptor(KEY_128, 0, KEY_128.length);
+        byte[] out = new byte[encryptedObject.length + 32];
+        int n = decryptor.update(encryptedObject, 0, 10, out, 0);
+        n += decryptor.update(encryptedObject, 10, encryptedObject.length - 10, out, n);
+        n += decryptor.finish(out, n);
+        Assert.assertArrayEquals(data, Arrays.copyOf(out, n));
+    }
+
+    @Test
+    public void cbcNoPaddingTest() {
+        byte[] key = new byte[32];
+        byte[] data = new byte[64];
+        new Random(7).nextBytes(key);
+        new Random(8).nextBytes(data);
+        AESCipherCBCnoPad encryptor = new AESCipherCBCnoPad(true, key);
+        byte[] encrypted = concat(encryptor.processBlock(data, 0, 32), encryptor.processBlock(data, 32, 32));
+        byte[] expected = process(new AESCipher(true, key, new byte[16], false), data, data.length);
+        Assert.assertArrayEquals(Arrays.copyOf(expected, data.length), encrypted);
+        Assert.assertArrayEquals(data, new AESCipherCBCnoPad(false, key).processBlock(encrypted, 0, encrypted.length));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cbcNoPaddingIncompleteBlockTest() {
+        new AESCipherCBCnoPad(true, KEY_128).processBlock(new byte[20], 0, 20);
+    }
+
+    private static byte[] process(AESCipher cipher, byte[] data, int portion) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        for (int off = 0; off < data.length; off += portion) {
+            byte[] b = cipher.update(data, off, Math.min(portion, data.length - off));
+            result.write(b, 0, b.length);
+        }
+        byte[] b = cipher.doFinal();
+        result.write(b, 0, b.length);
+        return result.toByteArray();
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
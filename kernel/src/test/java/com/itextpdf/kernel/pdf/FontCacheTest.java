@@ -0,0 +1,84 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.font.FontCache;
+import com.itextpdf.io.font.cmap.CMapByteCid;
+import com.itextpdf.io.font.cmap.CMapCidByte;
+import com.itextpdf.io.font.cmap.CMapCidUni;
+import com.itextpdf.io.font.cmap.CMapLocationResource;
+import com.itextpdf.io.font.cmap.CMapParser;
+import com.itextpdf.io.font.cmap.CMapUniCid;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+
+@Category(UnitTest.class)
+public class FontCacheTest {
+
+    @Test
+    public void cmapCachingTest() throws IOException {
+        CMapUniCid uniCid = FontCache.getUni2CidCmap("UniJIS-UCS2-H");
+        Assert.assertTrue(uniCid.hasMappings());
+        Assert.assertSame(uniCid, FontCache.getUni2CidCmap("UniJIS-UCS2-H"));
+        CMapByteCid byteCid = FontCache.getByte2CidCmap("90ms-RKSJ-H");
+        Assert.assertTrue(byteCid.hasMappings());
+        Assert.assertSame(byteCid, FontCache.getByte2CidCmap("90ms-RKSJ-H"));
+        CMapCidByte cidByte = FontCache.getCid2Byte("90ms-RKSJ-H");
+        Assert.assertTrue(cidByte.hasMappings());
+        Assert.assertSame(cidByte, FontCache.getCid2Byte("90ms-RKSJ-H"));
+
+        CMapCidUni parsed = new CMapCidUni();
+        CMapParser.parseCid("UniJIS-UCS2-H", parsed, new CMapLocationResource());
+        CMapCidUni cached = FontCache.getCid2UniCmap("UniJIS-UCS2-H");
+        Assert.assertSame(cached, FontCache.getCid2UniCmap("UniJIS-UCS2-H"));
+        Assert.assertTrue(cached.getCids().length > 0);
+        Assert.assertEquals(parsed.getCids().length, cached.getCids().length);
+        for (int cid : parsed.getCids()) {
+            Assert.assertEquals(parsed.lookup(cid), cached.lookup(cid));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares lookups and construction of the dictionary storage with the {@link TreeMap} based one
+ * that was used by {@link PdfDictionary} before.
+ */
+@Category(PerformanceTest.class)
+public class PdfDictionaryPerformanceTest {
+
+    private static final int ITERATIONS = 200000;
+    private static final int ROUNDS = 5;
+
+    private static final PdfName[] pageKeys = {PdfName.Type, PdfName.Parent, PdfName.Resources, PdfName.MediaBox,
+            PdfName.CropBox, PdfName.Contents, PdfName.Rotate, PdfName.Annots};
+    private static final PdfName[] lookupKeys = {PdfName.Type, PdfName.Resources, PdfName.Contents, PdfName.Rotate,
+            PdfName.UserUnit, PdfName.Annots};
+
+    @Test
+    public void smallDictionaryLookupTest() {
+        compare("small dictionary lookups", pageKeys, lookupKeys);
+    }
+
+    @Test
+    public void parsedNamesLookupTest() {
+        // names read by parser without interning are not the same instances as the keys
+        PdfName[] parsedKeys = new PdfName[lookupKeys.length];
+        for (int i = 0; i < lookupKeys.length; i++) {
+            parsedKeys[i] = new PdfName(lookupKeys[i].getInternalContent());
+        }
+        compare("small dictionary lookups by parsed names", pageKeys, parsedKeys);
+    }
+
+    @Test
+    public void largeDictionaryLookupTest() {
+        PdfName[] keys = new PdfName[64];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new PdfName("F" + i);
+        }
+        compare("large dictionary lookups", keys, keys);
+    }
+
+    private static void compare(String name, PdfName[] keys, PdfName[] lookups) {
+        long treeMapTime = Long.MAX_VALUE;
+        long dictionaryMapTime = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            int treeMapFound = run(new TreeMap<PdfName, PdfObject>(), keys, lookups);
+            treeMapTime = Math.min(treeMapTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            int dictionaryMapFound = run(new PdfDictionaryMap(), keys, lookups);
+            dictionaryMapTime = Math.min(dictionaryMapTime, System.nanoTime() - start);
+            Assert.assertTrue(treeMapFound > 0);
+            Assert.assertEquals(treeMapFound, dictionaryMapFound);
+        }
+        System.out.println(String.format("%s: TreeMap %d ms, PdfDictionaryMap %d ms", name,
+                treeMapTime / 1000000, dictionaryMapTime / 1000000));
+    }
+
+    private static int run(Map<PdfName, PdfObject> template, PdfName[] keys, PdfName[] lookups) {
+        int found = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            template.clear();
+            for (PdfName key : keys) {
+                template.put(key, PdfNull.PDF_NULL);
+            }
+            for (PdfName key : lookups) {
+                if (template.get(key) != null) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -50,6 +50,7 @@ import org.junit.experimental.categories.Category;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -465,4 +466,78 @@ public class PdfDictionaryTest {
         Assert.assertEquals(0, dict.values().size());
         Assert.assertEquals(0, dict.size());
     }
+
+    @Test
+    public void testInsertionOrder() {
+        PdfDictionary dict = new PdfDictionary();
+        dict.put(new PdfName("C"), new PdfNumber(3));
+        dict.put(new PdfName("A"), new PdfNumber(1));
+        dict.put(new PdfName("B"), new PdfNumber(2));
+        dict.put(new PdfName("A"), new PdfNumber(4));
+
+        Assert.assertEquals(Arrays.asList(new PdfName("C"), new PdfName("A"), new PdfName("B")), new ArrayList<>(dict.keySet()));
+        Assert.assertEquals(4, dict.getAsNumber(new PdfName("A")).intValue());
+
+        dict.remove(new PdfName("C"));
+        Assert.assertEquals(Arrays.asList(new PdfName("A"), new PdfName("B")), new ArrayList<>(dict.keySet()));
+    }
+
+    @Test
+    public void testLargeDictionary() {
+        PdfDictionary dict = new PdfDictionary();
+        for (int i = 0; i < 100; i++) {
+            dict.put(new PdfName("Key" + i), new PdfNumber(i));
+        }
+        Assert.assertEquals(100, dict.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, dict.getAsNumber(new PdfName("Key" + i)).intValue());
+        }
+
+        Iterator<PdfName> keys = dict.keySet().iterator();
+        while (keys.hasNext()) {
+            if (Integer.parseInt(keys.next().getValue().substring(3)) % 2 == 1) {
+                keys.remove();
+            }
+        }
+        Assert.assertEquals(50, dict.size());
+        int expected = 0;
+        for (Map.Entry<PdfName, PdfObject> entry : dict.entrySet()) {
+            Assert.assertEquals(new PdfName("Key" + expected), entry.getKey());
+            Assert.assertEquals(expected, ((PdfNumber) entry.getValue()).intValue());
+            expected += 2;
+        }
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i % 2 == 0, dict.containsKey(new PdfName("Key" + i)));
+        }
+    }
+
+    @Test
+    public void testKeysAreWrittenSorted() {
+        PdfDictionary dict = new PdfDictionary();
+        dict.put(new PdfName("C"), new PdfNumber(3));
+        dict.put(new PdfName("A"), new PdfNumber(1));
+        dict.put(new PdfName("B"), new PdfNumber(2));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new PdfOutputStream(baos).write(dict);
+        Assert.assertEquals("<</A 1/B 2/C 3>>", new String(baos.toByteArray()));
+    }
+
+    @Test
+    public void testSortedKeys() {
+        PdfDictionary dict = new PdfDictionary();
+        dict.put(new PdfName("C"), new PdfNumber(3));
+        dict.put(new PdfName("A"), new PdfNumber(1));
+        Assert.assertArrayEquals(new PdfName[] {new PdfName("A"), new PdfName("C")}, dict.getSortedKeys());
+        Assert.assertSame(dict.getSortedKeys(), dict.getSortedKeys());
+
+        dict.put(new PdfName("A"), new PdfNumber(4));
+        Assert.assertArrayEquals(new PdfName[] {new PdfName("A"), new PdfName("C")}, dict.getSortedKeys());
+        dict.put(new PdfName("B"), new PdfNumber(2));
+        Assert.assertArrayEquals(new PdfName[] {new PdfName("A"), new PdfName("B"), new PdfName("C")}, dict.getSortedKeys());
+        dict.remove(new PdfName("A"));
+        Assert.assertArrayEquals(new PdfName[] {new PdfName("B"), new PdfName("C")}, dict.getSortedKeys());
+        dict.clear();
+        Assert.assertEquals(0, dict.getSortedKeys().length);
+    }
 }
@@ -63,4 +63,28 @@ public class PdfNameTest extends ITextTest {
         Assert.assertEquals(str2, createStringByEscaped(name2.getInternalContent()));
     }
 
+    @Test
+    public void internedNamesTest() {
+        Assert.assertSame(PdfName.Type, PdfName.intern("Type".getBytes()));
+
+        PdfName name = PdfName.intern("NonStandard#20Name".getBytes());
+        Assert.assertSame(name, PdfName.intern("NonStandard#20Name".getBytes()));
+        Assert.assertEquals(new PdfName("NonStandard Name"), name);
+        Assert.assertNotSame(name, PdfName.intern("NonStandard#20Name2".getBytes()));
+    }
+
+    @Test
+    public void internedManyNamesTest() {
+        // more names than the initial capacity of the name table, so that it's resized
+        PdfName[] names = new PdfName[5000];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = PdfName.intern(("Name" + i).getBytes());
+        }
+        for (int i = 0; i < names.length; i++) {
+            Assert.assertSame(names[i], PdfName.intern(("Name" + i).getBytes()));
+            Assert.assertEquals("Name" + i, names[i].getValue());
+        }
+        Assert.assertSame(PdfName.Type, PdfName.intern("Type".getBytes()));
+    }
+
 }
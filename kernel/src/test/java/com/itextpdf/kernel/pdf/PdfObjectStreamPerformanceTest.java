@@ -0,0 +1,172 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Checks the object streams written with the different {@link ObjectStreamPackingPolicy} settings and reports
+ * the output size and the time of reading a page in the middle of the document for each of them.
+ */
+@Category(PerformanceTest.class)
+public class PdfObjectStreamPerformanceTest {
+
+    private static final int PAGES = 2000;
+    private static final int ANNOTATIONS_PER_PAGE = 10;
+    private static final int ROUNDS = 20;
+
+    @Test
+    public void packingPoliciesTest() throws IOException {
+        ObjectStreamPackingPolicy defaultPolicy = new ObjectStreamPackingPolicy();
+        byte[] defaultPdf = createDocument(defaultPolicy);
+        int defaultObjectStreams = checkObjectStreams(defaultPdf, defaultPolicy);
+        long defaultTime = measurePageReading(defaultPdf);
+        ObjectStreamPackingPolicy[] policies = {new ObjectStreamPackingPolicy().setMaxObjects(50),
+                new ObjectStreamPackingPolicy().setMaxContentLength(4096), new ObjectStreamPackingPolicy().setGroupByPage(true)};
+        for (ObjectStreamPackingPolicy policy : policies) {
+            byte[] pdf = createDocument(policy);
+            int objectStreams = checkObjectStreams(pdf, policy);
+            long time = measurePageReading(pdf);
+            System.out.println(String.format("default: %d object streams, %d bytes, page read in %d us; "
+                            + "max objects %d, max length %d, grouped %b: %d object streams, %d bytes, page read in %d us",
+                    defaultObjectStreams, defaultPdf.length, defaultTime / 1000, policy.getMaxObjects(),
+                    policy.getMaxContentLength(), policy.isGroupByPage(), objectStreams, pdf.length, time / 1000));
+            // smaller object streams trade the output size for the less content decompressed to read a single page
+            Assert.assertTrue(objectStreams > defaultObjectStreams);
+            Assert.assertTrue(pdf.length > defaultPdf.length);
+        }
+    }
+
+    /**
+     * Checks that the object streams of the document obey the limits of the policy.
+     *
+     * @return the number of object streams.
+     */
+    private static int checkObjectStreams(byte[] pdf, ObjectStreamPackingPolicy policy) throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)));
+        int objectStreams = 0;
+        for (int i = 1; i < pdfDoc.getNumberOfPdfObjects(); i++) {
+            PdfObject obj = pdfDoc.getPdfObject(i);
+            if (obj != null && obj.isStream() && PdfName.ObjStm.equals(((PdfStream) obj).getAsName(PdfName.Type))) {
+                checkObjectStream((PdfStream) obj, policy);
+                objectStreams++;
+            }
+        }
+        if (policy.isGroupByPage()) {
+            // the page and its annotations are packed into the same object stream
+            PdfDictionary page = pdfDoc.getPage(PAGES / 2).getPdfObject();
+            int pageObjectStream = page.getIndirectReference().getObjStreamNumber();
+            PdfArray annots = page.getAsArray(PdfName.Annots);
+            for (int i = 0; i < annots.size(); i++) {
+                Assert.assertEquals(pageObjectStream, annots.getAsDictionary(i).getIndirectReference().getObjStreamNumber());
+            }
+        }
+        pdfDoc.close();
+        return objectStreams;
+    }
+
+    private static void checkObjectStream(PdfStream objectStream, ObjectStreamPackingPolicy policy) {
+        int n = objectStream.getAsNumber(PdfName.N).intValue();
+        int first = objectStream.getAsNumber(PdfName.First).intValue();
+        String[] index = new String(objectStream.getBytes(), 0, first, StandardCharsets.ISO_8859_1).trim().split("\\s+");
+        Assert.assertEquals(2 * n, index.length);
+        Assert.assertTrue(n <= policy.getMaxObjects());
+        if (policy.getMaxContentLength() > 0) {
+            // the object stream is closed as soon as its content reaches the limit, only the last object may exceed it
+            int indexLengthBeforeLastObject = 0;
+            for (int i = 0; i < 2 * n - 2; i++) {
+                indexLengthBeforeLastObject += index[i].length() + 1;
+            }
+            int lastObjectOffset = Integer.parseInt(index[2 * n - 1]);
+            Assert.assertTrue(indexLengthBeforeLastObject + lastObjectOffset < policy.getMaxContentLength());
+        }
+    }
+
+    private static long measurePageReading(byte[] pdf) throws IOException {
+        long openTime = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf),
+                    new ReaderProperties().setObjectStreamCacheSize(1)));
+            PdfArray annots = pdfDoc.getPage(PAGES / 2).getPdfObject().getAsArray(PdfName.Annots);
+            for (int i = 0; i < annots.size(); i++) {
+                Assert.assertNotNull(annots.getAsDictionary(i).getAsString(PdfName.Contents));
+            }
+            openTime = Math.min(openTime, System.nanoTime() - start);
+            pdfDoc.close();
+        }
+        return openTime;
+    }
+
+    private static byte[] createDocument(ObjectStreamPackingPolicy policy) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos, new WriterProperties()
+                .setFullCompressionMode(true).setObjectStreamPackingPolicy(policy)));
+        for (int i = 0; i < PAGES; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            PdfArray annots = new PdfArray();
+            for (int j = 0; j < ANNOTATIONS_PER_PAGE; j++) {
+                PdfDictionary annot = new PdfDictionary();
+                annot.put(PdfName.Type, PdfName.Annot);
+                annot.put(PdfName.Subtype, PdfName.Text);
+                annot.put(PdfName.Rect, new PdfArray(new float[] {j * 20, 700, j * 20 + 20, 720}));
+                annot.put(PdfName.Contents, new PdfString("Note " + j + " on page " + (i + 1)));
+                annot.put(PdfName.P, page.getPdfObject());
+                annots.add(annot.makeIndirect(pdfDoc));
+                annot.flush();
+            }
+            page.getPdfObject().put(PdfName.Annots, annots);
+            page.flush();
+        }
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+}
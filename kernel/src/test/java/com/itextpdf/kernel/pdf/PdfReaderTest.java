@@ -46,6 +46,7 @@ import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
@@ -56,12 +57,18 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Category(IntegrationTest.class)
 public class PdfReaderTest extends ExtendedITextTest {
@@ -1522,6 +1529,152 @@ public class PdfReaderTest extends ExtendedITextTest {
         pdfDoc.close();
     }
 
+    @Test
+    public void concurrentReadingTest() throws IOException, InterruptedException, ExecutionException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompression.pdf";
+
+        PdfDocument sequentialDoc = new PdfDocument(new PdfReader(filename));
+        int pageCount = sequentialDoc.getNumberOfPages();
+        List<String> expectedText = new ArrayList<>(pageCount);
+        for (int i = 1; i <= pageCount; i++) {
+            expectedText.add(PdfTextExtractor.getTextFromPage(sequentialDoc.getPage(i)));
+        }
+        sequentialDoc.close();
+
+        final PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename, new ReaderProperties().setConcurrentReading(true)));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<String>> pageText = new ArrayList<>(pageCount);
+        try {
+            for (int i = 1; i <= pageCount; i++) {
+                final int pageNum = i;
+                pageText.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return PdfTextExtractor.getTextFromPage(pdfDoc.getPage(pageNum));
+                    }
+                }));
+            }
+            for (int i = 0; i < pageCount; i++) {
+                Assert.assertEquals("Page " + (i + 1), expectedText.get(i), pageText.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertFalse(pdfDoc.getReader().hasRebuiltXref());
+        pdfDoc.close();
+    }
+
+
+    @Test
+    public void lazyObjectStreamReadingTest() throws IOException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompression.pdf";
+        PdfReader reader = new PdfReader(filename, new ReaderProperties().setObjectStreamCacheSize(2));
+        PdfDocument pdfDoc = new PdfDocument(reader);
+        PdfXrefTable xref = pdfDoc.getXref();
+
+        int compressedObjects = 0;
+        int readCompressedObjects = 0;
+        for (int i = 1; i < xref.size(); i++) {
+            PdfIndirectReference reference = xref.get(i);
+            if (reference != null && reference.getObjStreamNumber() > 0) {
+                compressedObjects++;
+                if (reference.refersTo != null) {
+                    readCompressedObjects++;
+                }
+            }
+        }
+        Assert.assertTrue(compressedObjects > 0);
+        Assert.assertTrue("Only touched objects shall be parsed", readCompressedObjects < compressedObjects);
+
+        int pageCount = pdfDoc.getNumberOfPages();
+        for (int i = pageCount; i > 0; i--) {
+            String content = new String(pdfDoc.getPage(i).getContentStream(0).getBytes());
+            Assert.assertTrue(content.contains("(" + i + ")"));
+        }
+        Assert.assertFalse(reader.hasRebuiltXref());
+        pdfDoc.close();
+    }
+
+    @Test
+    public void lazyXrefEntriesTest() throws IOException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompressionAppended.pdf";
+        PdfDocument lazyDoc = new PdfDocument(new PdfReader(filename));
+        // with concurrent reading all the references are created right after reading cross-reference
+        PdfDocument eagerDoc = new PdfDocument(new PdfReader(filename, new ReaderProperties().setConcurrentReading(true)));
+
+        PdfXrefTable lazyXref = lazyDoc.getXref();
+        PdfXrefTable eagerXref = eagerDoc.getXref();
+        Assert.assertEquals(eagerXref.size(), lazyXref.size());
+        for (int i = 0; i < eagerXref.size(); i++) {
+            PdfIndirectReference expected = eagerXref.get(i);
+            PdfIndirectReference reference = lazyXref.get(i);
+            if (expected == null) {
+                Assert.assertNull(reference);
+                continue;
+            }
+            Assert.assertSame(reference, lazyXref.get(i));
+            Assert.assertEquals(expected.getObjNumber(), reference.getObjNumber());
+            Assert.assertEquals(expected.getGenNumber(), reference.getGenNumber());
+            Assert.assertEquals(expected.getOffset(), reference.getOffset());
+            Assert.assertEquals(expected.getObjStreamNumber(), reference.getObjStreamNumber());
+            Assert.assertEquals(expected.isFree(), reference.isFree());
+        }
+        Assert.assertEquals(eagerDoc.getNumberOfPages(), lazyDoc.getNumberOfPages());
+        lazyDoc.close();
+        eagerDoc.close();
+    }
+
+    @Test
+    public void freeReferencesReuseTest() {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        PdfIndirectReference[] references = new PdfIndirectReference[5];
+        for (int i = 0; i < references.length; i++) {
+            references[i] = new PdfDictionary().makeIndirect(pdfDoc).getIndirectReference();
+        }
+        int first = references[0].getObjNumber();
+        references[3].setFree();
+        references[1].setFree();
+        references[1].setFree();
+
+        // free numbers are reused starting from the smallest one
+        Assert.assertEquals(first + 1, new PdfDictionary().makeIndirect(pdfDoc).getIndirectReference().getObjNumber());
+        Assert.assertEquals(first + 3, new PdfDictionary().makeIndirect(pdfDoc).getIndirectReference().getObjNumber());
+        Assert.assertEquals(first + 5, new PdfDictionary().makeIndirect(pdfDoc).getIndirectReference().getObjNumber());
+        pdfDoc.addNewPage();
+        pdfDoc.close();
+    }
+
+    @Test
+    public void invalidOverriddenXrefEntryTest() throws IOException {
+        ByteArrayOutputStream original = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(original));
+        pdfDoc.addNewPage();
+        pdfDoc.close();
+
+        ByteArrayOutputStream appended = new ByteArrayOutputStream();
+        pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(original.toByteArray())),
+                new PdfWriter(appended), new StampingProperties().useAppendMode());
+        PdfPage page = pdfDoc.getPage(1);
+        page.setRotation(90);
+        page.setModified();
+        int pageNumber = page.getPdfObject().getIndirectReference().getObjNumber();
+        pdfDoc.close();
+
+        // break the keyword of the page entry in the first cross-reference section, the entry is overridden by the appended one
+        byte[] bytes = appended.toByteArray();
+        String content = new String(bytes, "ISO-8859-1");
+        int subsectionStart = content.indexOf('\n', content.indexOf("xref\n")) + 1;
+        int entriesStart = content.indexOf('\n', subsectionStart) + 1;
+        int keywordPosition = entriesStart + pageNumber * 20 + 17;
+        Assert.assertEquals('n', bytes[keywordPosition]);
+        bytes[keywordPosition] = 'x';
+
+        PdfReader reader = new PdfReader(new ByteArrayInputStream(bytes));
+        pdfDoc = new PdfDocument(reader);
+        Assert.assertFalse(reader.hasRebuiltXref());
+        Assert.assertEquals(90, pdfDoc.getPage(1).getRotation());
+        pdfDoc.close();
+    }
 
     private boolean objectTypeEqualTo(PdfObject object, PdfName type) {
         PdfName objectType = ((PdfDictionary) object).getAsName(PdfName.Type);
@@ -43,8 +43,12 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.kernel.utils.CompareTool;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.test.ExtendedITextTest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
 import com.itextpdf.test.annotations.type.IntegrationTest;
@@ -86,4 +90,66 @@ public class PdfStreamTest extends ExtendedITextTest {
         document.close();
         Assert.assertNull(new CompareTool().compareByContent(destFile, cmpFile, destinationFolder, "diff_"));
     }
+
+    @Test
+    public void readStreamDecodingTest() throws IOException {
+        String resources = "./src/test/resources/com/itextpdf/kernel/";
+        compareStreamDecoding(new PdfReader(resources + "parser/PdfImageXObjectTest/ASCII85_RunLengthDecode.pdf"));
+        compareStreamDecoding(new PdfReader(resources + "parser/PdfImageXObjectTest/flatedecode_runlengthdecode.pdf"));
+        compareStreamDecoding(new PdfReader(resources + "parser/BidiTextExtractionTest/in05.pdf"));
+        compareStreamDecoding(new PdfReader(resources + "pdf/PdfEncryptionTest/noUserPassword.pdf"));
+        compareStreamDecoding(new PdfReader(resources + "pdf/PdfEncryptionTest/cmp_encryptWithPasswordAes128.pdf",
+                new ReaderProperties().setPassword(PdfEncryptionTest.USER)));
+    }
+
+    @Test
+    public void readStreamHexAndLzwDecodingTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        pdfDocument.addNewPage();
+        // the example from ISO 32000-1, 7.4.4.2, which decodes to "-----A---B"
+        PdfStream lzwStream = new PdfStream(new byte[] {(byte) 0x80, 0x0B, 0x60, 0x50, 0x22, 0x0C, 0x0C, (byte) 0x85, 0x01});
+        lzwStream.put(PdfName.Filter, PdfName.LZWDecode);
+        lzwStream.setCompressionLevel(CompressionConstants.NO_COMPRESSION);
+        lzwStream.makeIndirect(pdfDocument);
+        PdfStream hexStream = new PdfStream("2D2d2D2d2 D41 2D2D2D42>".getBytes(StandardCharsets.ISO_8859_1));
+        hexStream.put(PdfName.Filter, new PdfArray(PdfName.ASCIIHexDecode));
+        hexStream.setCompressionLevel(CompressionConstants.NO_COMPRESSION);
+        hexStream.makeIndirect(pdfDocument);
+        int lzwNumber = lzwStream.getIndirectReference().getObjNumber();
+        int hexNumber = hexStream.getIndirectReference().getObjNumber();
+        lzwStream.flush();
+        hexStream.flush();
+        pdfDocument.close();
+
+        PdfReader reader = new PdfReader(new ByteArrayInputStream(baos.toByteArray()));
+        PdfDocument readDocument = new PdfDocument(reader);
+        for (int objNumber : new int[] {lzwNumber, hexNumber}) {
+            PdfStream stream = (PdfStream) readDocument.getPdfObject(objNumber);
+            Assert.assertEquals("-----A---B", new String(stream.getBytes(), StandardCharsets.ISO_8859_1));
+            InputStream decoded = reader.readStream(stream, true);
+            Assert.assertEquals("-----A---B", new String(StreamUtil.inputStreamToArray(decoded), StandardCharsets.ISO_8859_1));
+            decoded.close();
+        }
+        readDocument.close();
+    }
+
+    private static void compareStreamDecoding(PdfReader reader) throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(reader);
+        int streams = 0;
+        for (int i = 1; i < pdfDocument.getNumberOfPdfObjects(); i++) {
+            PdfObject object = pdfDocument.getPdfObject(i);
+            if (object == null || !object.isStream()) {
+                continue;
+            }
+            PdfStream stream = (PdfStream) object;
+            byte[] expected = reader.readStreamBytes(stream, true);
+            InputStream decoded = reader.readStream(stream, true);
+            byte[] actual = decoded == null ? null : StreamUtil.inputStreamToArray(decoded);
+            Assert.assertArrayEquals("Object " + i, expected, actual);
+            streams++;
+        }
+        Assert.assertTrue(streams > 0);
+        pdfDocument.close();
+    }
 }
@@ -43,6 +43,7 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.source.GetBufferedRandomAccessSource;
 import com.itextpdf.io.source.PdfTokenizer;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
@@ -125,6 +126,30 @@ public class PdfTokenizerTest {
         );
     }
 
+    @Test
+    public void arraySourceTokensTest() throws Exception {
+        String data = "%PDF-1.7\n1 0 obj\n<</Type/Page/MediaBox[0 0 595.3 -842]/Q --5/R ---.5 +7 .25>>\nendobj\n" +
+                "BT /F1 12 Tf (Hello \\(World\\)) Tj <48656C6C6F> Tj ET q 1 0 0 1 0 0 cm {} true null Q /A#20B/ 12";
+        byte[] bytes = data.getBytes(StandardCharsets.ISO_8859_1);
+        RandomAccessSourceFactory factory = new RandomAccessSourceFactory();
+        PdfTokenizer arrayTokens = new PdfTokenizer(new RandomAccessFileOrArray(factory.createSource(bytes)));
+        PdfTokenizer bufferedTokens = new PdfTokenizer(new RandomAccessFileOrArray(new GetBufferedRandomAccessSource(factory.createSource(bytes))));
+
+        int i = 0;
+        boolean hasNext;
+        do {
+            hasNext = arrayTokens.nextToken();
+            Assert.assertEquals("Token " + i, bufferedTokens.nextToken(), hasNext);
+            Assert.assertEquals("Token " + i, bufferedTokens.getTokenType(), arrayTokens.getTokenType());
+            Assert.assertArrayEquals("Token " + i, bufferedTokens.getByteContent(), arrayTokens.getByteContent());
+            // byte by byte reading moves the position beyond the end of the source if the last token ends there
+            if (arrayTokens.getPosition() < bytes.length) {
+                Assert.assertEquals("Token " + i, bufferedTokens.getPosition(), arrayTokens.getPosition());
+            }
+            i++;
+        } while (hasNext);
+    }
+
     @Test
     public void numberValueInTheEndTest() throws Exception {
         checkTokenValues(
@@ -42,9 +42,16 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.util.DateTimeUtil;
+import com.itextpdf.io.font.FontConstants;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.log.Counter;
+import com.itextpdf.kernel.log.CounterFactory;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import org.junit.Assert;
@@ -55,9 +62,19 @@ import org.junit.experimental.categories.Category;
 import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Category(IntegrationTest.class)
 public class PdfWriterTest extends ExtendedITextTest {
@@ -591,6 +608,88 @@ public class PdfWriterTest extends ExtendedITextTest {
         pdfDocument.close();
     }
 
+    @Test
+    public void xrefStreamWithPredictorTest() throws IOException {
+        String filename = destinationFolder + "xrefStreamWithPredictorTest.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename, new WriterProperties().setFullCompressionMode(true)));
+        for (int i = 0; i < 100; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            for (int j = 0; j < 20; j++) {
+                page.getPdfObject().put(new PdfName("Num" + j), new PdfNumber(i * j).makeIndirect(pdfDoc));
+            }
+        }
+        pdfDoc.close();
+
+        PdfReader reader = new PdfReader(filename);
+        PdfDocument pdfDocument = new PdfDocument(reader);
+        Assert.assertEquals("Rebuilt", false, reader.hasRebuiltXref());
+        // trailer is a copy of the cross-reference stream dictionary without the stream specific keys
+        Assert.assertEquals(PdfName.XRef, pdfDocument.getTrailer().getAsName(PdfName.Type));
+        Assert.assertEquals(new PdfArray(new int[] {1, 2, 2}).toString(), pdfDocument.getTrailer().getAsArray(PdfName.W).toString());
+        String fileContent = new String(Files.readAllBytes(Paths.get(filename)), "ISO-8859-1");
+        Assert.assertTrue(fileContent.contains("/DecodeParms<</Columns 5/Predictor 12>>"));
+        Assert.assertEquals(100, pdfDocument.getNumberOfPages());
+        for (int i = 0; i < 100; i++) {
+            PdfDictionary page = pdfDocument.getPage(i + 1).getPdfObject();
+            Assert.assertEquals(i * 19, page.getAsNumber(new PdfName("Num19")).intValue());
+        }
+        pdfDocument.close();
+    }
+
+    @Test
+    public void objectStreamPackingPolicyTest() throws IOException {
+        ObjectStreamPackingPolicy policy = new ObjectStreamPackingPolicy().setMaxObjects(10).setGroupByPage(true);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos, new WriterProperties()
+                .setFullCompressionMode(true).setObjectStreamPackingPolicy(policy)));
+        for (int i = 0; i < 20; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            page.getPdfObject().put(PdfName.Rotate, new PdfNumber(90).makeIndirect(pdfDoc));
+            for (int j = 0; j < 15; j++) {
+                new PdfNumber(j).makeIndirect(pdfDoc).flush();
+            }
+            page.flush();
+        }
+        pdfDoc.close();
+
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        Map<Integer, Integer> objectStreamSizes = new HashMap<>();
+        for (int i = 1; i < pdfDocument.getNumberOfPdfObjects(); i++) {
+            PdfIndirectReference reference = pdfDocument.getXref().get(i);
+            if (reference != null && reference.getObjStreamNumber() != 0) {
+                Integer size = objectStreamSizes.get(reference.getObjStreamNumber());
+                objectStreamSizes.put(reference.getObjStreamNumber(), size == null ? 1 : size + 1);
+            }
+        }
+        for (int size : objectStreamSizes.values()) {
+            Assert.assertTrue(size <= 10);
+        }
+        Set<Integer> pageObjectStreams = new HashSet<>();
+        for (int i = 1; i <= pdfDocument.getNumberOfPages(); i++) {
+            int objectStreamNumber = pdfDocument.getPage(i).getPdfObject().getIndirectReference().getObjStreamNumber();
+            Assert.assertTrue(objectStreamNumber != 0);
+            // 15 numbers and the page, the first 10 objects are packed into the previous object stream
+            Assert.assertEquals(6, (int) objectStreamSizes.get(objectStreamNumber));
+            Assert.assertTrue(pageObjectStreams.add(objectStreamNumber));
+        }
+        pdfDocument.close();
+    }
+
+    @Test
+    public void objectStreamMaxSizeTest() {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        PdfObjectStream objectStream = new PdfObjectStream(pdfDoc, new ObjectStreamPackingPolicy().setMaxObjects(2));
+        objectStream.addObject(new PdfNumber(1).makeIndirect(pdfDoc));
+        objectStream.addObject(new PdfNumber(2).makeIndirect(pdfDoc));
+        Assert.assertTrue(objectStream.isFull());
+        try {
+            objectStream.addObject(new PdfNumber(3).makeIndirect(pdfDoc));
+            Assert.fail();
+        } catch (PdfException e) {
+            Assert.assertEquals(PdfException.PdfObjectStreamReachMaxSize, e.getMessage());
+        }
+    }
+
     @Test
     public void createPdfStreamByInputStream() throws IOException {
         String filename = destinationFolder + "createPdfStreamByInputStream.pdf";
@@ -626,4 +725,313 @@ public class PdfWriterTest extends ExtendedITextTest {
         Assert.assertArrayEquals("Stream by InputStream", streamContent.getBytes(), pdfStream.getBytes());
         document.close();
     }
+
+    @Test
+    public void streamingModeWriting() throws IOException {
+        String filename = destinationFolder + "streamingModeWriting.pdf";
+        byte[] content = createStreamingModeContent();
+
+        PdfDocument document = new PdfDocument(new PdfWriter(filename, new WriterProperties().useStreamingMode()));
+        PdfPage page = document.addNewPage();
+        page.getFirstContentStream().setData(content);
+        page.flush();
+        document.close();
+
+        validateStreamingModeDocument(new PdfReader(filename), content);
+    }
+
+    @Test
+    public void streamingModeWritingWithFullCompression() throws IOException {
+        String filename = destinationFolder + "streamingModeWritingWithFullCompression.pdf";
+        byte[] content = createStreamingModeContent();
+
+        PdfDocument document = new PdfDocument(new PdfWriter(filename,
+                new WriterProperties().useStreamingMode().setFullCompressionMode(true)));
+        for (int i = 0; i < 3; i++) {
+            PdfPage page = document.addNewPage();
+            page.getFirstContentStream().setData(content);
+        }
+        document.close();
+
+        validateStreamingModeDocument(new PdfReader(filename), content);
+        validateXrefStream(filename);
+    }
+
+    @Test
+    public void streamingModeWritingWithEncryption() throws IOException {
+        String filename = destinationFolder + "streamingModeWritingWithEncryption.pdf";
+        byte[] content = createStreamingModeContent();
+        byte[] password = "hello".getBytes();
+
+        PdfDocument document = new PdfDocument(new PdfWriter(filename, new WriterProperties().useStreamingMode()
+                .setStandardEncryption(password, password, EncryptionConstants.ALLOW_PRINTING, EncryptionConstants.ENCRYPTION_AES_128)));
+        PdfPage page = document.addNewPage();
+        page.getFirstContentStream().setData(content);
+        document.close();
+
+        validateStreamingModeDocument(new PdfReader(filename, new ReaderProperties().setPassword(password)), content);
+    }
+
+    private static byte[] createStreamingModeContent() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("BT /F1 12 Tf 36 ").append(i % 800).append(" Td (Line ").append(i).append(") Tj ET\n");
+        }
+        return sb.toString().getBytes();
+    }
+
+    private static void validateStreamingModeDocument(PdfReader reader, byte[] expectedContent) throws IOException {
+        PdfDocument document = new PdfDocument(reader);
+        Assert.assertEquals("Rebuilt", false, reader.hasRebuiltXref());
+        Assert.assertEquals("Fixed", false, reader.hasFixedXref());
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            PdfStream contentStream = document.getPage(i).getFirstContentStream();
+            Assert.assertTrue(contentStream.get(PdfName.Length, false).isIndirectReference());
+            Assert.assertEquals(contentStream.getAsNumber(PdfName.Length).intValue(), contentStream.getLength());
+            Assert.assertArrayEquals(expectedContent, contentStream.getBytes());
+        }
+        document.close();
+    }
+
+    private static void validateXrefStream(String filename) throws IOException {
+        String pdf = new String(Files.readAllBytes(Paths.get(filename)), "ISO-8859-1");
+        int startxref = Integer.parseInt(pdf.substring(pdf.lastIndexOf("startxref") + 9, pdf.lastIndexOf("%%EOF")).trim());
+        String xrefStreamDictionary = pdf.substring(startxref, pdf.indexOf("stream", startxref));
+        Matcher length = Pattern.compile("/Length (\\d+)( \\d+ R)?").matcher(xrefStreamDictionary);
+        Assert.assertTrue(length.find());
+        Assert.assertNull("Indirect /Length of the xref stream", length.group(2));
+        Matcher size = Pattern.compile("/Size (\\d+)").matcher(xrefStreamDictionary);
+        Assert.assertTrue(size.find());
+        Matcher object = Pattern.compile("(\\d+) 0 obj").matcher(pdf);
+        while (object.find()) {
+            Assert.assertTrue("Object " + object.group(1) + " is not in the xref",
+                    Integer.parseInt(object.group(1)) < Integer.parseInt(size.group(1)));
+        }
+    }
+
+    @Test
+    public void parallelCompression() throws IOException {
+        String filename1 = destinationFolder + "parallelCompression1.pdf";
+        String filename2 = destinationFolder + "parallelCompression2.pdf";
+        createParallelCompressionDocument(filename1);
+        createParallelCompressionDocument(filename2);
+
+        PdfDocument document1 = new PdfDocument(new PdfReader(filename1));
+        PdfDocument document2 = new PdfDocument(new PdfReader(filename2));
+        Assert.assertEquals(100, document1.getNumberOfPages());
+        for (int i = 1; i <= document1.getNumberOfPages(); i++) {
+            Assert.assertArrayEquals(createParallelCompressionPageContent(i), document1.getPage(i).getContentBytes());
+        }
+        // the layout of the resultant file shall not depend on the order in which the workers complete
+        Assert.assertEquals(document1.getXref().size(), document2.getXref().size());
+        for (int i = 1; i < document1.getXref().size(); i++) {
+            PdfIndirectReference ref1 = document1.getXref().get(i);
+            PdfIndirectReference ref2 = document2.getXref().get(i);
+            Assert.assertEquals(ref1.getOffset(), ref2.getOffset());
+            Assert.assertEquals(ref1.getObjStreamNumber(), ref2.getObjStreamNumber());
+        }
+        document1.close();
+        document2.close();
+    }
+
+    private static void createParallelCompressionDocument(String filename) throws IOException {
+        WriterProperties properties = new WriterProperties().setFullCompressionMode(true).useParallelCompression(4);
+        PdfDocument document = new PdfDocument(new PdfWriter(filename, properties));
+        for (int i = 1; i <= 100; i++) {
+            PdfPage page = document.addNewPage();
+            page.getFirstContentStream().setData(createParallelCompressionPageContent(i));
+            if (i % 2 == 0) {
+                page.flush();
+            }
+        }
+        document.close();
+    }
+
+    private static byte[] createParallelCompressionPageContent(int pageNumber) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < pageNumber * 50; i++) {
+            sb.append(i).append(" ").append(pageNumber).append(" m ").append(pageNumber).append(" ").append(i).append(" l S\n");
+        }
+        return sb.toString().getBytes();
+    }
+
+    @Test
+    public void smartModeCopying() throws IOException {
+        byte[] source = createSmartModeSourceDocument();
+        byte[] smart = copySmartModeSourceDocument(source, new WriterProperties().useSmartMode());
+        byte[] notSmart = copySmartModeSourceDocument(source, new WriterProperties());
+
+        PdfDocument smartDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(smart)));
+        PdfDocument notSmartDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(notSmart)));
+        Assert.assertEquals(6, smartDocument.getNumberOfPages());
+        // equal objects of all pages of both copied documents are written only once
+        Assert.assertEquals(1, getSmartModeXObjectNumbers(smartDocument).size());
+        Assert.assertEquals(6, getSmartModeXObjectNumbers(notSmartDocument).size());
+        Assert.assertTrue(smartDocument.getNumberOfPdfObjects() < notSmartDocument.getNumberOfPdfObjects() - 5 * 4);
+        PdfStream xObject = smartDocument.getPage(6).getResources().getResource(PdfName.XObject).getAsStream(new PdfName("Fm"));
+        Assert.assertArrayEquals(ByteUtils.getIsoBytes("0 0 m 10 10 l S"), xObject.getBytes());
+        PdfDictionary cyclic = xObject.getAsDictionary(new PdfName("Cyclic"));
+        PdfDictionary next = cyclic.getAsDictionary(new PdfName("Next"));
+        Assert.assertEquals(new PdfString("second"), next.getAsString(PdfName.Name));
+        Assert.assertEquals(cyclic.getIndirectReference(), next.getAsDictionary(new PdfName("Next")).getIndirectReference());
+        smartDocument.close();
+        notSmartDocument.close();
+    }
+
+    @Test
+    public void smartModeWithBoundedIndex() throws IOException {
+        byte[] source = createSmartModeSourceDocument();
+        byte[] smart = copySmartModeSourceDocument(source, new WriterProperties().useSmartMode(1));
+
+        PdfDocument smartDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(smart)));
+        // none of the copied objects fits into the index of a single byte
+        Assert.assertEquals(6, getSmartModeXObjectNumbers(smartDocument).size());
+        smartDocument.close();
+    }
+
+    @Test
+    public void linearizedDocumentTest() throws IOException {
+        String filename = destinationFolder + "linearizedDocument.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename,
+                new WriterProperties().useLinearization().setFullCompressionMode(true)));
+        PdfFont font = PdfFontFactory.createFont(FontConstants.HELVETICA);
+        for (int i = 1; i <= 3; i++) {
+            new PdfCanvas(pdfDoc.addNewPage()).beginText().setFontAndSize(font, 12)
+                    .moveText(36, 700).showText("Page " + i).endText().release();
+        }
+        pdfDoc.close();
+
+        byte[] bytes = Files.readAllBytes(Paths.get(filename));
+        String head = new String(bytes, 0, 1024, "ISO-8859-1");
+        Matcher matcher = Pattern.compile("^%PDF-1\\.7\n%\\S+\n(\\d+) 0 obj\n<</Linearized 1/L +(\\d+)/H \\[ *(\\d+) +(\\d+)\\]/O +(\\d+)/E +(\\d+)/N 3/T +(\\d+)>>").matcher(head);
+        Assert.assertTrue(matcher.find());
+        Assert.assertEquals(bytes.length, Long.parseLong(matcher.group(2)));
+        String hintStream = new String(bytes, Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(4)), "ISO-8859-1");
+        Assert.assertTrue(hintStream.startsWith((Integer.parseInt(matcher.group(1)) + 2) + " 0 obj\n"));
+        Assert.assertTrue(hintStream.endsWith("endstream\nendobj\n"));
+        // the main cross-reference table is at the end of the file
+        Assert.assertEquals("xref\n0 ", new String(bytes, Integer.parseInt(matcher.group(7)) - 8, 7, "ISO-8859-1"));
+
+        PdfDocument document = new PdfDocument(new PdfReader(filename));
+        Assert.assertEquals(3, document.getNumberOfPages());
+        PdfDictionary firstPage = document.getPage(1).getPdfObject();
+        Assert.assertEquals(Integer.parseInt(matcher.group(5)), firstPage.getIndirectReference().getObjNumber());
+        // the first page section ends before the objects of the other pages
+        Assert.assertTrue(firstPage.getIndirectReference().getOffset() < Long.parseLong(matcher.group(6)));
+        Assert.assertTrue(document.getPage(2).getPdfObject().getIndirectReference().getOffset() >= Long.parseLong(matcher.group(6)));
+        PdfIndirectReference fontReference = getFirstFontReference(firstPage);
+        for (int i = 1; i <= 3; i++) {
+            Assert.assertEquals(fontReference, getFirstFontReference(document.getPage(i).getPdfObject()));
+            Assert.assertTrue(new String(document.getPage(i).getContentBytes(), "ISO-8859-1").contains("(Page " + i + ")"));
+        }
+        document.close();
+    }
+
+    @Test
+    public void linearizedDocumentCounterTest() {
+        final List<Long> readSizes = new ArrayList<>();
+        final List<Long> writtenSizes = new ArrayList<>();
+        Counter counter = new Counter() {
+            @Override
+            public Counter getCounter(Class<?> cls) {
+                return this;
+            }
+
+            @Override
+            public void onDocumentRead(long size) {
+                readSizes.add(size);
+            }
+
+            @Override
+            public void onDocumentWritten(long size) {
+                writtenSizes.add(size);
+            }
+        };
+        Counter defaultCounter = CounterFactory.getInstance().getCounter();
+        CounterFactory.getInstance().setCounter(counter);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos, new WriterProperties().useLinearization()));
+            for (int i = 0; i < 3; i++) {
+                pdfDoc.addNewPage();
+            }
+            pdfDoc.close();
+        } finally {
+            CounterFactory.getInstance().setCounter(defaultCounter);
+        }
+        // the temporary file, which is linearized, is neither counted as read nor as written document
+        Assert.assertTrue(readSizes.isEmpty());
+        Assert.assertEquals(Collections.singletonList((long) baos.size()), writtenSizes);
+    }
+
+    @Test
+    public void linearizationOfEncryptedDocumentTest() throws IOException {
+        String exceptionMessage = null;
+        try {
+            new PdfDocument(new PdfWriter(new ByteArrayOutputStream(), new WriterProperties().useLinearization()
+                    .setStandardEncryption(null, null, EncryptionConstants.ALLOW_PRINTING, EncryptionConstants.ENCRYPTION_AES_128)));
+        } catch (PdfException ex) {
+            exceptionMessage = ex.getMessage();
+        }
+        Assert.assertEquals(PdfException.CannotLinearizeEncryptedDocument, exceptionMessage);
+    }
+
+    private static PdfIndirectReference getFirstFontReference(PdfDictionary page) {
+        PdfDictionary fonts = page.getAsDictionary(PdfName.Resources).getAsDictionary(PdfName.Font);
+        return fonts.get(fonts.keySet().iterator().next(), false).getIndirectReference();
+    }
+
+    private static byte[] createSmartModeSourceDocument() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument document = new PdfDocument(new PdfWriter(baos));
+        for (int i = 0; i < 3; i++) {
+            PdfDictionary font = new PdfDictionary();
+            font.put(PdfName.Type, PdfName.Font);
+            font.put(PdfName.Subtype, PdfName.Type1);
+            font.put(PdfName.BaseFont, new PdfName("Helvetica"));
+            PdfDictionary first = new PdfDictionary();
+            PdfDictionary second = new PdfDictionary();
+            first.makeIndirect(document);
+            second.makeIndirect(document);
+            first.put(new PdfName("Next"), second);
+            second.put(new PdfName("Next"), first);
+            second.put(PdfName.Name, new PdfString("second"));
+
+            PdfStream xObject = new PdfStream(ByteUtils.getIsoBytes("0 0 m 10 10 l S"));
+            xObject.put(PdfName.Type, PdfName.XObject);
+            xObject.put(PdfName.Subtype, PdfName.Form);
+            xObject.put(PdfName.BBox, new PdfArray(new float[] {0, 0, 10, 10}));
+            xObject.put(PdfName.Resources, new PdfDictionary());
+            xObject.getAsDictionary(PdfName.Resources).put(PdfName.Font, new PdfDictionary());
+            xObject.getAsDictionary(PdfName.Resources).getAsDictionary(PdfName.Font).put(new PdfName("F1"), font.makeIndirect(document));
+            xObject.put(new PdfName("Cyclic"), first);
+
+            PdfDictionary xObjects = new PdfDictionary();
+            xObjects.put(new PdfName("Fm"), xObject.makeIndirect(document));
+            document.addNewPage().getResources().getPdfObject().put(PdfName.XObject, xObjects);
+        }
+        document.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] copySmartModeSourceDocument(byte[] source, WriterProperties properties) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument document = new PdfDocument(new PdfWriter(baos, properties));
+        for (int i = 0; i < 2; i++) {
+            PdfDocument sourceDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(source)));
+            sourceDocument.copyPagesTo(1, sourceDocument.getNumberOfPages(), document);
+            sourceDocument.close();
+        }
+        document.close();
+        return baos.toByteArray();
+    }
+
+    private static Set<Integer> getSmartModeXObjectNumbers(PdfDocument document) {
+        Set<Integer> numbers = new HashSet<>();
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            PdfDictionary xObjects = document.getPage(i).getResources().getResource(PdfName.XObject);
+            numbers.add(xObjects.getAsStream(new PdfName("Fm")).getIndirectReference().getObjNumber());
+        }
+        return numbers;
+    }
 }
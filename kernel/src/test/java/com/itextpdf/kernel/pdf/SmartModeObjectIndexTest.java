@@ -0,0 +1,146 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class SmartModeObjectIndexTest {
+
+    @Test
+    public void sameContentTest() {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        pdfDoc.addNewPage();
+        PdfDictionary first = createDictionary(pdfDoc, "first");
+        PdfDictionary second = createDictionary(pdfDoc, "first");
+        PdfIndirectReference copy = new PdfDictionary().makeIndirect(pdfDoc).getIndirectReference();
+
+        SmartModeObjectIndex index = new SmartModeObjectIndex(0);
+        SmartModeObjectIndex.ContentHash hash = index.getContentHash(first);
+        index.put(hash, first, copy);
+
+        Assert.assertEquals(hash, index.getContentHash(second));
+        Assert.assertSame(copy, index.get(index.getContentHash(second), second));
+        pdfDoc.close();
+    }
+
+    @Test
+    public void hashCollisionTest() {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        pdfDoc.addNewPage();
+        PdfDictionary first = createDictionary(pdfDoc, "first");
+        PdfDictionary second = createDictionary(pdfDoc, "second");
+        PdfIndirectReference copy = new PdfDictionary().makeIndirect(pdfDoc).getIndirectReference();
+
+        SmartModeObjectIndex index = new SmartModeObjectIndex(0);
+        SmartModeObjectIndex.ContentHash hash = index.getContentHash(first);
+        index.put(hash, first, copy);
+
+        // the hashes of different objects are the same only on a collision, the content must be compared anyway
+        index.getContentHash(second);
+        Assert.assertNull(index.get(hash, second));
+        Assert.assertSame(copy, index.get(hash, first));
+        pdfDoc.close();
+    }
+
+    @Test
+    public void modifiedObjectTest() {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        pdfDoc.addNewPage();
+        PdfDictionary first = createDictionary(pdfDoc, "first");
+        PdfDictionary second = createDictionary(pdfDoc, "second");
+
+        SmartModeObjectIndex index = new SmartModeObjectIndex(0);
+        SmartModeObjectIndex.ContentHash hash = index.getContentHash(first);
+        PdfStream contents = first.getAsStream(PdfName.Contents);
+        contents.setData("second".getBytes());
+        contents.setModified();
+        first.put(PdfName.Name, new PdfString("second"));
+
+        // the memoized hashes of both the stream and the dictionary referring to it are recalculated
+        Assert.assertNotEquals(hash, index.getContentHash(first));
+        Assert.assertEquals(index.getContentHash(second), index.getContentHash(first));
+        pdfDoc.close();
+    }
+
+    @Test
+    public void boundedIndexTest() {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        pdfDoc.addNewPage();
+        PdfDictionary first = createDictionary(pdfDoc, "first");
+        PdfDictionary second = createDictionary(pdfDoc, "second");
+        PdfIndirectReference firstCopy = new PdfDictionary().makeIndirect(pdfDoc).getIndirectReference();
+        PdfIndirectReference secondCopy = new PdfDictionary().makeIndirect(pdfDoc).getIndirectReference();
+
+        SmartModeObjectIndex unboundedIndex = new SmartModeObjectIndex(0);
+        unboundedIndex.put(unboundedIndex.getContentHash(first), first, firstCopy);
+        long entrySize = unboundedIndex.getIndexedBytes();
+
+        SmartModeObjectIndex index = new SmartModeObjectIndex(entrySize + entrySize / 2);
+        SmartModeObjectIndex.ContentHash firstHash = index.getContentHash(first);
+        index.put(firstHash, first, firstCopy);
+        Assert.assertEquals(entrySize, index.getIndexedBytes());
+        SmartModeObjectIndex.ContentHash secondHash = index.getContentHash(second);
+        index.put(secondHash, second, secondCopy);
+
+        // the entries of both objects don't fit, the least recently used one is evicted
+        Assert.assertEquals(1, index.size());
+        Assert.assertTrue(index.getIndexedBytes() <= entrySize + entrySize / 2);
+        Assert.assertNull(index.get(firstHash, first));
+        Assert.assertSame(secondCopy, index.get(secondHash, second));
+        pdfDoc.close();
+    }
+
+    private static PdfDictionary createDictionary(PdfDocument pdfDoc, String content) {
+        PdfStream stream = new PdfStream(content.getBytes());
+        stream.makeIndirect(pdfDoc);
+        PdfDictionary dictionary = new PdfDictionary();
+        dictionary.put(PdfName.Name, new PdfString(content));
+        dictionary.put(PdfName.Contents, stream);
+        return dictionary.makeIndirect(pdfDoc);
+    }
+}
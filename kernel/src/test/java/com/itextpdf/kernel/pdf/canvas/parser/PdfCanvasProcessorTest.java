@@ -44,24 +44,43 @@ package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.kernel.pdf.canvas.parser.data.ClippingPathInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
 import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListenerFactory;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.SimpleTextExtractionStrategy;
+import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfResources;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.ReaderProperties;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import com.itextpdf.test.ExtendedITextTest;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
@@ -140,4 +159,82 @@ public class PdfCanvasProcessorTest extends ExtendedITextTest {
         }
     }
 
+    @Test
+    public void parallelTextExtractionTest() throws IOException {
+        String filename = "./src/test/resources/com/itextpdf/kernel/pdf/PdfReaderTest/1000PagesDocumentWithFullCompression.pdf";
+        PdfDocument sequentialDoc = new PdfDocument(new PdfReader(filename));
+        List<String> expectedText = new ArrayList<>();
+        for (int i = 1; i <= sequentialDoc.getNumberOfPages(); i++) {
+            expectedText.add(PdfTextExtractor.getTextFromPage(sequentialDoc.getPage(i)));
+        }
+        // without concurrent reading the pages are processed one by one
+        Assert.assertEquals(expectedText.subList(9, 20), PdfTextExtractor.getTextFromPages(sequentialDoc, 10, 20, 4));
+        sequentialDoc.close();
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename, new ReaderProperties().setConcurrentReading(true)));
+        int pageCount = pdfDoc.getNumberOfPages();
+        Assert.assertEquals(expectedText, PdfTextExtractor.getTextFromPages(pdfDoc, 1, pageCount, 4));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<SimpleTextExtractionStrategy> strategies = new PdfDocumentContentParser(pdfDoc).processContent(1, pageCount,
+                    new IEventListenerFactory<SimpleTextExtractionStrategy>() {
+                        @Override
+                        public SimpleTextExtractionStrategy createEventListener(int pageNumber) {
+                            return new SimpleTextExtractionStrategy();
+                        }
+                    }, new HashMap<String, IContentOperator>(), executor);
+            Assert.assertEquals(pageCount, strategies.size());
+            for (int i = 0; i < pageCount; i++) {
+                Assert.assertTrue(strategies.get(i).getResultantText().contains(String.valueOf(i + 1)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        pdfDoc.close();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void parallelTextExtractionPageRangeTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader("./src/test/resources/com/itextpdf/kernel/parser/TextMarginFinderTest/in.pdf",
+                new ReaderProperties().setConcurrentReading(true)));
+        PdfTextExtractor.getTextFromPages(pdfDoc, 1, pdfDoc.getNumberOfPages() + 1, 2);
+    }
+
+    @Test
+    public void operatorDispatchTest() {
+        final List<String> invokedOperators = new ArrayList<>();
+        IContentOperator recordingOperator = new IContentOperator() {
+            @Override
+            public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+                invokedOperators.add(operator.toString() + operands.size());
+            }
+        };
+        Map<String, IContentOperator> operators = new HashMap<>();
+        operators.put("cm", recordingOperator);
+        operators.put("xyz", recordingOperator);
+        operators.put("customOperator", recordingOperator);
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(new SimpleTextExtractionStrategy(), operators);
+        byte[] content = "q 1 0 0 1 10 10 cm Q 1 xyz customOperator 2 0 0 2 0 0 cm unknown"
+                .getBytes(StandardCharsets.ISO_8859_1);
+        processor.processContent(content, new PdfResources());
+        Assert.assertEquals(Arrays.asList("cm7", "xyz2", "customOperator1", "cm7"), invokedOperators);
+    }
+
+    @Test
+    public void parsedOperatorsAreNotSharedTest() throws IOException {
+        byte[] content = "q Q q Q".getBytes(StandardCharsets.ISO_8859_1);
+        PdfCanvasParser parser = new PdfCanvasParser(new PdfTokenizer(new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().createSource(content))));
+        List<PdfObject> operands = new ArrayList<>();
+        parser.parse(operands);
+        PdfLiteral first = (PdfLiteral) operands.get(0);
+        first.setPosition(100);
+        parser.parse(operands);
+        parser.parse(operands);
+        PdfLiteral second = (PdfLiteral) operands.get(0);
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(0, second.getPosition());
+    }
 }
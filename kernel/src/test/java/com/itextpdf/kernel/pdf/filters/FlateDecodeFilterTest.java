@@ -0,0 +1,161 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+
+@Category(UnitTest.class)
+public class FlateDecodeFilterTest extends ExtendedITextTest {
+
+    @Test
+    public void decodeTest() throws IOException {
+        byte[] data = createData(100000);
+        byte[] deflated = deflate(data);
+        Assert.assertArrayEquals(data, FlateDecodeFilter.flateDecode(deflated, true));
+        Assert.assertArrayEquals(data, FlateDecodeFilter.flateDecode(deflated, false));
+
+        FlateDecodeFilter filter = new FlateDecodeFilter();
+        for (int decodedLength : new int[] {1, data.length, data.length * 2, Integer.MAX_VALUE}) {
+            PdfDictionary streamDictionary = new PdfDictionary();
+            streamDictionary.put(PdfName.DL, new PdfNumber(decodedLength));
+            Assert.assertArrayEquals(data, filter.decode(deflated, PdfName.FlateDecode, null, streamDictionary));
+        }
+    }
+
+    @Test
+    public void truncatedDataTest() throws IOException {
+        byte[] data = createData(100000);
+        byte[] deflated = deflate(data);
+        deflated = Arrays.copyOf(deflated, deflated.length / 2);
+
+        Assert.assertNull(FlateDecodeFilter.flateDecode(deflated, true));
+        byte[] decoded = FlateDecodeFilter.flateDecode(deflated, false);
+        Assert.assertTrue(decoded.length > 0 && decoded.length < data.length);
+        Assert.assertArrayEquals(Arrays.copyOf(data, decoded.length), decoded);
+    }
+
+    @Test
+    public void corruptedDataTest() throws IOException {
+        byte[] data = createData(100000);
+        byte[] deflated = deflate(data);
+        for (int i = deflated.length / 2; i < deflated.length / 2 + 16; i++) {
+            deflated[i] = (byte) 0xff;
+        }
+
+        Assert.assertNull(FlateDecodeFilter.flateDecode(deflated, true));
+        byte[] decoded = FlateDecodeFilter.flateDecode(deflated, false);
+        Assert.assertTrue(decoded.length > data.length / 4);
+
+        // the data recovered in bulk is the same as the one inflated byte by byte
+        InputStream stream = new FlateDecodeFilter()
+                .createDecodingStream(new ByteArrayInputStream(deflated), PdfName.FlateDecode, null, null);
+        ByteArrayOutputStream inflatedByteByByte = new ByteArrayOutputStream();
+        int b;
+        while ((b = stream.read()) != -1) {
+            inflatedByteByByte.write(b);
+        }
+        stream.close();
+        Assert.assertArrayEquals(inflatedByteByByte.toByteArray(), decoded);
+    }
+
+    @Test
+    public void pngPredictorTest() throws IOException {
+        Random random = new Random(42);
+        for (int colors = 1; colors <= 4; colors++) {
+            int columns = 17;
+            int bytesPerRow = colors * columns;
+            byte[] data = new byte[(bytesPerRow + 1) * 20 + bytesPerRow / 2];
+            random.nextBytes(data);
+            for (int i = 0; i < data.length; i += bytesPerRow + 1) {
+                // filter type of the row, from None to Paeth
+                data[i] = (byte) (i / (bytesPerRow + 1) % 5);
+            }
+            PdfDictionary decodeParams = new PdfDictionary();
+            decodeParams.put(PdfName.Predictor, new PdfNumber(15));
+            decodeParams.put(PdfName.Columns, new PdfNumber(columns));
+            decodeParams.put(PdfName.Colors, new PdfNumber(colors));
+
+            byte[] streamed = StreamUtil.inputStreamToArray(
+                    PredictorInputStream.create(new ByteArrayInputStream(data), decodeParams));
+            byte[] original = data.clone();
+            byte[] decoded = FlateDecodeFilter.decodePredictor(data, decodeParams);
+            Assert.assertArrayEquals("Input is modified", original, data);
+            Assert.assertEquals(20 * bytesPerRow, decoded.length);
+            Assert.assertArrayEquals(streamed, decoded);
+            Assert.assertArrayEquals(decoded, FlateDecodeFilter.decodePredictor(data, decodeParams, true));
+        }
+    }
+
+    private static byte[] createData(int length) {
+        Random random = new Random(42);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt(256) : i % 7);
+        }
+        return data;
+    }
+
+    private static byte[] deflate(byte[] data) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DeflaterOutputStream zip = new DeflaterOutputStream(baos);
+        zip.write(data);
+        zip.close();
+        return baos.toByteArray();
+    }
+}
@@ -43,7 +43,12 @@
 package com.itextpdf.kernel.utils;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.kernel.pdf.PdfCopyContext;
+import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.test.ExtendedITextTest;
@@ -51,9 +56,12 @@ import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import javax.xml.parsers.ParserConfigurationException;
 
@@ -220,4 +228,143 @@ public class PdfMergerTest extends ExtendedITextTest {
             Assert.fail(errorMessage);
         }
     }
+
+    @Test
+    public void mergeWithSharedCopyContextTest() throws IOException {
+        PdfDocument template = new PdfDocument(new PdfReader(sourceFolder + "courierTest.pdf"));
+        PdfCopyContext copyContext = new PdfCopyContext();
+        for (int i = 1; i <= 2; i++) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+            PdfMerger merger = new PdfMerger(pdfDoc).setCopyContext(copyContext);
+            for (int j = 0; j < 3; j++) {
+                merger.merge(template, 1, 1);
+            }
+            Assert.assertSame(copyContext, pdfDoc.getWriter().getCopyContext());
+            int copiedObjects = copyContext.size();
+            merger.merge(template, 1, 1);
+            Assert.assertEquals(copiedObjects, copyContext.size());
+            merger.close();
+
+            PdfDocument result = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+            Assert.assertEquals(4, result.getNumberOfPages());
+            // resources of the template are copied once for every destination document
+            PdfIndirectReference font = getFirstFont(result.getPage(1)).getIndirectReference();
+            Assert.assertNotNull(font);
+            for (int j = 2; j <= 4; j++) {
+                Assert.assertEquals(font, getFirstFont(result.getPage(j)).getIndirectReference());
+            }
+            result.close();
+        }
+        template.close();
+    }
+
+    @Test
+    public void mergeWithCopyContextSharedByOpenDocumentsTest() throws IOException {
+        PdfDocument template = new PdfDocument(new PdfReader(sourceFolder + "courierTest.pdf"));
+        PdfCopyContext copyContext = new PdfCopyContext();
+        ByteArrayOutputStream[] outputs = new ByteArrayOutputStream[2];
+        PdfMerger[] mergers = new PdfMerger[2];
+        for (int i = 0; i < 2; i++) {
+            outputs[i] = new ByteArrayOutputStream();
+            mergers[i] = new PdfMerger(new PdfDocument(new PdfWriter(outputs[i]))).setCopyContext(copyContext);
+        }
+        mergers[0].merge(template, 1, 1);
+        int copiedObjects = copyContext.size();
+        mergers[1].merge(template, 1, 1);
+        Assert.assertEquals(2 * copiedObjects, copyContext.size());
+        for (int j = 0; j < 2; j++) {
+            mergers[0].merge(template, 1, 1);
+            mergers[1].merge(template, 1, 1);
+        }
+        Assert.assertEquals(2 * copiedObjects, copyContext.size());
+        mergers[0].close();
+        Assert.assertEquals(copiedObjects, copyContext.size());
+        mergers[1].close();
+        Assert.assertEquals(0, copyContext.size());
+
+        for (ByteArrayOutputStream output : outputs) {
+            PdfDocument result = new PdfDocument(new PdfReader(new ByteArrayInputStream(output.toByteArray())));
+            Assert.assertEquals(3, result.getNumberOfPages());
+            PdfIndirectReference font = getFirstFont(result.getPage(1)).getIndirectReference();
+            for (int j = 2; j <= 3; j++) {
+                Assert.assertEquals(font, getFirstFont(result.getPage(j)).getIndirectReference());
+            }
+            result.close();
+        }
+        template.close();
+    }
+
+    @Test
+    public void streamingMergeTest() throws IOException, InterruptedException {
+        String resultFile = destinationFolder + "streamingMergedResult02.pdf";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(resultFile));
+        PdfMerger merger = new PdfMerger(pdfDoc).setStreamingMode(true);
+        PdfDocument source = new PdfDocument(new PdfReader(sourceFolder + "doc1.pdf"));
+        merger.merge(source, 1, 1);
+        Assert.assertTrue(source.isClosed());
+        Assert.assertTrue(pdfDoc.getPage(1).isFlushed());
+        merger.merge(new PdfDocument(new PdfReader(sourceFolder + "doc2.pdf")), 1, 1);
+        merger.merge(new PdfDocument(new PdfReader(sourceFolder + "doc3.pdf")), 1, 1);
+        Assert.assertEquals(0, pdfDoc.getWriter().getCopyContext().size());
+        merger.close();
+
+        CompareTool compareTool = new CompareTool();
+        String errorMessage = compareTool.compareByContent(resultFile, sourceFolder + "cmp_mergedResult02.pdf", destinationFolder, "diff_");
+        if (errorMessage != null) {
+            Assert.fail(errorMessage);
+        }
+    }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.SOURCE_DOCUMENT_HAS_ACROFORM_DICTIONARY)
+    })
+    public void streamingMergeTaggedTest() throws IOException, InterruptedException, ParserConfigurationException, SAXException {
+        String resultFile = destinationFolder + "streamingMergedResult04.pdf";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(resultFile));
+        pdfDoc.setTagged();
+        PdfMerger merger = new PdfMerger(pdfDoc).setStreamingMode(true);
+        merger.merge(new PdfDocument(new PdfReader(sourceFolder + "pdf_open_parameters.pdf")), Arrays.asList(3, 2, 1));
+        merger.merge(new PdfDocument(new PdfReader(sourceFolder + "iphone_user_guide.pdf")), Arrays.asList(5, 9, 4, 3));
+        merger.close();
+
+        CompareTool compareTool = new CompareTool();
+        String errorMessage = "";
+        String contentErrorMessage = compareTool.compareByContent(resultFile, sourceFolder + "cmp_mergedResult04.pdf", destinationFolder, "diff_");
+        String tagStructErrorMessage = compareTool.compareTagStructures(resultFile, sourceFolder + "cmp_mergedResult04.pdf");
+
+        errorMessage += tagStructErrorMessage == null ? "" : tagStructErrorMessage + "\n";
+        errorMessage += contentErrorMessage == null ? "" : contentErrorMessage;
+        if (!errorMessage.isEmpty()) {
+            Assert.fail(errorMessage);
+        }
+    }
+
+    @Test
+    public void streamingMergeOfTemplateTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument template = new PdfDocument(new PdfReader(sourceFolder + "courierTest.pdf"));
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        PdfMerger merger = new PdfMerger(pdfDoc).setStreamingMode(true).setCloseSourceDocuments(false);
+        for (int i = 0; i < 10; i++) {
+            merger.merge(template, 1, 1);
+        }
+        merger.close();
+        template.close();
+
+        PdfDocument result = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        Assert.assertEquals(10, result.getNumberOfPages());
+        PdfIndirectReference font = getFirstFont(result.getPage(1)).getIndirectReference();
+        Assert.assertEquals(font, getFirstFont(result.getPage(10)).getIndirectReference());
+        Assert.assertArrayEquals(result.getPage(1).getContentBytes(), result.getPage(10).getContentBytes());
+        result.close();
+    }
+
+    private static PdfDictionary getFirstFont(PdfPage page) {
+        PdfDictionary fonts = page.getPdfObject().getAsDictionary(PdfName.Resources).getAsDictionary(PdfName.Font);
+        return fonts.getAsDictionary(fonts.keySet().iterator().next());
+    }
 }
@@ -51,6 +51,7 @@ import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -257,4 +258,46 @@ public class PdfSplitterTest extends ExtendedITextTest{
                                                                  sourceFolder + "cmp/" + "cmp_splitBySize_part" + i + ".pdf", destinationFolder, "diff_"));
         }
     }
+
+    @Test
+    public void splitDocumentBySizeWithListener() throws IOException {
+        String inputFileName = sourceFolder + "splitBySize.pdf";
+        PdfDocument inputPdfDoc = new PdfDocument(new PdfReader(inputFileName));
+        final long maxSize = 40000;
+        final List<File> parts = new ArrayList<>();
+        final List<Integer> pageCounts = new ArrayList<>();
+        PdfSplitter splitter = new PdfSplitter(inputPdfDoc) {
+            @Override
+            protected PdfWriter getNextPdfWriter(PageRange documentPageRange) {
+                try {
+                    File part = new File(destinationFolder + "splitBySizeWithListener_part" + (parts.size() + 1) + ".pdf");
+                    parts.add(part);
+                    return new PdfWriter(part);
+                } catch (FileNotFoundException e) {
+                    throw new RuntimeException();
+                }
+            }
+        };
+
+        splitter.splitBySize(maxSize, new PdfSplitter.IDocumentReadyListener() {
+            @Override
+            public void documentReady(PdfDocument pdfDocument, PageRange pageRange) {
+                pageCounts.add(pdfDocument.getNumberOfPages());
+                pdfDocument.close();
+                // each part is written before the next one is created
+                Assert.assertEquals(pageCounts.size(), parts.size());
+            }
+        });
+        inputPdfDoc.close();
+
+        int totalPages = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            totalPages += pageCounts.get(i);
+            if (pageCounts.get(i) > 1) {
+                Assert.assertTrue(parts.get(i).getName() + " exceeds the maximum size", parts.get(i).length() <= maxSize);
+            }
+        }
+        Assert.assertEquals(11, totalPages);
+        Assert.assertTrue(parts.size() > 4);
+    }
 }
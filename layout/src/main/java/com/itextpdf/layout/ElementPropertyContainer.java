@@ -55,6 +55,7 @@ import com.itextpdf.layout.property.BaseDirection;
 import com.itextpdf.layout.property.FontKerning;
 import com.itextpdf.layout.property.HorizontalAlignment;
 import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.property.PropertyMap;
 import com.itextpdf.layout.property.TextAlignment;
 import com.itextpdf.layout.property.TransparentColor;
 import com.itextpdf.layout.property.Underline;
@@ -62,7 +63,6 @@ import com.itextpdf.layout.property.UnitValue;
 import com.itextpdf.layout.splitting.ISplitCharacters;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -74,11 +74,11 @@ import java.util.Map;
  */
 public abstract class ElementPropertyContainer<T extends IPropertyContainer> implements IPropertyContainer {
 
-    protected Map<Integer, Object> properties = new HashMap<>();
+    protected Map<Integer, Object> properties = new PropertyMap();
 
     @Override
     public void setProperty(int property, Object value) {
-        properties.put(property, value);
+        PropertyMap.setProperty(properties, property, value);
     }
 
     @Override
@@ -88,12 +88,12 @@ public abstract class ElementPropertyContainer<T extends IPropertyContainer> imp
 
     @Override
     public boolean hasOwnProperty(int property) {
-        return properties.containsKey(property);
+        return PropertyMap.containsProperty(properties, property);
     }
 
     @Override
     public void deleteOwnProperty(int property) {
-        properties.remove(property);
+        PropertyMap.removeProperty(properties, property);
     }
 
     @Override
@@ -103,7 +103,7 @@ public abstract class ElementPropertyContainer<T extends IPropertyContainer> imp
 
     @Override
     public <T1> T1 getOwnProperty(int property) {
-        return (T1) properties.<T1>get(property);
+        return (T1) PropertyMap.getProperty(properties, property);
     }
 
     @Override
@@ -59,6 +59,7 @@ import com.itextpdf.layout.property.FontKerning;
 import com.itextpdf.layout.property.HorizontalAlignment;
 import com.itextpdf.layout.property.Leading;
 import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.property.PropertyMap;
 import com.itextpdf.layout.property.TextAlignment;
 import com.itextpdf.layout.property.VerticalAlignment;
 import com.itextpdf.layout.renderer.IRenderer;
@@ -69,7 +70,6 @@ import com.itextpdf.layout.splitting.ISplitCharacters;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -89,7 +89,7 @@ public abstract class RootElement<T extends IPropertyContainer> extends ElementP
      * @deprecated This field just hides the same field from {@link ElementPropertyContainer}
      */
     @Deprecated
-    protected Map<Integer, Object> properties = new HashMap<>();
+    protected Map<Integer, Object> properties = new PropertyMap();
 
     protected PdfFont defaultFont;
     protected FontProvider defaultFontProvider;
@@ -159,7 +159,7 @@ public abstract class RootElement<T extends IPropertyContainer> extends ElementP
 
     @Override
     public boolean hasOwnProperty(int property) {
-        return properties.containsKey(property);
+        return PropertyMap.containsProperty(properties, property);
     }
 
     @Override
@@ -169,7 +169,7 @@ public abstract class RootElement<T extends IPropertyContainer> extends ElementP
 
     @Override
     public <T1> T1 getOwnProperty(int property) {
-        return (T1) properties.<T1>get(property);
+        return (T1) PropertyMap.getProperty(properties, property);
     }
 
     @Override
@@ -209,12 +209,12 @@ public abstract class RootElement<T extends IPropertyContainer> extends ElementP
 
     @Override
     public void deleteOwnProperty(int property) {
-        properties.remove(property);
+        PropertyMap.removeProperty(properties, property);
     }
 
     @Override
     public void setProperty(int property, Object value) {
-        properties.put(property, value);
+        PropertyMap.setProperty(properties, property, value);
     }
 
     /**
@@ -0,0 +1,413 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.property;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A {@link Map} of the {@link Property} values keyed by the property ids, which is specialized for layout elements
+ * and renderers. These usually have a few properties set and look up the properties much more often than set them.
+ * <p/>
+ * The presence of the keys from 0 to 127 is kept in a bitmap, and their values are kept in a compact array in
+ * the order of the keys, so a look up is a bit test and a bit count, without hashing and boxing of the key.
+ * The other keys are kept in a {@link HashMap}. Null values are supported.
+ */
+public class PropertyMap extends AbstractMap<Integer, Object> {
+
+    private static final int BITMAP_CAPACITY = 128;
+    private static final Object[] EMPTY_VALUES = new Object[0];
+
+    private long lowKeys;
+    private long highKeys;
+    private Object[] values = EMPTY_VALUES;
+    private int count;
+    private Map<Integer, Object> otherProperties;
+
+    /**
+     * Creates an empty map.
+     */
+    public PropertyMap() {
+    }
+
+    /**
+     * Creates a map with the same properties as the given one.
+     *
+     * @param properties the properties to be put into the new map.
+     */
+    public PropertyMap(Map<Integer, Object> properties) {
+        putAll(properties);
+    }
+
+    /**
+     * Checks if the property is present in the map.
+     *
+     * @param property the property id.
+     * @return true if the map contains the property, even if its value is null.
+     */
+    public boolean containsKey(int property) {
+        if (isInBitmap(property)) {
+            return (property < 64 ? lowKeys & (1L << property) : highKeys & (1L << property - 64)) != 0;
+        }
+        return otherProperties != null && otherProperties.containsKey(property);
+    }
+
+    /**
+     * Gets the value of the property.
+     *
+     * @param property the property id.
+     * @return the value of the property, or null if the map doesn't contain it.
+     */
+    public Object get(int property) {
+        if (isInBitmap(property)) {
+            return containsKey(property) ? values[indexOf(property)] : null;
+        }
+        return otherProperties != null ? otherProperties.get(property) : null;
+    }
+
+    /**
+     * Sets the value of the property.
+     *
+     * @param property the property id.
+     * @param value    the new value of the property.
+     * @return the previous value of the property, or null if the map didn't contain it.
+     */
+    public Object put(int property, Object value) {
+        if (!isInBitmap(property)) {
+            if (otherProperties == null) {
+                otherProperties = new HashMap<>();
+            }
+            return otherProperties.put(property, value);
+        }
+        int index = indexOf(property);
+        if (containsKey(property)) {
+            Object previousValue = values[index];
+            values[index] = value;
+            return previousValue;
+        }
+        if (count == values.length) {
+            Object[] newValues = new Object[Math.max(4, count * 2)];
+            System.arraycopy(values, 0, newValues, 0, index);
+            System.arraycopy(values, index, newValues, index + 1, count - index);
+            values = newValues;
+        } else {
+            System.arraycopy(values, index, values, index + 1, count - index);
+        }
+        values[index] = value;
+        count++;
+        if (property < 64) {
+            lowKeys |= 1L << property;
+        } else {
+            highKeys |= 1L << property - 64;
+        }
+        return null;
+    }
+
+    /**
+     * Removes the property from the map.
+     *
+     * @param property the property id.
+     * @return the previous value of the property, or null if the map didn't contain it.
+     */
+    public Object remove(int property) {
+        if (!isInBitmap(property)) {
+            return otherProperties != null ? otherProperties.remove(property) : null;
+        }
+        if (!containsKey(property)) {
+            return null;
+        }
+        int index = indexOf(property);
+        Object previousValue = values[index];
+        System.arraycopy(values, index + 1, values, index, count - index - 1);
+        values[--count] = null;
+        if (property < 64) {
+            lowKeys &= ~(1L << property);
+        } else {
+            highKeys &= ~(1L << property - 64);
+        }
+        return previousValue;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey((int) (Integer) key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key instanceof Integer ? get((int) (Integer) key) : null;
+    }
+
+    @Override
+    public Object put(Integer key, Object value) {
+        return put((int) key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return key instanceof Integer ? remove((int) (Integer) key) : null;
+    }
+
+    @Override
+    public void putAll(Map<? extends Integer, ?> properties) {
+        if (properties instanceof PropertyMap && count == 0 && otherProperties == null) {
+            PropertyMap other = (PropertyMap) properties;
+            lowKeys = other.lowKeys;
+            highKeys = other.highKeys;
+            count = other.count;
+            values = count > 0 ? Arrays.copyOf(other.values, count) : EMPTY_VALUES;
+            if (other.otherProperties != null) {
+                otherProperties = new HashMap<>(other.otherProperties);
+            }
+        } else {
+            super.putAll(properties);
+        }
+    }
+
+    @Override
+    public int size() {
+        return count + (otherProperties != null ? otherProperties.size() : 0);
+    }
+
+    @Override
+    public void clear() {
+        lowKeys = 0;
+        highKeys = 0;
+        values = EMPTY_VALUES;
+        count = 0;
+        otherProperties = null;
+    }
+
+    @Override
+    public Set<Entry<Integer, Object>> entrySet() {
+        return new AbstractSet<Entry<Integer, Object>>() {
+            @Override
+            public Iterator<Entry<Integer, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return PropertyMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Checks if the property is present in the properties. The look up doesn't box the property id
+     * if the properties are kept in a {@link PropertyMap}.
+     *
+     * @param properties the properties, e.g. of a layout element or a renderer.
+     * @param property   the property id.
+     * @return true if the properties contain the property, even if its value is null.
+     */
+    public static boolean containsProperty(Map<Integer, Object> properties, int property) {
+        return properties instanceof PropertyMap ? ((PropertyMap) properties).containsKey(property) : properties.containsKey(property);
+    }
+
+    /**
+     * Gets the value of the property. The look up doesn't box the property id
+     * if the properties are kept in a {@link PropertyMap}.
+     *
+     * @param properties the properties, e.g. of a layout element or a renderer.
+     * @param property   the property id.
+     * @return the value of the property, or null if the properties don't contain it.
+     */
+    public static Object getProperty(Map<Integer, Object> properties, int property) {
+        return properties instanceof PropertyMap ? ((PropertyMap) properties).get(property) : properties.get(property);
+    }
+
+    /**
+     * Sets the value of the property. The property id isn't boxed
+     * if the properties are kept in a {@link PropertyMap}.
+     *
+     * @param properties the properties, e.g. of a layout element or a renderer.
+     * @param property   the property id.
+     * @param value      the new value of the property.
+     */
+    public static void setProperty(Map<Integer, Object> properties, int property, Object value) {
+        if (properties instanceof PropertyMap) {
+            ((PropertyMap) properties).put(property, value);
+        } else {
+            properties.put(property, value);
+        }
+    }
+
+    /**
+     * Removes the property. The property id isn't boxed
+     * if the properties are kept in a {@link PropertyMap}.
+     *
+     * @param properties the properties, e.g. of a layout element or a renderer.
+     * @param property   the property id.
+     */
+    public static void removeProperty(Map<Integer, Object> properties, int property) {
+        if (properties instanceof PropertyMap) {
+            ((PropertyMap) properties).remove(property);
+        } else {
+            properties.remove(property);
+        }
+    }
+
+    private static boolean isInBitmap(int property) {
+        return property >= 0 && property < BITMAP_CAPACITY;
+    }
+
+    /**
+     * Gets the index of the property value in the values array, i.e. the number of the present keys less than it.
+     */
+    private int indexOf(int property) {
+        if (property < 64) {
+            return Long.bitCount(lowKeys & ((1L << property) - 1));
+        }
+        return Long.bitCount(lowKeys) + Long.bitCount(highKeys & ((1L << property - 64) - 1));
+    }
+
+    /**
+     * Gets the least present key of the bitmap which is not less than the given one, or -1 if there's no such key.
+     */
+    private int nextKey(int from) {
+        if (from < 64) {
+            long keys = lowKeys & (-1L << from);
+            if (keys != 0) {
+                return Long.numberOfTrailingZeros(keys);
+            }
+            from = 64;
+        }
+        if (from < BITMAP_CAPACITY) {
+            long keys = highKeys & (-1L << from - 64);
+            if (keys != 0) {
+                return 64 + Long.numberOfTrailingZeros(keys);
+            }
+        }
+        return -1;
+    }
+
+    private class EntryIterator implements Iterator<Entry<Integer, Object>> {
+        private int nextKey = nextKey(0);
+        private Iterator<Entry<Integer, Object>> otherIterator;
+        private int lastKey = -1;
+
+        @Override
+        public boolean hasNext() {
+            if (nextKey >= 0) {
+                return true;
+            }
+            if (otherIterator == null && otherProperties != null) {
+                otherIterator = otherProperties.entrySet().iterator();
+            }
+            return otherIterator != null && otherIterator.hasNext();
+        }
+
+        @Override
+        public Entry<Integer, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (nextKey < 0) {
+                lastKey = -1;
+                return otherIterator.next();
+            }
+            lastKey = nextKey;
+            nextKey = nextKey(nextKey + 1);
+            return new PropertyEntry(lastKey);
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey >= 0) {
+                PropertyMap.this.remove(lastKey);
+                lastKey = -1;
+            } else if (otherIterator != null) {
+                otherIterator.remove();
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    private class PropertyEntry implements Entry<Integer, Object> {
+        private final int property;
+
+        PropertyEntry(int property) {
+            this.property = property;
+        }
+
+        @Override
+        public Integer getKey() {
+            return property;
+        }
+
+        @Override
+        public Object getValue() {
+            return get(property);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return put(property, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            Object value = getValue();
+            return getKey().equals(entry.getKey()) && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return property ^ (value == null ? 0 : value.hashCode());
+        }
+    }
+}
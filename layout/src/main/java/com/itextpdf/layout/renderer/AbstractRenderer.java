@@ -74,6 +74,7 @@ import com.itextpdf.layout.property.Background;
 import com.itextpdf.layout.property.BackgroundImage;
 import com.itextpdf.layout.property.HorizontalAlignment;
 import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.property.PropertyMap;
 import com.itextpdf.layout.property.TransparentColor;
 import com.itextpdf.layout.property.UnitValue;
 import org.slf4j.Logger;
@@ -83,7 +84,6 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -111,7 +111,7 @@ public abstract class AbstractRenderer implements IRenderer {
     protected boolean flushed = false;
     protected LayoutArea occupiedArea;
     protected IRenderer parent;
-    protected Map<Integer, Object> properties = new HashMap<>();
+    protected Map<Integer, Object> properties = new PropertyMap();
     protected boolean isLastRendererForModelElement = true;
 
     /**
@@ -230,7 +230,7 @@ public abstract class AbstractRenderer implements IRenderer {
      */
     @Override
     public boolean hasOwnProperty(int property) {
-        return properties.containsKey(property);
+        return PropertyMap.containsProperty(properties, property);
     }
 
     /**
@@ -240,7 +240,7 @@ public abstract class AbstractRenderer implements IRenderer {
      * @return {@code true} if this instance or its model element have given own property, {@code false} otherwise
      */
     public boolean hasOwnOrModelProperty(int property) {
-        return properties.containsKey(property) || (null != getModelElement() && getModelElement().hasProperty(property));
+        return PropertyMap.containsProperty(properties, property) || (null != getModelElement() && getModelElement().hasProperty(property));
     }
 
     /**
@@ -248,7 +248,7 @@ public abstract class AbstractRenderer implements IRenderer {
      */
     @Override
     public void deleteOwnProperty(int property) {
-        properties.remove(property);
+        PropertyMap.removeProperty(properties, property);
     }
 
     /**
@@ -257,8 +257,8 @@ public abstract class AbstractRenderer implements IRenderer {
      * @param property the property key to be deleted
      */
     public void deleteProperty(int property) {
-        if (properties.containsKey(property)) {
-            properties.remove(property);
+        if (PropertyMap.containsProperty(properties, property)) {
+            PropertyMap.removeProperty(properties, property);
         } else {
             if (modelElement != null) {
                 modelElement.deleteOwnProperty(property);
@@ -272,7 +272,7 @@ public abstract class AbstractRenderer implements IRenderer {
     @Override
     public <T1> T1 getProperty(int key) {
         Object property;
-        if ((property = properties.get(key)) != null || properties.containsKey(key)) {
+        if ((property = PropertyMap.getProperty(properties, key)) != null || PropertyMap.containsProperty(properties, key)) {
             return (T1) property;
         }
         if (modelElement != null && ((property = modelElement.<T1>getProperty(key)) != null || modelElement.hasProperty(key))) {
@@ -294,7 +294,7 @@ public abstract class AbstractRenderer implements IRenderer {
      */
     @Override
     public <T1> T1 getOwnProperty(int property) {
-        return (T1) properties.get(property);
+        return (T1) PropertyMap.getProperty(properties, property);
     }
 
     /**
@@ -311,7 +311,7 @@ public abstract class AbstractRenderer implements IRenderer {
      */
     @Override
     public void setProperty(int property, Object value) {
-        properties.put(property, value);
+        PropertyMap.setProperty(properties, property, value);
     }
 
     /**
@@ -44,6 +44,8 @@
 package com.itextpdf.layout.renderer;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.layout.element.ILargeElement;
 import com.itextpdf.layout.layout.LayoutArea;
 import com.itextpdf.layout.layout.LayoutContext;
 import com.itextpdf.layout.layout.LayoutPosition;
@@ -57,6 +59,10 @@ import org.slf4j.LoggerFactory;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public abstract class RootRenderer extends AbstractRenderer {
 
@@ -68,7 +74,54 @@ public abstract class RootRenderer extends AbstractRenderer {
     private MarginsCollapseHandler marginsCollapseHandler;
     private LayoutArea initialCurrentArea;
 
+    private ExecutorService preShapingExecutor;
+    private int preShapingBatchSize;
+    private List<IRenderer> preShapingRenderers = new ArrayList<>();
+    private boolean isLayingOutPreShapedRenderers;
+
+    /**
+     * Makes the renderer prepare the text of the added renderers ahead of their layout on the given executor.
+     * The added renderers are buffered until {@code batchSize} of them are collected. Then the text of all of them is
+     * converted to glyphs, shaped and measured in parallel, since none of this depends on the layout areas, and after
+     * that the renderers are laid out one by one in the order they have been added, as usual.
+     * <p>
+     * The added renderers are not placed immediately anymore, so the current area is only updated
+     * when a batch is laid out. {@link #getCurrentArea()}, {@link #flush()} and {@link #close()} lay out
+     * the buffered renderers first. The renderers of {@link ILargeElement large elements} are never buffered.
+     * <p>
+     * Only the {@link TextRenderer} instances which are the children of {@link ParagraphRenderer} instances are
+     * prepared ahead, the custom text renderers are prepared during their layout. The fonts which are defined by
+     * their names are resolved on the calling thread, the rest of the preparation reads the fonts, the properties
+     * and the split characters on the threads of the executor.
+     *
+     * @param executor  the executor to prepare the text on, or null to prepare it during the layout
+     * @param batchSize the number of renderers which are prepared together
+     */
+    public void setPreShapingExecutor(ExecutorService executor, int batchSize) {
+        if (executor != null && batchSize < 1) {
+            throw new IllegalArgumentException("batchSize");
+        }
+        layoutPreShapingRenderers();
+        this.preShapingExecutor = executor;
+        this.preShapingBatchSize = batchSize;
+    }
+
     public void addChild(IRenderer renderer) {
+        if (preShapingExecutor != null && !isLayingOutPreShapedRenderers) {
+            if (renderer.getModelElement() instanceof ILargeElement) {
+                layoutPreShapingRenderers();
+            } else {
+                preShapingRenderers.add(renderer);
+                if (preShapingRenderers.size() >= preShapingBatchSize) {
+                    layoutPreShapingRenderers();
+                }
+                return;
+            }
+        }
+        layoutChild(renderer);
+    }
+
+    private void layoutChild(IRenderer renderer) {
         // Some positioned renderers might have been fetched from non-positioned child and added to this renderer,
         // so we use this generic mechanism of determining which renderers have been just added.
         int numberOfChildRenderers = childRenderers.size();
@@ -235,6 +288,7 @@ public abstract class RootRenderer extends AbstractRenderer {
      * @see #draw(com.itextpdf.layout.renderer.DrawContext)
      */
     public void flush() {
+        layoutPreShapingRenderers();
         for (IRenderer resultRenderer: childRenderers) {
             flushSingleRenderer(resultRenderer);
         }
@@ -251,11 +305,12 @@ public abstract class RootRenderer extends AbstractRenderer {
      * and when no consequent element has been added. This method addresses such situations.
      */
     public void close() {
+        layoutPreShapingRenderers();
         if (keepWithNextHangingRenderer != null) {
             keepWithNextHangingRenderer.setProperty(Property.KEEP_WITH_NEXT, false);
             IRenderer rendererToBeAdded = keepWithNextHangingRenderer;
             keepWithNextHangingRenderer = null;
-            addChild(rendererToBeAdded);
+            layoutChild(rendererToBeAdded);
         }
         if (!immediateFlush) {
             flush();
@@ -271,6 +326,7 @@ public abstract class RootRenderer extends AbstractRenderer {
     }
 
     public LayoutArea getCurrentArea() {
+        layoutPreShapingRenderers();
         if (currentArea == null) {
             updateCurrentAndInitialArea(null);
         }
@@ -385,4 +441,104 @@ public abstract class RootRenderer extends AbstractRenderer {
         initialCurrentArea = currentArea == null ? null : currentArea.clone();
     }
 
+    private void layoutPreShapingRenderers() {
+        if (preShapingRenderers.isEmpty()) {
+            return;
+        }
+        List<IRenderer> renderers = preShapingRenderers;
+        preShapingRenderers = new ArrayList<>();
+        preShape(renderers);
+        isLayingOutPreShapedRenderers = true;
+        try {
+            for (IRenderer renderer : renderers) {
+                layoutChild(renderer);
+            }
+        } finally {
+            isLayingOutPreShapedRenderers = false;
+        }
+    }
+
+    private void preShape(List<IRenderer> renderers) {
+        List<TextRenderer> textRenderers = new ArrayList<>();
+        for (IRenderer renderer : renderers) {
+            collectTextRenderers(renderer.setParent(this), textRenderers);
+        }
+        int tasksNumber = Math.min(textRenderers.size(), 4 * Runtime.getRuntime().availableProcessors());
+        List<Future<Object>> results = new ArrayList<>(tasksNumber);
+        for (int i = 0; i < tasksNumber; i++) {
+            int from = textRenderers.size() * i / tasksNumber;
+            int to = textRenderers.size() * (i + 1) / tasksNumber;
+            results.add(preShapingExecutor.submit(new PreShapingTask(textRenderers.subList(from, to))));
+        }
+        for (Future<Object> result : results) {
+            try {
+                result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Text shaping has been interrupted.", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException(cause.toString(), cause);
+            }
+        }
+    }
+
+    /**
+     * Collects the text renderers of the subtree, which are going to be placed into lines, and resolves their fonts.
+     * The parents are set the same way the layout sets them, so that the inherited properties are available.
+     */
+    private static void collectTextRenderers(IRenderer renderer, List<TextRenderer> textRenderers) {
+        if (!(renderer instanceof AbstractRenderer)) {
+            return;
+        }
+        List<IRenderer> children = ((AbstractRenderer) renderer).childRenderers;
+        for (int i = 0; i < children.size(); i++) {
+            IRenderer child = children.get(i);
+            if (child instanceof AbstractRenderer && ((AbstractRenderer) child).parent == null) {
+                child.setParent(renderer);
+            }
+            if (child.getClass() == TextRenderer.class && renderer instanceof ParagraphRenderer) {
+                TextRenderer textRenderer = (TextRenderer) child;
+                // the fonts and the default property values are created lazily, which is not safe to do concurrently
+                textRenderer.getProperty(Property.SPLIT_CHARACTERS);
+                if (textRenderer.getProperty(Property.FONT) instanceof String) {
+                    List<IRenderer> resolvedRenderers = new ArrayList<>();
+                    textRenderer.resolveFonts(resolvedRenderers);
+                    children.remove(i);
+                    children.addAll(i, resolvedRenderers);
+                    i += resolvedRenderers.size() - 1;
+                    for (IRenderer resolvedRenderer : resolvedRenderers) {
+                        textRenderers.add((TextRenderer) resolvedRenderer);
+                    }
+                } else if (textRenderer.getProperty(Property.FONT) instanceof PdfFont) {
+                    textRenderers.add(textRenderer);
+                }
+            } else {
+                collectTextRenderers(child, textRenderers);
+            }
+        }
+    }
+
+    private static class PreShapingTask implements Callable<Object> {
+        private final List<TextRenderer> textRenderers;
+
+        PreShapingTask(List<TextRenderer> textRenderers) {
+            this.textRenderers = textRenderers;
+        }
+
+        @Override
+        public Object call() {
+            for (TextRenderer textRenderer : textRenderers) {
+                textRenderer.preShape();
+            }
+            return null;
+        }
+    }
+
 }
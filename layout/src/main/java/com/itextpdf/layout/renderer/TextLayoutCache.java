@@ -0,0 +1,130 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.layout.splitting.ISplitCharacters;
+
+/**
+ * Memoizes the measurements of the words of a text, which are done by {@link TextRenderer#layout}.
+ * A text is usually laid out several times: while its min-max width is calculated, while the heights of table cells
+ * are probed, when a paragraph is laid out again because it does not fit the area. The measured words are reused
+ * by all such layouts of the renderer, and of the renderers which are split from it, as they share the same glyphs.
+ * <p>
+ * The cache is bound to the glyph positions of the text and to the properties which the width of a word
+ * depends on, see {@link #isApplicable}.
+ */
+final class TextLayoutCache {
+
+    private final PdfFont font;
+    private final float fontSize;
+    private final float hScale;
+    private final Float characterSpacing;
+    private final Float wordSpacing;
+    private final ISplitCharacters splitCharacters;
+
+    /**
+     * For each position which starts a measured word: the position of the last glyph of the word plus one
+     * (0 if no word starting at the position has been measured yet), and the position of the last printable glyph
+     * of the word.
+     */
+    private final int[] wordEnds;
+    /**
+     * For each position which starts a measured word: the width of the word, and the maximum width of its
+     * beginnings (which differs from the former if some glyphs have negative widths or advances).
+     */
+    private final float[] wordWidths;
+
+    TextLayoutCache(PdfFont font, float fontSize, float hScale, Float characterSpacing, Float wordSpacing,
+                    ISplitCharacters splitCharacters, int textSize) {
+        this.font = font;
+        this.fontSize = fontSize;
+        this.hScale = hScale;
+        this.characterSpacing = characterSpacing;
+        this.wordSpacing = wordSpacing;
+        this.splitCharacters = splitCharacters;
+        this.wordEnds = new int[2 * textSize];
+        this.wordWidths = new float[2 * textSize];
+    }
+
+    boolean isApplicable(PdfFont font, float fontSize, float hScale, Float characterSpacing, Float wordSpacing,
+                         ISplitCharacters splitCharacters, int textSize) {
+        return this.font == font && this.fontSize == fontSize && this.hScale == hScale
+                && equal(this.characterSpacing, characterSpacing) && equal(this.wordSpacing, wordSpacing)
+                && this.splitCharacters == splitCharacters && wordEnds.length == 2 * textSize;
+    }
+
+    /**
+     * Gets the position of the last glyph of the word which starts at the given position.
+     *
+     * @param pos the position of the first glyph of the word
+     * @return the position of the last glyph, or -1 if the word has not been measured yet
+     */
+    int getWordEnd(int pos) {
+        return wordEnds[2 * pos] - 1;
+    }
+
+    int getWordLastPrintable(int pos) {
+        return wordEnds[2 * pos + 1];
+    }
+
+    float getWordWidth(int pos) {
+        return wordWidths[2 * pos];
+    }
+
+    float getWordMaxWidth(int pos) {
+        return wordWidths[2 * pos + 1];
+    }
+
+    void putWord(int pos, int end, int lastPrintable, float width, float maxWidth) {
+        wordEnds[2 * pos] = end + 1;
+        wordEnds[2 * pos + 1] = lastPrintable;
+        wordWidths[2 * pos] = width;
+        wordWidths[2 * pos + 1] = maxWidth;
+    }
+
+    private static boolean equal(Float a, Float b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
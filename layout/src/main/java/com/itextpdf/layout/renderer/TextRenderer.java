@@ -103,6 +103,8 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
     private static final float ITALIC_ANGLE = 0.21256f;
     private static final float BOLD_SIMULATION_STROKE_COEFF = 1 / 30f;
     private static final float TYPO_ASCENDER_SCALE_COEFF = 1.2f;
+    // the relative error which is tolerated between the cached widths of words and the widths calculated glyph by glyph
+    private static final float CACHED_WIDTH_EPSILON = 1e-4f;
 
     protected float yLineOffset;
 
@@ -120,6 +122,9 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
 
     protected GlyphLine savedWordBreakAtLineEnding;
 
+    // shared with the renderers which are split from this one, since they share the same glyphs
+    private TextLayoutCache layoutCache;
+
     /**
      * Creates a TextRenderer from its corresponding layout object.
      *
@@ -151,6 +156,7 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
         this.otfFeaturesApplied = other.otfFeaturesApplied;
         this.tabAnchorCharacterPosition = other.tabAnchorCharacterPosition;
         this.reversedRanges = other.reversedRanges;
+        this.layoutCache = other.layoutCache;
     }
 
     @Override
@@ -180,6 +186,10 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
         float italicSkewAddition = Boolean.TRUE.equals(getPropertyAsBoolean(Property.ITALIC_SIMULATION)) ? ITALIC_ANGLE * fontSize : 0;
         float boldSimulationAddition = Boolean.TRUE.equals(getPropertyAsBoolean(Property.BOLD_SIMULATION)) ? BOLD_SIMULATION_STROKE_COEFF * fontSize : 0;
 
+        if (layoutCache == null || !layoutCache.isApplicable(font, fontSize, hScale, characterSpacing, wordSpacing, splitCharacters, text.size())) {
+            layoutCache = new TextLayoutCache(font, fontSize, hScale, characterSpacing, wordSpacing, splitCharacters, text.size());
+        }
+
         line = new GlyphLine(text);
         line.start = line.end = -1;
 
@@ -232,7 +242,33 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
             float nonBreakablePartMaxHeight = 0;
             int firstCharacterWhichExceedsAllowedWidth = -1;
 
-            for (int ind = currentTextPos; ind < text.end; ind++) {
+            // the words which have already been measured are not measured again if they fit the line even with
+            // an error margin, so that the results are the same as of the measuring. Only the words which are not
+            // kerned against the previous glyph are cached, so that the cached widths do not depend on what precedes them.
+            boolean isWordMeasured = false;
+            boolean isWordCacheable = previousCharPos == -1 || text.get(previousCharPos).getXAdvance() == 0;
+            if (isWordCacheable && tabAnchorCharacter == null) {
+                int cachedWordEnd = layoutCache.getWordEnd(currentTextPos);
+                if (cachedWordEnd != -1 && cachedWordEnd < text.end) {
+                    float cachedWordMaxWidth = layoutCache.getWordMaxWidth(currentTextPos);
+                    float maxWidthWithMargin = cachedWordMaxWidth + italicSkewAddition + boldSimulationAddition
+                            + CACHED_WIDTH_EPSILON * (1 + Math.abs(cachedWordMaxWidth));
+                    if (maxWidthWithMargin < layoutBox.getWidth() - currentLineWidth && maxWidthWithMargin < layoutBox.getWidth()) {
+                        isWordMeasured = true;
+                        nonBreakablePartEnd = cachedWordEnd;
+                        nonBreakablePartFullWidth = layoutCache.getWordWidth(currentTextPos);
+                        nonBreakablePartWidthWhichDoesNotExceedAllowedWidth = nonBreakablePartFullWidth;
+                        nonBreakablePartMaxAscender = Math.max(nonBreakablePartMaxAscender, ascender);
+                        nonBreakablePartMaxDescender = Math.min(nonBreakablePartMaxDescender, descender);
+                        nonBreakablePartMaxHeight = (nonBreakablePartMaxAscender - nonBreakablePartMaxDescender) * fontSize / TEXT_SPACE_COEFF + textRise;
+                        previousCharPos = layoutCache.getWordLastPrintable(currentTextPos);
+                    }
+                }
+            }
+            float nonBreakablePartMaxWidth = 0;
+            boolean isWordEndFound = false;
+
+            for (int ind = currentTextPos; !isWordMeasured && ind < text.end; ind++) {
                 if (TextUtil.isNewLine(text.get(ind))) {
                     wordBreakGlyphAtLineEnding = text.get(ind);
                     isSplitForcedByNewLine = true;
@@ -276,6 +312,7 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
                 }
 
                 nonBreakablePartFullWidth += glyphWidth + xAdvance;
+                nonBreakablePartMaxWidth = Math.max(nonBreakablePartMaxWidth, nonBreakablePartFullWidth);
                 nonBreakablePartMaxAscender = Math.max(nonBreakablePartMaxAscender, ascender);
                 nonBreakablePartMaxDescender = Math.min(nonBreakablePartMaxDescender, descender);
                 nonBreakablePartMaxHeight = (nonBreakablePartMaxAscender - nonBreakablePartMaxDescender) * fontSize / TEXT_SPACE_COEFF + textRise;
@@ -292,10 +329,15 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
                         splitCharacters.isSplitCharacter(text, ind + 1) &&
                                 TextUtil.isSpaceOrWhitespace(text.get(ind + 1))) {
                     nonBreakablePartEnd = ind;
+                    isWordEndFound = true;
                     break;
                 }
             }
 
+            if (isWordEndFound && isWordCacheable && firstCharacterWhichExceedsAllowedWidth == -1 && nonBreakablePartEnd + 1 < text.end) {
+                layoutCache.putWord(currentTextPos, nonBreakablePartEnd, previousCharPos, nonBreakablePartFullWidth, nonBreakablePartMaxWidth);
+            }
+
             if (firstCharacterWhichExceedsAllowedWidth == -1) {
                 // can fit the whole word in a line
                 if (line.start == -1) {
@@ -458,6 +500,24 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
     }
 
     public void applyOtf() {
+        applyOtf(parent instanceof LineRenderer);
+    }
+
+    /**
+     * Does the part of the layout which does not depend on the layout area ahead of it: converts the text to glyphs,
+     * applies the OpenType features the way {@link LineRenderer} does it, and measures the words of the text.
+     * The renderer is expected to be placed into a line later, and its font to be resolved already.
+     */
+    void preShape() {
+        applyOtf(true);
+        if (this.<Character>getProperty(Property.TAB_ANCHOR) == null) {
+            layout(new LayoutContext(new LayoutArea(1, new Rectangle(AbstractRenderer.INF, AbstractRenderer.INF))));
+            occupiedArea = null;
+            line = null;
+        }
+    }
+
+    private void applyOtf(boolean isPlacedInLine) {
         updateFontAndText();
         Character.UnicodeScript script = this.<Character.UnicodeScript>getProperty(Property.FONT_SCRIPT);
         if (!otfFeaturesApplied) {
@@ -488,7 +548,7 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
                 }
                 if (selectedEntry != null) {
                     Character.UnicodeScript selectScript = ((Map.Entry<Character.UnicodeScript, Integer>) selectedEntry).getKey();
-                    if ((selectScript == Character.UnicodeScript.ARABIC || selectScript == Character.UnicodeScript.HEBREW) && parent instanceof LineRenderer) {
+                    if ((selectScript == Character.UnicodeScript.ARABIC || selectScript == Character.UnicodeScript.HEBREW) && isPlacedInLine) {
                         setProperty(Property.BASE_DIRECTION, BaseDirection.DEFAULT_BIDI);
                     }
                     if (supportedScripts != null && supportedScripts.contains(selectScript)) {
@@ -507,6 +567,7 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
             }
 
             otfFeaturesApplied = true;
+            layoutCache = null;
         }
     }
 
@@ -842,6 +903,7 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
         this.text.start = leftPos;
         this.text.end = rightPos;
         this.otfFeaturesApplied = false;
+        this.layoutCache = null;
     }
 
     public GlyphLine getText() {
@@ -1003,6 +1065,7 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
         splitRenderer.parent = parent;
         splitRenderer.yLineOffset = yLineOffset;
         splitRenderer.otfFeaturesApplied = otfFeaturesApplied;
+        splitRenderer.layoutCache = layoutCache;
         splitRenderer.isLastRendererForModelElement = false;
         splitRenderer.addAllProperties(getOwnProperties());
 
@@ -1010,6 +1073,7 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
         overflowRenderer.setText(text, initialOverflowTextPos, text.end);
         overflowRenderer.font = font;
         overflowRenderer.otfFeaturesApplied = otfFeaturesApplied;
+        overflowRenderer.layoutCache = layoutCache;
         overflowRenderer.parent = parent;
         overflowRenderer.addAllProperties(getOwnProperties());
 
@@ -1085,6 +1149,7 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
         this.font = font;
         this.otfFeaturesApplied = false;
         this.strToBeConverted = null;
+        this.layoutCache = null;
         setProperty(Property.FONT, font);
     }
 
@@ -1208,6 +1273,7 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
             text = convertToGlyphLine(strToBeConverted);
             otfFeaturesApplied = false;
             strToBeConverted = null;
+            layoutCache = null;
         }
     }
 
@@ -0,0 +1,152 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.property;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Text;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Compares the property lookups of the {@link HashMap} based storage that was used by the layout elements and
+ * renderers before with the {@link PropertyMap} based one, and measures the layout of a large document.
+ */
+@Category(PerformanceTest.class)
+public class PropertyMapPerformanceTest {
+
+    private static final int ITERATIONS = 2000000;
+    private static final int ROUNDS = 5;
+    private static final int PARAGRAPHS = 10000;
+
+    private static final int[] ownKeys = {Property.FONT_SIZE, Property.TEXT_ALIGNMENT, Property.MARGIN_TOP,
+            Property.MARGIN_BOTTOM};
+    // the properties which are looked up by TextRenderer#layout, most of them are not set on the renderer itself
+    private static final int[] lookupKeys = {Property.FONT, Property.FONT_SIZE, Property.TEXT_RISE,
+            Property.CHARACTER_SPACING, Property.WORD_SPACING, Property.HORIZONTAL_SCALING, Property.FONT_KERNING,
+            Property.SPLIT_CHARACTERS, Property.UNDERLINE, Property.MARGIN_TOP, Property.BASE_DIRECTION};
+
+    @Test
+    public void propertyLookupTest() {
+        long hashMapTime = Long.MAX_VALUE;
+        long propertyMapTime = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            int hashMapFound = runHashMap(new HashMap<Integer, Object>());
+            hashMapTime = Math.min(hashMapTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            int propertyMapFound = runPropertyMap(new PropertyMap());
+            propertyMapTime = Math.min(propertyMapTime, System.nanoTime() - start);
+            Assert.assertEquals(hashMapFound, propertyMapFound);
+        }
+        System.out.println(String.format("property lookups: HashMap %d ms, PropertyMap %d ms",
+                hashMapTime / 1000000, propertyMapTime / 1000000));
+    }
+
+    @Test
+    public void layoutParagraphsTest() {
+        long time = Long.MAX_VALUE;
+        int numberOfPages = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+            Document document = new Document(pdfDocument);
+            for (int i = 0; i < PARAGRAPHS; i++) {
+                document.add(new Paragraph("Paragraph number " + i + " with some text which is long enough to be"
+                        + " wrapped at least once, so that the line renderer splits the text renderer.")
+                        .add(new Text(" Bold tail.").setBold()));
+            }
+            if (round == 0) {
+                numberOfPages = pdfDocument.getNumberOfPages();
+            }
+            // every round lays the same content out the same way
+            Assert.assertEquals(numberOfPages, pdfDocument.getNumberOfPages());
+            document.close();
+            time = Math.min(time, System.nanoTime() - start);
+        }
+        // two lines of about 14 pt per paragraph don't fit into a few pages
+        Assert.assertTrue(numberOfPages > PARAGRAPHS / 50);
+        System.out.println(String.format("layout of %d paragraphs into %d pages: %d ms",
+                PARAGRAPHS, numberOfPages, time / 1000000));
+    }
+
+    private static int runHashMap(Map<Integer, Object> properties) {
+        int found = 0;
+        for (int key : ownKeys) {
+            properties.put(key, (Object) key);
+        }
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (int key : lookupKeys) {
+                if (properties.get(key) != null || properties.containsKey(key)) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int runPropertyMap(PropertyMap properties) {
+        int found = 0;
+        for (int key : ownKeys) {
+            properties.put(key, (Object) key);
+        }
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (int key : lookupKeys) {
+                if (properties.get(key) != null || properties.containsKey(key)) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+}
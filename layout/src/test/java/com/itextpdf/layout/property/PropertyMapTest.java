@@ -0,0 +1,159 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.property;
+
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class PropertyMapTest extends ExtendedITextTest {
+
+    @Test
+    public void putGetRemoveTest() {
+        PropertyMap map = new PropertyMap();
+        Assert.assertNull(map.put(Property.FONT_SIZE, (Object) 12f));
+        Assert.assertNull(map.put(Property.MARGIN_TOP, null));
+        Assert.assertNull(map.put(Property.TEXT_ALIGNMENT, TextAlignment.CENTER));
+        Assert.assertEquals(12f, map.put(Property.FONT_SIZE, (Object) 14f));
+
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals(14f, map.get(Property.FONT_SIZE));
+        Assert.assertTrue(map.containsKey(Property.MARGIN_TOP));
+        Assert.assertNull(map.get(Property.MARGIN_TOP));
+        Assert.assertFalse(map.containsKey(Property.MARGIN_BOTTOM));
+        Assert.assertEquals(TextAlignment.CENTER, map.get((Object) Property.TEXT_ALIGNMENT));
+
+        Assert.assertEquals(14f, map.remove(Property.FONT_SIZE));
+        Assert.assertNull(map.remove(Property.FONT_SIZE));
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals(TextAlignment.CENTER, map.get(Property.TEXT_ALIGNMENT));
+    }
+
+    @Test
+    public void keysOutOfBitmapTest() {
+        PropertyMap map = new PropertyMap();
+        map.put(-1, "negative");
+        map.put(127, "last in bitmap");
+        map.put(128, "first out of bitmap");
+        map.put(100000, "custom");
+
+        Assert.assertEquals(4, map.size());
+        Assert.assertEquals("negative", map.get(-1));
+        Assert.assertEquals("last in bitmap", map.get(127));
+        Assert.assertEquals("first out of bitmap", map.get(128));
+        Assert.assertEquals("custom", map.get(100000));
+        Assert.assertEquals("custom", map.remove(100000));
+        Assert.assertFalse(map.containsKey(100000));
+    }
+
+    @Test
+    public void sameBehaviorAsHashMapTest() {
+        Random random = new Random(42);
+        PropertyMap map = new PropertyMap();
+        Map<Integer, Object> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(200) - 20;
+            Object value = random.nextInt(10) == 0 ? null : (Object) random.nextInt(1000);
+            switch (random.nextInt(3)) {
+                case 0:
+                    Assert.assertEquals(expected.put(key, value), map.put(key, value));
+                    break;
+                case 1:
+                    Assert.assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    Assert.assertEquals(expected.get(key), map.get(key));
+                    Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(map, expected);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+        Assert.assertEquals(expected, new PropertyMap(map));
+        Assert.assertEquals(expected, new PropertyMap(expected));
+    }
+
+    @Test
+    public void iteratorTest() {
+        PropertyMap map = new PropertyMap();
+        map.put(200, "b");
+        map.put(70, "a");
+        map.put(3, "c");
+        map.put(64, null);
+
+        int previousKey = -1;
+        for (Map.Entry<Integer, Object> entry : map.entrySet()) {
+            if (entry.getKey() < 128) {
+                // the keys from the bitmap go in ascending order
+                Assert.assertTrue(entry.getKey() > previousKey);
+                previousKey = entry.getKey();
+            }
+            if (entry.getKey() == 3) {
+                entry.setValue("d");
+            }
+        }
+        Assert.assertEquals("d", map.get(3));
+
+        Iterator<Map.Entry<Integer, Object>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            int key = iterator.next().getKey();
+            if (key == 64 || key == 200) {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(2, map.size());
+        Assert.assertFalse(map.containsKey(64));
+        Assert.assertFalse(map.containsKey(200));
+        Assert.assertEquals("a", map.get(70));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2017 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Div;
+import com.itextpdf.layout.element.List;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Text;
+import com.itextpdf.layout.property.TextAlignment;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Category(UnitTest.class)
+public class RootRendererTest extends ExtendedITextTest {
+
+    @Test
+    public void preShapingTest() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            PdfDocument expected = new PdfDocument(new PdfReader(new ByteArrayInputStream(createDocument(null, 0))));
+            for (int batchSize : new int[] {1, 7, 100}) {
+                PdfDocument actual = new PdfDocument(new PdfReader(new ByteArrayInputStream(createDocument(executor, batchSize))));
+                Assert.assertEquals(expected.getNumberOfPages(), actual.getNumberOfPages());
+                for (int i = 1; i <= expected.getNumberOfPages(); i++) {
+                    Assert.assertArrayEquals(expected.getPage(i).getContentBytes(), actual.getPage(i).getContentBytes());
+                }
+                actual.close();
+            }
+            expected.close();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void preShapingCurrentAreaTest() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Document doc = new Document(new PdfDocument(new PdfWriter(new ByteArrayOutputStream())));
+            doc.getRenderer().setPreShapingExecutor(executor, 10);
+            float top = doc.getRenderer().getCurrentArea().getBBox().getTop();
+            doc.add(new Paragraph("hello"));
+            // the buffered paragraph is placed before the area is reported
+            Assert.assertTrue(doc.getRenderer().getCurrentArea().getBBox().getTop() < top);
+            doc.close();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static byte[] createDocument(ExecutorService executor, int batchSize) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document doc = new Document(new PdfDocument(new PdfWriter(baos)));
+        if (executor != null) {
+            doc.getRenderer().setPreShapingExecutor(executor, batchSize);
+        }
+        for (int i = 0; i < 60; i++) {
+            switch (i % 4) {
+                case 0:
+                    doc.add(new Paragraph("Paragraph " + i + " with a text which is long enough to be wrapped at least once. ")
+                            .add(new Text("Underlined tail").setUnderline()));
+                    break;
+                case 1:
+                    doc.add(new Paragraph("First line " + i + "\nSecond line").setTextAlignment(TextAlignment.JUSTIFIED));
+                    break;
+                case 2:
+                    List list = new List();
+                    list.add("Item " + i).add("Another item which is a bit longer than the first one, long enough to wrap");
+                    doc.add(list);
+                    break;
+                default:
+                    doc.add(new Div().add(new Paragraph("Paragraph in a div " + i).setKeepWithNext(true)).add(new Paragraph("Last")));
+                    break;
+            }
+        }
+        doc.close();
+        return baos.toByteArray();
+    }
+
+}
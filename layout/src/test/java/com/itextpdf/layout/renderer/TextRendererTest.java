@@ -51,6 +51,7 @@ import com.itextpdf.layout.element.Text;
 import com.itextpdf.layout.layout.LayoutArea;
 import com.itextpdf.layout.layout.LayoutContext;
 import com.itextpdf.layout.layout.LayoutResult;
+import com.itextpdf.layout.property.Property;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.UnitTest;
 import org.junit.Assert;
@@ -84,4 +85,40 @@ public class TextRendererTest extends ExtendedITextTest {
         Assert.assertEquals(result1.getOccupiedArea(), result2.getOccupiedArea());
     }
 
+    @Test
+    public void relayoutTest() {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteBufferOutputStream()));
+        pdfDoc.addNewPage();
+        Document doc = new Document(pdfDoc);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.append("word").append(i).append(i % 3 == 0 ? "-like " : " ");
+        }
+        Text text = new Text(builder.toString());
+        IRenderer textRenderer = text.createRendererSubTree().setParent(doc.getRenderer());
+
+        // the first layouts measure the words, the following ones reuse the measurements
+        for (float width : new float[] {AbstractRenderer.INF, 100, 100, 57.5f, AbstractRenderer.INF}) {
+            String expected = layoutLines(text.createRendererSubTree().setParent(doc.getRenderer()), width);
+            Assert.assertEquals(expected, layoutLines(textRenderer, width));
+        }
+        textRenderer.setProperty(Property.FONT_SIZE, 15f);
+        IRenderer fontSizeRenderer = text.createRendererSubTree().setParent(doc.getRenderer());
+        fontSizeRenderer.setProperty(Property.FONT_SIZE, 15f);
+        Assert.assertEquals(layoutLines(fontSizeRenderer, 100), layoutLines(textRenderer, 100));
+
+        doc.close();
+    }
+
+    private static String layoutLines(IRenderer renderer, float width) {
+        StringBuilder lines = new StringBuilder();
+        while (renderer != null) {
+            LayoutResult result = renderer.layout(new LayoutContext(new LayoutArea(1, new Rectangle(width, 1000))));
+            lines.append(result.getSplitRenderer() != null ? result.getSplitRenderer() : renderer)
+                    .append(" | ").append(result.getOccupiedArea().getBBox()).append('\n');
+            renderer = result.getStatus() == LayoutResult.FULL ? null : result.getOverflowRenderer();
+        }
+        return lines.toString();
+    }
+
 }